@@ -1,5 +1,7 @@
 package com.budgetwise.backend.ai.ai;
 
+import com.budgetwise.backend.analytics.AnalyticsKernels;
+
 /**
  * A simple mathematical model to calculate the "Line of Best Fit"
  * (y = mx + b) for predicting future values based on history.
@@ -24,33 +26,29 @@ public class SimpleLinearRegression {
         if (x.length != y.length) {
             throw new IllegalArgumentException("Array lengths must match");
         }
-        if (x.length < 2) {
-            // Not enough data to calculate slope, return a flat line
-            double mean = 0;
-            if (y.length > 0) {
-                for (double val : y) mean += val;
-                mean /= y.length;
-            }
-            return new SimpleLinearRegression(mean, 0);
-        }
+        // sums = [Σx, Σy, Σxy, Σx²]
+        double[] sums = new double[4];
+        AnalyticsKernels.leastSquaresSums(x, y, x.length, sums);
 
-        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
-        int n = x.length;
+        return fromSufficientStatistics(x.length, sums[0], sums[1], sums[2], sums[3]);
+    }
 
-        for (int i = 0; i < n; i++) {
-            sumX += x[i];
-            sumY += y[i];
-            sumXY += x[i] * y[i];
-            sumX2 += x[i] * x[i];
+    /**
+     * Builds the model straight from running sums, so callers that keep the sums
+     * up to date (see CategoryTrendStore) never need the data points again.
+     * Keep x small (e.g. months since a recent origin) to avoid cancellation in the denominator.
+     */
+    public static SimpleLinearRegression fromSufficientStatistics(
+            long n, double sumX, double sumY, double sumXY, double sumX2) {
+        if (n < 2) {
+            // Not enough data to calculate slope, return a flat line
+            return new SimpleLinearRegression(n == 1 ? sumY : 0, 0);
         }
 
         double denominator = (n * sumX2 - sumX * sumX);
         if (denominator == 0) {
             // Vertical line case, return flat line average
-             double mean = 0;
-             for (double val : y) mean += val;
-             mean /= n;
-             return new SimpleLinearRegression(mean, 0);
+            return new SimpleLinearRegression(sumY / n, 0);
         }
 
         double slope = (n * sumXY - sumX * sumY) / denominator;
@@ -59,6 +57,14 @@ public class SimpleLinearRegression {
         return new SimpleLinearRegression(intercept, slope);
     }
 
+    public double getIntercept() {
+        return intercept;
+    }
+
+    public double getSlope() {
+        return slope;
+    }
+
     /**
      * Predicts the amount (y) for a future month (x).
      */
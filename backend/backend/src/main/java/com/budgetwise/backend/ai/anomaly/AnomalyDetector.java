@@ -0,0 +1,279 @@
+package com.budgetwise.backend.ai.anomaly;
+
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.cache.UserStateCache;
+import com.budgetwise.backend.dto.TransactionDto;
+import com.budgetwise.backend.entity.Transaction;
+import com.budgetwise.backend.entity.TransactionAlert;
+import com.budgetwise.backend.event.TransactionChangedEvent;
+import com.budgetwise.backend.event.UserAccountDeletedEvent;
+import com.budgetwise.backend.repository.TransactionAlertRepository;
+import com.budgetwise.backend.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Flags unusually large expenses as they are written, without any LLM call.
+ *
+ * Per (user, category) it keeps two constant-size summaries of past amounts:
+ * - an EWMA mean and variance, which follow recent changes in spending;
+ * - a streaming median and MAD (median absolute deviation), which outliers
+ *   barely move. They are seeded exactly from the first min-samples amounts and
+ *   then updated with the frugal rule: move a small step towards each new value.
+ * An expense is flagged when it is above the median and both the robust score
+ * and the EWMA z-score pass their thresholds. Scoring and updating are O(1).
+ *
+ * Driven by the TransactionChangedEvent that createTransaction / updateTransaction /
+ * deleteTransaction publish. A user's summaries are built from their history on
+ * the first write after startup (or after being idle), then kept in memory until
+ * idle or the account is deleted.
+ * Flags are stored in transaction_alerts; edits and deletes clear the old flag.
+ * The listener runs after the writer's commit, so it opens a transaction of its own.
+ */
+@Component
+@Slf4j
+public class AnomalyDetector {
+
+    private static final double MAD_TO_SIGMA = 0.6745;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionAlertRepository alertRepository;
+    private final double ewmaAlpha;
+    private final double sketchRate;
+    private final int minSamples;
+    private final double robustThreshold;
+    private final double ewmaThreshold;
+    private final long idleMinutes;
+    private final UserStateCache<UserStats> users;
+
+    public AnomalyDetector(
+            TransactionRepository transactionRepository,
+            TransactionAlertRepository alertRepository,
+            UserDataVersionTracker versionTracker,
+            @Value("${ai.anomaly.ewma-alpha:0.1}") double ewmaAlpha,
+            @Value("${ai.anomaly.sketch-rate:0.05}") double sketchRate,
+            @Value("${ai.anomaly.min-samples:8}") int minSamples,
+            @Value("${ai.anomaly.robust-threshold:3.5}") double robustThreshold,
+            @Value("${ai.anomaly.ewma-threshold:3.0}") double ewmaThreshold,
+            @Value("${ai.anomaly.idle-minutes:60}") long idleMinutes) {
+        this.transactionRepository = transactionRepository;
+        this.alertRepository = alertRepository;
+        this.ewmaAlpha = ewmaAlpha;
+        this.sketchRate = sketchRate;
+        this.minSamples = Math.max(3, minSamples);
+        this.robustThreshold = robustThreshold;
+        this.ewmaThreshold = ewmaThreshold;
+        this.idleMinutes = idleMinutes;
+        this.users = new UserStateCache<>(versionTracker::committed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        TransactionDto before = event.getBefore();
+        TransactionDto after = event.getAfter();
+
+        // An edited or deleted transaction loses its old flag; an edit is scored again below
+        if (before != null && before.getId() != null) {
+            alertRepository.deleteByTransactionId(before.getId());
+        }
+        if (after == null || after.getId() == null || !isExpense(after)) {
+            return;
+        }
+
+        // Edits are only scored: the summaries cannot take the old amount back out,
+        // and learning the new one too would count the transaction twice
+        boolean created = event.getKind() == TransactionChangedEvent.Kind.CREATED;
+        Long skipId = created ? after.getId() : null;
+        UserStats stats = users.get(event.getUserId(), userId -> load(userId, skipId));
+        // A load run for another event may already have read this transaction; one run
+        // for this event skipped it on purpose, so it still has to be learned
+        boolean learn = created && (Objects.equals(stats.skippedTransactionId, after.getId())
+                || !users.contains(event.getUserId(), event.getDataVersion()));
+        Score score = stats.observe(category(after), after.getAmount(), learn);
+        if (score != null) {
+            alertRepository.save(toAlert(event.getUserId(), after, score));
+            log.debug("Flagged transaction {} of user {} (robust {}, ewma {})",
+                    after.getId(), event.getUserId(), score.robust, score.ewma);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountDeleted(UserAccountDeletedEvent event) {
+        users.evict(event.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${ai.anomaly.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        users.evictIf(stats -> stats.lastAccess < cutoff);
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Replays the user's expense history in date order, without flagging anything.
+     * A newly created transaction that triggered the load is already committed, so it is
+     * skipped here and learned by observe instead; an edited one is part of the history.
+     */
+    private UserStats load(Long userId, Long skipTransactionId) {
+        UserStats stats = new UserStats();
+        stats.skippedTransactionId = skipTransactionId;
+        List<Transaction> history = new ArrayList<>(transactionRepository.findByUserId(userId));
+        history.sort(Comparator.comparing(Transaction::getDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Transaction::getId));
+        for (Transaction t : history) {
+            if ("EXPENSE".equalsIgnoreCase(t.getType()) && !Objects.equals(t.getId(), skipTransactionId)) {
+                stats.learnOnly(category(t.getCategory()), t.getAmount());
+            }
+        }
+        log.debug("Built anomaly baselines for user {} from {} transactions", userId, history.size());
+        return stats;
+    }
+
+    private static boolean isExpense(TransactionDto tx) {
+        return "EXPENSE".equalsIgnoreCase(tx.getType());
+    }
+
+    private static String category(TransactionDto tx) {
+        return category(tx.getCategory());
+    }
+
+    private static String category(String category) {
+        return category == null || category.isBlank() ? "Uncategorized" : category;
+    }
+
+    private static TransactionAlert toAlert(Long userId, TransactionDto tx, Score score) {
+        TransactionAlert alert = new TransactionAlert();
+        alert.setUserId(userId);
+        alert.setTransactionId(tx.getId());
+        alert.setCategory(category(tx));
+        alert.setDescription(tx.getDescription());
+        alert.setTransactionDate(tx.getDate() != null ? tx.getDate() : LocalDate.now());
+        alert.setAmount(tx.getAmount());
+        alert.setTypicalAmount(score.typical);
+        alert.setRobustScore(score.robust);
+        alert.setEwmaScore(score.ewma);
+        alert.setCreatedAt(LocalDateTime.now());
+        return alert;
+    }
+
+    private record Score(double typical, double robust, double ewma) {
+    }
+
+    /**
+     * One user's categories. All access is synchronized on the instance.
+     */
+    private final class UserStats {
+        final Map<String, CategoryStats> categories = new HashMap<>();
+        volatile long lastAccess = System.currentTimeMillis();
+        Long skippedTransactionId; // Set before the stats are shared
+
+        synchronized void learnOnly(String category, double amount) {
+            categories.computeIfAbsent(category, c -> new CategoryStats()).update(amount);
+        }
+
+        /**
+         * Scores the amount against the category's summaries as they were before it,
+         * then (if learn) folds it in. Returns the score only if it is an anomaly.
+         */
+        synchronized Score observe(String category, double amount, boolean learn) {
+            lastAccess = System.currentTimeMillis();
+            CategoryStats stats = categories.computeIfAbsent(category, c -> new CategoryStats());
+            Score score = stats.score(amount);
+            if (learn) {
+                stats.update(amount);
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Constant-size summaries of one category's amounts.
+     */
+    private final class CategoryStats {
+        long count;
+        double mean;
+        double variance;
+        double median;
+        double mad;
+        double[] seed = new double[minSamples]; // First amounts, until the sketches are seeded
+
+        Score score(double x) {
+            if (count < minSamples || x <= median) {
+                return null; // Still warming up, or not unusually large
+            }
+            double floor = scaleFloor();
+            double robust = MAD_TO_SIGMA * (x - median) / Math.max(mad, floor);
+            double ewma = (x - mean) / Math.max(Math.sqrt(variance), floor);
+            if (robust >= robustThreshold && ewma >= ewmaThreshold) {
+                return new Score(median, robust, ewma);
+            }
+            return null;
+        }
+
+        void update(double x) {
+            count++;
+            if (seed != null) {
+                seed[(int) count - 1] = x;
+                // Exact running mean/variance while warming up (Welford)
+                double delta = x - mean;
+                mean += delta / count;
+                variance += (delta * (x - mean) - variance) / count;
+                if (count == minSamples) {
+                    seedSketches();
+                }
+                return;
+            }
+
+            // Clip outliers before they reach the EWMA, so one spike cannot hide the next
+            double limit = median + robustThreshold * Math.max(mad, scaleFloor()) / MAD_TO_SIGMA;
+            double clipped = Math.min(x, limit);
+            double delta = clipped - mean;
+            mean += ewmaAlpha * delta;
+            variance = (1 - ewmaAlpha) * (variance + ewmaAlpha * delta * delta);
+
+            // Frugal streaming median and MAD: step towards the new value, scaled to the spread
+            double step = sketchRate * Math.max(mad, scaleFloor());
+            median += step * Math.signum(x - median);
+            mad = Math.max(0, mad + step * Math.signum(Math.abs(x - median) - mad));
+        }
+
+        private void seedSketches() {
+            double[] sorted = seed.clone();
+            Arrays.sort(sorted);
+            median = medianOf(sorted);
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = Math.abs(sorted[i] - median);
+            }
+            Arrays.sort(sorted);
+            mad = medianOf(sorted);
+            seed = null;
+        }
+
+        // Keeps scores finite for categories with (nearly) identical amounts, e.g. subscriptions
+        private double scaleFloor() {
+            return Math.max(0.05 * Math.abs(median), 0.01);
+        }
+
+        private static double medianOf(double[] sorted) {
+            int mid = sorted.length / 2;
+            return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.budgetwise.backend.ai.classifier;
+
+import com.budgetwise.backend.ai.dto.CategorizerEvaluationDto;
+import com.budgetwise.backend.entity.Transaction;
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.service.CategorizationService;
+import com.budgetwise.backend.service.GoogleGeminiService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Offline evaluation harness for the local categorizer.
+ *
+ * Shuffles the user's labelled transactions with a fixed seed, trains a fresh model
+ * on the first part and scores the hold-out part, measuring accuracy, coverage at the
+ * confidence threshold and per-prediction latency. When llmSample > 0 the same hold-out
+ * items are also sent to Gemini (in one batched prompt) for an accuracy/latency comparison.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategorizerEvaluator {
+
+    private static final long SEED = 42L;
+    private static final int MAX_LLM_SAMPLE = 100; // keeps the comparison to a single prompt
+
+    private final TransactionRepository transactionRepository;
+    private final LocalCategorizer localCategorizer;
+    private final CategorizationService categorizationService;
+    private final GoogleGeminiService geminiService;
+
+    public Mono<CategorizerEvaluationDto> evaluate(Long userId, double holdoutFraction, int llmSample) {
+        List<Transaction> labelled = new ArrayList<>();
+        for (Transaction t : transactionRepository.findByUserId(userId)) {
+            if (t.getCategory() != null && !t.getCategory().isBlank()
+                    && t.getDescription() != null && !t.getDescription().isBlank()) {
+                labelled.add(t);
+            }
+        }
+        Collections.shuffle(labelled, new Random(SEED));
+
+        double fraction = Math.min(0.5, Math.max(0.05, holdoutFraction));
+        int testSize = labelled.isEmpty() ? 0 : Math.max(1, (int) Math.round(labelled.size() * fraction));
+        List<Transaction> test = labelled.subList(0, testSize);
+        List<Transaction> train = labelled.subList(testSize, labelled.size());
+        NaiveBayesCategorizer model = localCategorizer.train(train);
+
+        // 1. Local model
+        long[] nanos = new long[test.size()];
+        int correct = 0;
+        int confident = 0;
+        int confidentCorrect = 0;
+        for (int i = 0; i < test.size(); i++) {
+            Transaction t = test.get(i);
+            long start = System.nanoTime();
+            NaiveBayesCategorizer.Prediction prediction = model.predict(t.getDescription());
+            nanos[i] = System.nanoTime() - start;
+            boolean hit = prediction != null && prediction.category().equalsIgnoreCase(t.getCategory());
+            if (hit) {
+                correct++;
+            }
+            if (localCategorizer.isConfident(prediction)) {
+                confident++;
+                if (hit) {
+                    confidentCorrect++;
+                }
+            }
+        }
+        Arrays.sort(nanos);
+
+        CategorizerEvaluationDto.CategorizerEvaluationDtoBuilder result = CategorizerEvaluationDto.builder()
+                .userId(userId)
+                .trainingSize(train.size())
+                .testSize(test.size())
+                .localAccuracy(ratio(correct, test.size()))
+                .localCoverage(ratio(confident, test.size()))
+                .localConfidentAccuracy(ratio(confidentCorrect, confident))
+                .localP50Micros(percentile(nanos, 0.50) / 1_000.0)
+                .localP99Micros(percentile(nanos, 0.99) / 1_000.0);
+
+        // 2. Gemini on a sample of the same hold-out set
+        int sample = Math.min(Math.min(Math.max(0, llmSample), MAX_LLM_SAMPLE), test.size());
+        if (sample == 0) {
+            return Mono.just(result.build());
+        }
+        List<Transaction> llmTest = test.subList(0, sample);
+        List<String> descriptions = llmTest.stream().map(Transaction::getDescription).toList();
+        List<String> categories = categorizationService.getCategoriesForUser(userId);
+        long start = System.nanoTime();
+        return geminiService.getCategoriesForTransactions(descriptions, categories)
+                .map(answers -> {
+                    double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+                    int llmCorrect = 0;
+                    for (int i = 0; i < sample; i++) {
+                        String answer = answers.get(i);
+                        if (answer != null && answer.equalsIgnoreCase(llmTest.get(i).getCategory())) {
+                            llmCorrect++;
+                        }
+                    }
+                    return result
+                            .llmSampleSize(sample)
+                            .llmAccuracy(ratio(llmCorrect, sample))
+                            .llmMillisPerItem(elapsedMillis / sample)
+                            .build();
+                });
+    }
+
+    // --- Helper Methods ---
+
+    private static double ratio(int numerator, int denominator) {
+        return denominator == 0 ? 0.0 : (double) numerator / denominator;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)];
+    }
+}
@@ -0,0 +1,121 @@
+package com.budgetwise.backend.ai.classifier;
+
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.cache.UserStateCache;
+import com.budgetwise.backend.dto.TransactionDto;
+import com.budgetwise.backend.entity.Transaction;
+import com.budgetwise.backend.event.TransactionChangedEvent;
+import com.budgetwise.backend.event.UserAccountDeletedEvent;
+import com.budgetwise.backend.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+
+/**
+ * Holds one NaiveBayesCategorizer per user, trained on that user's own labelled transactions.
+ *
+ * A model is trained the first time it is needed, then kept in step with
+ * TransactionChangedEvent (learn on create, unlearn + learn on update, unlearn on delete),
+ * and dropped after it has been idle for a while or when the account is deleted.
+ */
+@Component
+@Slf4j
+public class LocalCategorizer {
+
+    private final TransactionRepository transactionRepository;
+
+    @Value("${ai.categorize.local.buckets:4096}")
+    private int buckets;
+
+    @Value("${ai.categorize.local.min-training-size:20}")
+    private int minTrainingSize;
+
+    @Value("${ai.categorize.local.min-confidence:0.8}")
+    private double minConfidence;
+
+    @Value("${ai.categorize.local.idle-minutes:60}")
+    private long idleMinutes;
+
+    private final UserStateCache<LoadedModel> models;
+
+    public LocalCategorizer(TransactionRepository transactionRepository, UserDataVersionTracker versionTracker) {
+        this.transactionRepository = transactionRepository;
+        this.models = new UserStateCache<>(versionTracker::committed);
+    }
+
+    /**
+     * Predicts a category for the description, or returns null when the user's
+     * history is too small for the model to be trusted.
+     */
+    public NaiveBayesCategorizer.Prediction predict(Long userId, String description) {
+        LoadedModel loaded = models.get(userId, this::load);
+        loaded.lastAccess = System.currentTimeMillis();
+        if (loaded.model.size() < minTrainingSize) {
+            return null;
+        }
+        return loaded.model.predict(description);
+    }
+
+    // Below this posterior the caller should ask Gemini instead
+    public boolean isConfident(NaiveBayesCategorizer.Prediction prediction) {
+        return prediction != null && prediction.confidence() >= minConfidence;
+    }
+
+    /**
+     * Trains a fresh, unregistered model; used by the evaluation harness.
+     */
+    public NaiveBayesCategorizer train(Collection<Transaction> transactions) {
+        NaiveBayesCategorizer model = new NaiveBayesCategorizer(buckets);
+        for (Transaction t : transactions) {
+            model.learn(t.getDescription(), t.getCategory());
+        }
+        return model;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        // Not loaded: it will be trained fresh on the next prediction
+        models.update(event.getUserId(), event.getDataVersion(), loaded -> {
+            TransactionDto before = event.getBefore();
+            TransactionDto after = event.getAfter();
+            if (before != null) {
+                loaded.model.unlearn(before.getDescription(), before.getCategory());
+            }
+            if (after != null) {
+                loaded.model.learn(after.getDescription(), after.getCategory());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountDeleted(UserAccountDeletedEvent event) {
+        models.evict(event.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${ai.categorize.local.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        models.evictIf(loaded -> loaded.lastAccess < cutoff);
+    }
+
+    // --- Helper Methods ---
+
+    private LoadedModel load(Long userId) {
+        NaiveBayesCategorizer model = train(transactionRepository.findByUserId(userId));
+        log.debug("Trained categorizer for user {} on {} transactions", userId, model.size());
+        return new LoadedModel(model);
+    }
+
+    private static final class LoadedModel {
+        final NaiveBayesCategorizer model;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        LoadedModel(NaiveBayesCategorizer model) {
+            this.model = model;
+        }
+    }
+}
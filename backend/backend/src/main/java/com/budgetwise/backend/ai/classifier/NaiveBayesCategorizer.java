@@ -0,0 +1,172 @@
+package com.budgetwise.backend.ai.classifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Multinomial naive Bayes over hashed description features (word unigrams and bigrams).
+ *
+ * Storage is primitive: one int[] of feature counts per category, plus per-category
+ * document and token totals. Features are hashed into a fixed number of buckets, so
+ * memory per user is categories x buckets x 4 bytes no matter how large the vocabulary.
+ *
+ * Training is incremental in both directions: learn(...) adds a labelled example and
+ * unlearn(...) removes one, so edits and deletes keep the model exact.
+ * Instances are thread-safe; all methods synchronize on the model.
+ */
+public class NaiveBayesCategorizer {
+
+    private static final double ALPHA = 1.0; // Laplace smoothing
+
+    private final int buckets;
+    private final Map<String, Integer> labelIndex = new HashMap<>();
+    private final List<String> labels = new ArrayList<>();
+
+    private int[][] featureCounts = new int[0][];
+    private long[] tokenTotals = new long[0];
+    private int[] docCounts = new int[0];
+    private final int[] featureTotals; // across all labels, to track the active vocabulary size
+    private int activeFeatures;
+    private int totalDocs;
+
+    public record Prediction(String category, double confidence) {
+    }
+
+    public NaiveBayesCategorizer(int buckets) {
+        this.buckets = buckets;
+        this.featureTotals = new int[buckets];
+    }
+
+    public synchronized void learn(String description, String category) {
+        update(description, category, 1);
+    }
+
+    public synchronized void unlearn(String description, String category) {
+        if (category != null && labelIndex.containsKey(category)) {
+            update(description, category, -1);
+        }
+    }
+
+    public synchronized int size() {
+        return totalDocs;
+    }
+
+    /**
+     * Returns the most probable category and its posterior probability,
+     * or null when the model has not seen any labelled data yet.
+     */
+    public synchronized Prediction predict(String description) {
+        if (totalDocs == 0 || labels.isEmpty()) {
+            return null;
+        }
+        int[] features = features(description);
+        int classes = labels.size();
+        double vocabulary = Math.max(1, activeFeatures);
+        double[] logPosterior = new double[classes];
+        double best = Double.NEGATIVE_INFINITY;
+        int bestIndex = -1;
+
+        for (int c = 0; c < classes; c++) {
+            if (docCounts[c] <= 0) {
+                logPosterior[c] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            double score = Math.log((double) docCounts[c] / totalDocs);
+            double denominator = Math.log(tokenTotals[c] + ALPHA * vocabulary);
+            int[] counts = featureCounts[c];
+            for (int f : features) {
+                score += Math.log(counts[f] + ALPHA) - denominator;
+            }
+            logPosterior[c] = score;
+            if (score > best) {
+                best = score;
+                bestIndex = c;
+            }
+        }
+        if (bestIndex < 0) {
+            return null;
+        }
+
+        // Softmax normalisation in log space for the winner's probability
+        double sum = 0;
+        for (double lp : logPosterior) {
+            if (lp != Double.NEGATIVE_INFINITY) {
+                sum += Math.exp(lp - best);
+            }
+        }
+        return new Prediction(labels.get(bestIndex), 1.0 / sum);
+    }
+
+    // --- Helper Methods ---
+
+    private void update(String description, String category, int delta) {
+        if (category == null || category.isBlank()) {
+            return;
+        }
+        int c = labelIndex.computeIfAbsent(category, this::addLabel);
+        if (delta < 0 && docCounts[c] == 0) {
+            return;
+        }
+        int[] counts = featureCounts[c];
+        for (int f : features(description)) {
+            int change = Math.max(0, counts[f] + delta) - counts[f];
+            if (change == 0) {
+                continue;
+            }
+            int before = featureTotals[f];
+            counts[f] += change;
+            featureTotals[f] += change;
+            tokenTotals[c] += change;
+            if (before == 0 && featureTotals[f] > 0) {
+                activeFeatures++;
+            } else if (before > 0 && featureTotals[f] == 0) {
+                activeFeatures--;
+            }
+        }
+        docCounts[c] += delta;
+        totalDocs += delta;
+    }
+
+    private int addLabel(String category) {
+        int index = labels.size();
+        labels.add(category);
+        featureCounts = Arrays.copyOf(featureCounts, index + 1);
+        featureCounts[index] = new int[buckets];
+        tokenTotals = Arrays.copyOf(tokenTotals, index + 1);
+        docCounts = Arrays.copyOf(docCounts, index + 1);
+        return index;
+    }
+
+    /**
+     * Hashed unigram and bigram features of the normalized description.
+     * Digits and punctuation are dropped so "UBER *TRIP 8812" and "Uber trip 1234" share features.
+     */
+    private int[] features(String description) {
+        if (description == null) {
+            return new int[0];
+        }
+        String[] words = description.toLowerCase(Locale.ROOT).replaceAll("[^a-z ]", " ").trim().split("\\s+");
+        int[] out = new int[words.length * 2];
+        int n = 0;
+        String previous = null;
+        for (String word : words) {
+            if (word.length() < 2) {
+                continue;
+            }
+            out[n++] = bucket(word);
+            if (previous != null) {
+                out[n++] = bucket(previous + ' ' + word);
+            }
+            previous = word;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private int bucket(String feature) {
+        return Math.floorMod(feature.hashCode() * 0x9E3779B1, buckets);
+    }
+}
@@ -0,0 +1,225 @@
+package com.budgetwise.backend.ai.client;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Count-based circuit breaker over the last N upstream calls.
+ *
+ * CLOSED: calls go through; each outcome is recorded in a ring buffer. Once at least
+ *   minimumCalls are recorded and either the failure rate or the slow-call rate reaches
+ *   its threshold, the breaker OPENs.
+ * OPEN: calls are rejected immediately until openDuration has passed, then the breaker
+ *   goes HALF_OPEN.
+ * HALF_OPEN: a limited number of probe calls are let through. If all probes succeed
+ *   (and are not slow) the breaker CLOSEs with a fresh window; any failed probe re-OPENs it.
+ *
+ * Each permitted call gets a Permission that records the outcome against the state it was
+ * issued in; outcomes of calls that outlived that state are dropped.
+ *
+ * All state is guarded by the instance monitor; the critical sections are a few field
+ * updates, negligible next to a network call.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    // Ring buffer of recent outcomes
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    // Bumped on every state change; permissions from an older generation are stale
+    private long generation;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+    private long rejectedCalls;
+    private long timesOpened;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          double slowCallRateThreshold, long slowCallNanos, long openNanos, int halfOpenProbes) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.failed = new boolean[this.windowSize];
+        this.slow = new boolean[this.windowSize];
+    }
+
+    /**
+     * Asks whether a call may start. Returns null if the breaker rejects it; otherwise the
+     * caller must report the outcome on the returned permission exactly once, with
+     * {@link Permission#onSuccess(long)}, {@link Permission#onFailure(long)} or
+     * {@link Permission#onIgnored()}.
+     */
+    public synchronized Permission tryAcquirePermission(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                rejectedCalls++;
+                return null;
+            }
+            transitionTo(State.HALF_OPEN);
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                rejectedCalls++;
+                return null;
+            }
+            probesStarted++;
+            return new Permission(true, generation);
+        }
+        return new Permission(false, generation);
+    }
+
+    /**
+     * One permitted call. It remembers whether it was a half-open probe and which state
+     * generation it started in, so an outcome only counts towards the state it was issued for:
+     * a call started while CLOSED that finishes after the breaker opened (or half-opened)
+     * is not mistaken for a probe, and a late probe result does not touch a newer state.
+     */
+    public final class Permission {
+        private final boolean probe;
+        private final long issuedIn;
+        private boolean reported;
+
+        private Permission(boolean probe, long issuedIn) {
+            this.probe = probe;
+            this.issuedIn = issuedIn;
+        }
+
+        public boolean isProbe() {
+            return probe;
+        }
+
+        public void onSuccess(long durationNanos) {
+            synchronized (CircuitBreaker.this) {
+                if (isCurrent()) {
+                    recordSuccess(probe, durationNanos);
+                }
+            }
+        }
+
+        public void onFailure(long durationNanos) {
+            synchronized (CircuitBreaker.this) {
+                if (isCurrent()) {
+                    recordFailure(probe, durationNanos);
+                }
+            }
+        }
+
+        // No verdict (cancelled, or a caller error): nothing is recorded, but a probe slot is freed
+        public void onIgnored() {
+            synchronized (CircuitBreaker.this) {
+                if (isCurrent() && probe && probesStarted > 0) {
+                    probesStarted--;
+                }
+            }
+        }
+
+        // Marks the permission as used; true if its outcome still applies to the current state
+        private boolean isCurrent() {
+            if (reported) {
+                return false;
+            }
+            reported = true;
+            return issuedIn == generation;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        return Map.of(
+                "state", state.name(),
+                "recordedCalls", recorded,
+                "failureRate", recorded == 0 ? 0.0 : (double) failures / recorded,
+                "slowCallRate", recorded == 0 ? 0.0 : (double) slowCalls / recorded,
+                "rejectedCalls", rejectedCalls,
+                "timesOpened", timesOpened);
+    }
+
+    // --- Helper Methods ---
+
+    private void recordSuccess(boolean probe, long durationNanos) {
+        boolean isSlow = durationNanos >= slowCallNanos;
+        if (probe) {
+            if (isSlow) {
+                open();
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                close();
+            }
+            return;
+        }
+        record(false, isSlow);
+    }
+
+    private void recordFailure(boolean probe, long durationNanos) {
+        if (probe) {
+            open();
+            return;
+        }
+        record(true, durationNanos >= slowCallNanos);
+    }
+
+    private void record(boolean isFailure, boolean isSlow) {
+        if (recorded == windowSize) {
+            // Overwrite the oldest outcome
+            if (failed[position]) failures--;
+            if (slow[position]) slowCalls--;
+        } else {
+            recorded++;
+        }
+        failed[position] = isFailure;
+        slow[position] = isSlow;
+        if (isFailure) failures++;
+        if (isSlow) slowCalls++;
+        position = (position + 1) % windowSize;
+
+        if (recorded >= minimumCalls
+                && ((double) failures / recorded >= failureRateThreshold
+                || (double) slowCalls / recorded >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private void open() {
+        transitionTo(State.OPEN);
+        openedAt = System.nanoTime();
+        timesOpened++;
+    }
+
+    private void close() {
+        transitionTo(State.CLOSED);
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        Arrays.fill(failed, false);
+        Arrays.fill(slow, false);
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        generation++;
+    }
+}
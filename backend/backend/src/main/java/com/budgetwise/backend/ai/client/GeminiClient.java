@@ -0,0 +1,282 @@
+package com.budgetwise.backend.ai.client;
+
+import com.budgetwise.backend.ai.dto.GeminiRequest;
+import com.budgetwise.backend.ai.dto.GeminiResponse;
+import com.budgetwise.backend.exception.AiUnavailableException;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking access to the Gemini generateContent API.
+ *
+ * - Every call has a hard timeout (gemini.timeout-ms).
+ * - Single-flight: concurrent generate() calls with the same prompt share one upstream
+ *   call and its result (double clicks, several tabs loading the same insight).
+ * - A per-user limit (gemini.max-concurrency-per-user) caps one user's upstream calls;
+ *   the user id comes from the Reactor Context (see {@link #forUser(Long)}).
+ * - A global bulkhead caps all upstream calls (gemini.max-concurrency).
+ *   Callers beyond either limit fail fast instead of queueing.
+ * - A circuit breaker (gemini.circuit.*) watches failure and slow-call rates; while it is
+ *   open, calls fail immediately with AiUnavailableException so callers can fall back
+ *   to a local answer instead of waiting for a timeout.
+ * - Nothing here blocks: callers get a Mono (or a Flux of chunks for streaming)
+ *   and no servlet thread waits on the LLM.
+ */
+@Component
+@Slf4j
+public class GeminiClient {
+
+    public static final String USER_ID_KEY = GeminiClient.class.getName() + ".userId";
+
+    private final WebClient geminiWebClient;
+    private final WebClient geminiStreamWebClient;
+    private final Duration timeout;
+    private final Semaphore bulkhead;
+    private final int maxConcurrencyPerUser;
+    private final CircuitBreaker circuitBreaker;
+
+    // Keyed by the full prompt text: equal prompts are the same request
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Long, Semaphore> userPermits = new ConcurrentHashMap<>();
+
+    private final AtomicLong upstreamCalls = new AtomicLong();
+    private final AtomicLong coalescedCalls = new AtomicLong();
+    private final AtomicLong userRejections = new AtomicLong();
+    private final AtomicLong busyRejections = new AtomicLong();
+
+    public GeminiClient(
+            WebClient geminiWebClient,
+            WebClient geminiStreamWebClient,
+            @Value("${gemini.timeout-ms:20000}") long timeoutMs,
+            @Value("${gemini.max-concurrency:16}") int maxConcurrency,
+            @Value("${gemini.max-concurrency-per-user:6}") int maxConcurrencyPerUser,
+            @Value("${gemini.circuit.window-size:20}") int circuitWindowSize,
+            @Value("${gemini.circuit.minimum-calls:10}") int circuitMinimumCalls,
+            @Value("${gemini.circuit.failure-rate-threshold:0.5}") double circuitFailureRate,
+            @Value("${gemini.circuit.slow-call-rate-threshold:0.8}") double circuitSlowCallRate,
+            @Value("${gemini.circuit.slow-call-ms:8000}") long circuitSlowCallMs,
+            @Value("${gemini.circuit.open-ms:30000}") long circuitOpenMs,
+            @Value("${gemini.circuit.half-open-probes:2}") int circuitHalfOpenProbes) {
+        this.geminiWebClient = geminiWebClient;
+        this.geminiStreamWebClient = geminiStreamWebClient;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.bulkhead = new Semaphore(maxConcurrency);
+        this.maxConcurrencyPerUser = maxConcurrencyPerUser;
+        this.circuitBreaker = new CircuitBreaker(circuitWindowSize, circuitMinimumCalls,
+                circuitFailureRate, circuitSlowCallRate,
+                Duration.ofMillis(circuitSlowCallMs).toNanos(), Duration.ofMillis(circuitOpenMs).toNanos(),
+                circuitHalfOpenProbes);
+    }
+
+    /**
+     * Reactor Context that attributes Gemini calls to a user for the per-user limit:
+     * {@code mono.contextWrite(GeminiClient.forUser(user.getId()))}.
+     */
+    public static Context forUser(Long userId) {
+        return Context.of(USER_ID_KEY, userId);
+    }
+
+    /**
+     * Sends one prompt and emits the first text candidate.
+     * Joining an identical in-flight call does not count against any limit.
+     */
+    public Mono<String> generate(String prompt) {
+        return Mono.deferContextual(ctx -> {
+            Mono<String> existing = inFlight.get(prompt);
+            if (existing != null) {
+                coalescedCalls.incrementAndGet();
+                return existing;
+            }
+
+            Semaphore userLimit = acquireUserPermit(ctx);
+            AtomicBoolean userPermitReleased = new AtomicBoolean();
+            Runnable releaseUserPermit = () -> {
+                if (userLimit != null && userPermitReleased.compareAndSet(false, true)) {
+                    userLimit.release();
+                }
+            };
+
+            // cache(): the first subscriber starts the one upstream call; everyone else, including
+            // a caller that picks the entry up just after the call finished, replays its result.
+            // The entry is removed once the call finishes, but only if it is still this call's entry.
+            AtomicReference<Mono<String>> self = new AtomicReference<>();
+            Mono<String> created = callUpstream(prompt)
+                    .doFinally(signal -> {
+                        inFlight.remove(prompt, self.get());
+                        releaseUserPermit.run();
+                    })
+                    .cache();
+            self.set(created);
+
+            Mono<String> call = inFlight.putIfAbsent(prompt, created);
+            if (call != null) {
+                // Lost the race to another caller with the same prompt
+                releaseUserPermit.run();
+                coalescedCalls.incrementAndGet();
+                return call;
+            }
+            return created;
+        });
+    }
+
+    /**
+     * Streams the answer as text chunks as Gemini generates them (streamGenerateContent, SSE).
+     *
+     * Streams are per client and never coalesced, but count against both limits.
+     * The permits are held for the life of the stream. Cancelling the returned Flux
+     * (e.g. the browser disconnects) cancels the upstream HTTP exchange and releases them.
+     * Demand is propagated to the connection, so a slow client slows reads instead of buffering.
+     * The timeout applies between chunks, so long answers are fine as long as they keep flowing.
+     */
+    public Flux<String> stream(String prompt) {
+        return Flux.deferContextual(ctx -> {
+            CircuitBreaker.Permission permission = circuitBreaker.tryAcquirePermission(System.nanoTime());
+            if (permission == null) {
+                return Flux.error(new AiUnavailableException("AI service is temporarily unavailable."));
+            }
+            Semaphore userLimit;
+            try {
+                userLimit = acquireUserPermit(ctx);
+            } catch (TooManyRequestsException e) {
+                permission.onIgnored();
+                throw e;
+            }
+            if (!bulkhead.tryAcquire()) {
+                permission.onIgnored();
+                if (userLimit != null) {
+                    userLimit.release();
+                }
+                busyRejections.incrementAndGet();
+                return Flux.error(new ServiceBusyException("AI service is busy, please try again shortly."));
+            }
+            upstreamCalls.incrementAndGet();
+            long start = System.nanoTime();
+            long[] firstChunkNanos = {-1L};
+            return geminiStreamWebClient.post()
+                    .bodyValue(new GeminiRequest(prompt))
+                    .retrieve()
+                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<GeminiResponse>>() { })
+                    .mapNotNull(ServerSentEvent::data)
+                    .map(GeminiResponse::chunkText)
+                    .filter(text -> !text.isEmpty())
+                    .timeout(timeout)
+                    // For streams "slow" means a slow first chunk, not a long answer;
+                    // a stream that ends without any chunk is judged by its total time
+                    .doOnNext(text -> {
+                        if (firstChunkNanos[0] < 0) {
+                            firstChunkNanos[0] = System.nanoTime() - start;
+                        }
+                    })
+                    .doOnComplete(() -> permission.onSuccess(
+                            firstChunkNanos[0] >= 0 ? firstChunkNanos[0] : System.nanoTime() - start))
+                    .doOnError(e -> recordError(permission, e, System.nanoTime() - start))
+                    .doOnCancel(permission::onIgnored)
+                    .doFinally(signal -> {
+                        bulkhead.release();
+                        if (userLimit != null) {
+                            userLimit.release();
+                        }
+                    });
+        });
+    }
+
+    public int availablePermits() {
+        return bulkhead.availablePermits();
+    }
+
+    public Map<String, Object> circuitStats() {
+        return circuitBreaker.stats();
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "upstreamCalls", upstreamCalls.get(),
+                "coalescedCalls", coalescedCalls.get(),
+                "inFlight", (long) inFlight.size(),
+                "userRejections", userRejections.get(),
+                "busyRejections", busyRejections.get(),
+                "availablePermits", (long) bulkhead.availablePermits());
+    }
+
+    /**
+     * Drops per-user semaphores that are fully released, so idle users cost nothing.
+     * A caller racing with removal may briefly hold a dropped semaphore; the worst case
+     * is one extra concurrent call for that user, which is acceptable for a soft limit.
+     */
+    @Scheduled(fixedDelayString = "${gemini.user-permits.cleanup-interval-ms:60000}")
+    public void evictIdleUserPermits() {
+        userPermits.values().removeIf(permits -> permits.availablePermits() >= maxConcurrencyPerUser);
+    }
+
+    // --- Helper Methods ---
+
+    private Mono<String> callUpstream(String prompt) {
+        return Mono.defer(() -> {
+            CircuitBreaker.Permission permission = circuitBreaker.tryAcquirePermission(System.nanoTime());
+            if (permission == null) {
+                return Mono.error(new AiUnavailableException("AI service is temporarily unavailable."));
+            }
+            if (!bulkhead.tryAcquire()) {
+                permission.onIgnored();
+                busyRejections.incrementAndGet();
+                return Mono.error(new ServiceBusyException("AI service is busy, please try again shortly."));
+            }
+            upstreamCalls.incrementAndGet();
+            long start = System.nanoTime();
+            return geminiWebClient.post()
+                    .bodyValue(new GeminiRequest(prompt))
+                    .retrieve()
+                    .bodyToMono(GeminiResponse.class)
+                    .map(GeminiResponse::getFirstText)
+                    .defaultIfEmpty("Error: No response.")
+                    .timeout(timeout)
+                    .doOnSuccess(text -> permission.onSuccess(System.nanoTime() - start))
+                    .doOnError(e -> recordError(permission, e, System.nanoTime() - start))
+                    .doOnCancel(permission::onIgnored)
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+
+    // A 4xx means Gemini is up and rejected this request (bad prompt, quota): not a service failure
+    private static void recordError(CircuitBreaker.Permission permission, Throwable error, long durationNanos) {
+        if (error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            permission.onIgnored();
+        } else {
+            permission.onFailure(durationNanos);
+        }
+    }
+
+    // Returns the acquired per-user semaphore (caller must release), or null for unattributed calls
+    private Semaphore acquireUserPermit(ContextView ctx) {
+        Long userId = ctx.getOrDefault(USER_ID_KEY, null);
+        if (userId == null) {
+            return null;
+        }
+        Semaphore permits = userPermits.computeIfAbsent(userId, id -> new Semaphore(maxConcurrencyPerUser));
+        if (!permits.tryAcquire()) {
+            userRejections.incrementAndGet();
+            throw new TooManyRequestsException("Too many AI requests in progress, please wait for the current ones to finish.");
+        }
+        return permits;
+    }
+}
@@ -0,0 +1,29 @@
+package com.budgetwise.backend.ai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Hold-out evaluation of the local categorizer, optionally compared with Gemini
+ * on a sample of the same hold-out set.
+ */
+@Data
+@Builder
+public class CategorizerEvaluationDto {
+    private Long userId;
+    private int trainingSize;
+    private int testSize;
+
+    // Local model, all predictions
+    private double localAccuracy;
+    // Local model, only predictions at or above the confidence threshold
+    private double localCoverage;
+    private double localConfidentAccuracy;
+    private double localP50Micros;
+    private double localP99Micros;
+
+    // Gemini on the first llmSampleSize hold-out items (0 when not requested)
+    private int llmSampleSize;
+    private double llmAccuracy;
+    private double llmMillisPerItem;
+}
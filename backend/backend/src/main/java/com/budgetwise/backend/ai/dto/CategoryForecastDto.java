@@ -0,0 +1,15 @@
+package com.budgetwise.backend.ai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CategoryForecastDto {
+    private String category;
+    private String model; // "holt-winters", "holt", "linear" or "mean"
+    private List<DataPoint> history;
+    private List<ForecastPointDto> forecast;
+}
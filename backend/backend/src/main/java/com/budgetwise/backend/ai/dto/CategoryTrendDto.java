@@ -0,0 +1,17 @@
+package com.budgetwise.backend.ai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Linear spending trend of one expense category over its complete months.
+ */
+@Data
+@Builder
+public class CategoryTrendDto {
+    private String category;
+    private long monthsObserved;
+    private double monthlyChange; // slope: change in monthly spend per month
+    private double projectedThisMonth;
+    private double projectedNextMonth;
+}
@@ -0,0 +1,22 @@
+package com.budgetwise.backend.ai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Monthly expense forecast for one user. The first forecast month is the
+ * current (still incomplete) month; history only holds complete months.
+ * Totals are the sum of the per-category forecasts.
+ */
+@Data
+@Builder
+public class ExpenseForecastDto {
+    private int horizonMonths;
+    private double confidenceZ;
+    private List<DataPoint> history;
+    private List<ForecastPointDto> forecast;
+    private List<CategoryForecastDto> categories;
+    private long fitMillis;
+}
@@ -11,4 +11,7 @@ public class ExpensePredictionDto {
     private List<DataPoint> predictedData; // Changed from 'predictedTrend' to 'predictedData'
     
     private Double nextMonthPrediction;
+    // Confidence band around nextMonthPrediction
+    private Double nextMonthLower;
+    private Double nextMonthUpper;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.budgetwise.backend.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One forecast month: the point forecast and its confidence band.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ForecastPointDto {
+    private String label; // e.g. "Mar 2026"
+    private Double value;
+    private Double lower;
+    private Double upper;
+}
@@ -22,6 +22,21 @@ public class GeminiResponse {
         }
         return "No content available.";
     }
+
+    // Text of one streamed chunk; chunks that only carry metadata yield an empty string
+    public String chunkText() {
+        if (candidates == null || candidates.isEmpty() || candidates.get(0).getContent() == null
+                || candidates.get(0).getContent().getParts() == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Part part : candidates.get(0).getContent().getParts()) {
+            if (part.getText() != null) {
+                text.append(part.getText());
+            }
+        }
+        return text.toString();
+    }
 }
 
 @Data
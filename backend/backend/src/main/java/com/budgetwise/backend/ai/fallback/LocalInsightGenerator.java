@@ -0,0 +1,173 @@
+package com.budgetwise.backend.ai.fallback;
+
+import com.budgetwise.backend.ai.dto.ExpenseForecastDto;
+import com.budgetwise.backend.ai.dto.ForecastPointDto;
+import com.budgetwise.backend.dto.SavingsGoalDto;
+import com.budgetwise.backend.dto.TransactionAlertDto;
+import com.budgetwise.backend.dto.TransactionDto;
+import com.budgetwise.backend.dto.TransactionSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Deterministic, rule-based answers used when Gemini cannot be reached
+ * (circuit breaker open, timeout, upstream error).
+ *
+ * Every text starts with OFFLINE_NOTE so users know it is a local summary, and so
+ * AiResponseCache can avoid caching it in place of a real answer.
+ */
+@Component
+public class LocalInsightGenerator {
+
+    public static final String OFFLINE_NOTE = "[Quick summary - the AI assistant is temporarily unavailable]\n";
+
+    public String monthlyInsights(TransactionSummaryDto summary) {
+        StringBuilder out = new StringBuilder(OFFLINE_NOTE);
+        double income = summary.getTotalIncome();
+        double expenses = summary.getTotalExpenses();
+        if (income <= 0) {
+            out.append("- No income is recorded yet; add your income to see your spending-to-income ratio.\n");
+        } else {
+            double ratio = expenses / income;
+            out.append(String.format(Locale.ROOT, "- You spend %.0f%% of your income.", ratio * 100));
+            if (ratio > 0.9) {
+                out.append(" That leaves very little room; look for one or two fixed costs to cut.\n");
+            } else if (ratio > 0.7) {
+                out.append(" Aim to bring it below 70% by trimming discretionary categories.\n");
+            } else {
+                out.append(" That is a healthy margin; consider moving part of it to savings automatically.\n");
+            }
+        }
+        out.append(String.format(Locale.ROOT, "- Saved so far: %.2f. Available balance: %.2f.\n",
+                summary.getTotalSavings(), summary.getAvailableBalance()));
+        out.append("- Tip: review subscriptions monthly and set a budget for your largest category.");
+        return out.toString();
+    }
+
+    public String forecast(ExpenseForecastDto forecast, List<TransactionAlertDto> alerts) {
+        StringBuilder out = new StringBuilder(OFFLINE_NOTE);
+        ForecastPointDto next = forecast.getForecast().get(forecast.getForecast().size() > 1 ? 1 : 0);
+        out.append(String.format(Locale.ROOT, "1. Predicted spending for %s: %.2f (likely between %.2f and %.2f).\n",
+                next.getLabel(), next.getValue(), next.getLower(), next.getUpper()));
+        if (alerts.isEmpty()) {
+            out.append("2. No unusual spending detected recently.");
+        } else {
+            out.append(String.format(Locale.ROOT, "2. %d unusual expense(s) detected recently, for example:", alerts.size()));
+            alerts.stream().limit(3).forEach(alert -> out.append(String.format(Locale.ROOT,
+                    "\n- %s: %.2f in %s (usually about %.2f).",
+                    alert.getTransactionDate(), alert.getAmount(), alert.getCategory(), alert.getTypicalAmount())));
+        }
+        return out.toString();
+    }
+
+    public String nextMonthPrediction(double predictedAmount) {
+        return OFFLINE_NOTE + String.format(Locale.ROOT,
+                "Based on your recent spending, next month's expenses should be about %.2f. "
+                        + "Setting a budget slightly below that is a good way to stay on track.", predictedAmount);
+    }
+
+    public String chat() {
+        return OFFLINE_NOTE + "I can't answer detailed questions right now. Your dashboard, budgets and "
+                + "savings goals are fully up to date; please ask again in a minute.";
+    }
+
+    public String spendingBreakdown(List<TransactionDto> transactions) {
+        Map<String, Double> byCategory = expensesByCategory(transactions);
+        double total = byCategory.values().stream().mapToDouble(Double::doubleValue).sum();
+        StringBuilder out = new StringBuilder(OFFLINE_NOTE);
+        if (total <= 0) {
+            return out.append("- No expenses recorded yet.").toString();
+        }
+        byCategory.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(3)
+                .forEach(e -> out.append(String.format(Locale.ROOT, "- %s: %.2f (%.0f%% of spending)\n",
+                        e.getKey(), e.getValue(), e.getValue() / total * 100)));
+        return out.toString().trim();
+    }
+
+    public String savingTips(SavingsGoalDto goal) {
+        double target = goal.getTargetAmount() == null ? 0 : goal.getTargetAmount();
+        double current = goal.getCurrentAmount() == null ? 0 : goal.getCurrentAmount();
+        double remaining = Math.max(0, target - current);
+        StringBuilder out = new StringBuilder(OFFLINE_NOTE);
+        if (remaining == 0) {
+            return out.append("You have reached \"").append(goal.getGoalName()).append("\". Well done!").toString();
+        }
+        out.append(String.format(Locale.ROOT, "- %.2f left to reach \"%s\".\n", remaining, goal.getGoalName()));
+        if (goal.getDeadline() != null && goal.getDeadline().isAfter(LocalDate.now())) {
+            long months = Math.max(1, ChronoUnit.MONTHS.between(YearMonth.now(), YearMonth.from(goal.getDeadline())));
+            out.append(String.format(Locale.ROOT, "- Put aside about %.2f per month to finish by %s.\n",
+                    remaining / months, goal.getDeadline()));
+        }
+        out.append("- Automate a transfer right after payday so saving happens first.");
+        return out.toString();
+    }
+
+    public String transactionDetails(List<TransactionDto> transactions) {
+        StringBuilder out = new StringBuilder(OFFLINE_NOTE);
+        if (transactions.isEmpty()) {
+            return out.append("No transactions recorded yet.").toString();
+        }
+        TransactionDto largest = transactions.stream()
+                .filter(t -> "EXPENSE".equalsIgnoreCase(t.getType()))
+                .max(Comparator.comparingDouble(TransactionDto::getAmount))
+                .orElse(null);
+        out.append(String.format(Locale.ROOT, "- %d transactions recorded.\n", transactions.size()));
+        if (largest != null) {
+            out.append(String.format(Locale.ROOT, "- Largest expense: %.2f in %s on %s.",
+                    largest.getAmount(), largest.getCategory(), largest.getDate()));
+        }
+        return out.toString().trim();
+    }
+
+    public String personalizedInsights(TransactionSummaryDto summary, List<TransactionDto> transactions) {
+        String base = monthlyInsights(summary);
+        Map<String, Double> byCategory = expensesByCategory(transactions);
+        return byCategory.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(top -> base + String.format(Locale.ROOT,
+                        "\n- Your biggest category is %s (%.2f); a 10%% cut there saves %.2f.",
+                        top.getKey(), top.getValue(), top.getValue() * 0.1))
+                .orElse(base);
+    }
+
+    public String goalTracking(List<SavingsGoalDto> goals, TransactionSummaryDto summary) {
+        StringBuilder out = new StringBuilder(OFFLINE_NOTE);
+        if (goals.isEmpty()) {
+            return out.append("No savings goals yet. Create one to start tracking progress.").toString();
+        }
+        for (SavingsGoalDto goal : goals) {
+            double target = goal.getTargetAmount() == null ? 0 : goal.getTargetAmount();
+            double current = goal.getCurrentAmount() == null ? 0 : goal.getCurrentAmount();
+            double percent = target <= 0 ? 0 : Math.min(100, current / target * 100);
+            out.append(String.format(Locale.ROOT, "- %s: %.0f%% (%.2f of %.2f)\n",
+                    goal.getGoalName(), percent, current, target));
+        }
+        out.append(String.format(Locale.ROOT, "Available balance to put towards goals: %.2f.", summary.getAvailableBalance()));
+        return out.toString();
+    }
+
+    // --- Helper Methods ---
+
+    private static Map<String, Double> expensesByCategory(List<TransactionDto> transactions) {
+        // One pass over objects already in memory: building columns first costs more than it saves
+        // (see AnalyticsKernelsBenchmark.categoryTotals*)
+        Map<String, Double> totals = new HashMap<>();
+        for (TransactionDto t : transactions) {
+            if ("EXPENSE".equalsIgnoreCase(t.getType())) {
+                String category = t.getCategory() == null || t.getCategory().isBlank() ? "Uncategorized" : t.getCategory();
+                totals.merge(category, t.getAmount(), Double::sum);
+            }
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,236 @@
+package com.budgetwise.backend.ai.forecast;
+
+import com.budgetwise.backend.ai.ai.SimpleLinearRegression;
+import com.budgetwise.backend.ai.dto.CategoryTrendDto;
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.cache.UserStateCache;
+import com.budgetwise.backend.dto.TransactionDto;
+import com.budgetwise.backend.event.TransactionChangedEvent;
+import com.budgetwise.backend.event.UserAccountDeletedEvent;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Running linear-regression state per (user, expense category), so spending
+ * trends are answered without scanning the transaction history.
+ *
+ * Each category keeps its monthly totals in a double[] (x = months since the
+ * category's first month) plus the running sums Σy and Σxy. The months form a
+ * consecutive grid, so n, Σx and Σx² follow from the month range and never
+ * need storing. A transaction write is O(1): it changes one month total and
+ * adds amount and x * amount to the sums; deletes and the old side of an
+ * update apply the negative amount.
+ *
+ * Keeping x relative to the category's own first month (shifting the origin
+ * when an older transaction arrives) keeps the sums small, which is what keeps
+ * the slope's denominator free of cancellation.
+ *
+ * A user's state is built from the rollup table on first use, updated from
+ * TransactionChangedEvent while loaded, and dropped after being idle or when
+ * the account is deleted.
+ */
+@Component
+@Slf4j
+public class CategoryTrendStore {
+
+    private final UserMonthCategoryRollupRepository rollupRepository;
+    private final long idleMinutes;
+    private final UserStateCache<UserTrends> users;
+
+    public CategoryTrendStore(
+            UserMonthCategoryRollupRepository rollupRepository,
+            UserDataVersionTracker versionTracker,
+            @Value("${ai.trends.idle-minutes:60}") long idleMinutes) {
+        this.rollupRepository = rollupRepository;
+        this.idleMinutes = idleMinutes;
+        this.users = new UserStateCache<>(versionTracker::committed);
+    }
+
+    /**
+     * Trends of all the user's expense categories, steepest increase first.
+     */
+    public List<CategoryTrendDto> trends(Long userId) {
+        return users.get(userId, this::load).snapshot(currentMonth());
+    }
+
+    public Optional<CategoryTrendDto> trend(Long userId, String category) {
+        return users.get(userId, this::load).trend(normalize(category), currentMonth());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (!event.involvesType("EXPENSE")) {
+            return;
+        }
+        TransactionDto before = event.getBefore();
+        TransactionDto after = event.getAfter();
+        users.update(event.getUserId(), event.getDataVersion(), loaded -> {
+            if (before != null && isExpense(before)) {
+                loaded.add(normalize(before.getCategory()), epochMonth(before.getDate()), -before.getAmount());
+            }
+            if (after != null && isExpense(after)) {
+                loaded.add(normalize(after.getCategory()), epochMonth(after.getDate()), after.getAmount());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountDeleted(UserAccountDeletedEvent event) {
+        users.evict(event.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${ai.trends.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        users.evictIf(trends -> trends.lastAccess < cutoff);
+    }
+
+    // --- Helper Methods ---
+
+    private UserTrends load(Long userId) {
+        UserTrends trends = new UserTrends();
+        List<Object[]> rows = rollupRepository.findExpenseMonthTotals(userId);
+        for (Object[] row : rows) {
+            trends.add(normalize((String) row[1]), epochMonth((LocalDate) row[0]), ((Number) row[2]).doubleValue());
+        }
+        log.debug("Built trend state for user {} from {} rollup rows", userId, rows.size());
+        return trends;
+    }
+
+    private static boolean isExpense(TransactionDto tx) {
+        // Rows without a date are not in the rollup either
+        return "EXPENSE".equalsIgnoreCase(tx.getType()) && tx.getDate() != null;
+    }
+
+    private static String normalize(String category) {
+        return category == null || category.isBlank() ? "Uncategorized" : category;
+    }
+
+    private static int epochMonth(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static int currentMonth() {
+        YearMonth now = YearMonth.now();
+        return now.getYear() * 12 + now.getMonthValue() - 1;
+    }
+
+    /**
+     * One user's categories. All access is synchronized on the instance.
+     */
+    private static final class UserTrends {
+        final Map<String, Trend> categories = new HashMap<>();
+        volatile long lastAccess = System.currentTimeMillis();
+
+        synchronized void add(String category, int month, double amount) {
+            categories.computeIfAbsent(category, c -> new Trend(month)).add(month, amount);
+        }
+
+        synchronized List<CategoryTrendDto> snapshot(int currentMonth) {
+            lastAccess = System.currentTimeMillis();
+            List<CategoryTrendDto> result = new ArrayList<>(categories.size());
+            categories.forEach((category, trend) -> {
+                CategoryTrendDto dto = trend.toDto(category, currentMonth);
+                if (dto != null) {
+                    result.add(dto);
+                }
+            });
+            result.sort(Comparator.comparingDouble(CategoryTrendDto::getMonthlyChange).reversed());
+            return result;
+        }
+
+        synchronized Optional<CategoryTrendDto> trend(String category, int currentMonth) {
+            lastAccess = System.currentTimeMillis();
+            Trend trend = categories.get(category);
+            return trend == null ? Optional.empty() : Optional.ofNullable(trend.toDto(category, currentMonth));
+        }
+    }
+
+    /**
+     * Monthly totals and running sums of one category; x = month - originMonth.
+     * Package-private so the origin shift can be tested directly.
+     */
+    static final class Trend {
+        int originMonth;
+        double[] totals = new double[12];
+        int span; // months from origin up to the latest month seen
+        double sumY;
+        double sumXY;
+
+        Trend(int firstMonth) {
+            this.originMonth = firstMonth;
+        }
+
+        void add(int month, double amount) {
+            if (month < originMonth) {
+                shiftOrigin(originMonth - month);
+            }
+            int x = month - originMonth;
+            if (x >= totals.length) {
+                totals = Arrays.copyOf(totals, Math.max(x + 1, totals.length * 2));
+            }
+            span = Math.max(span, x + 1);
+            totals[x] += amount;
+            sumY += amount;
+            sumXY += x * amount;
+        }
+
+        /**
+         * Moves the origin d months earlier: every x grows by d, so Σxy grows by d * Σy.
+         * Only happens when a transaction is back-dated before the category's first month.
+         */
+        void shiftOrigin(int d) {
+            double[] shifted = new double[Math.max(totals.length, span + d)];
+            System.arraycopy(totals, 0, shifted, d, span);
+            totals = shifted;
+            sumXY += d * sumY;
+            originMonth -= d;
+            span += d;
+        }
+
+        /**
+         * Fits over the complete months only (origin up to last month, quiet months
+         * counting as zero). Months from the current one on are backed out of the
+         * sums; normally that is a single month.
+         */
+        CategoryTrendDto toDto(String category, int currentMonth) {
+            long n = currentMonth - originMonth;
+            if (n <= 0) {
+                return null;
+            }
+            double y = sumY;
+            double xy = sumXY;
+            for (int x = (int) n; x < span; x++) {
+                y -= totals[x];
+                xy -= x * totals[x];
+            }
+            // Consecutive x = 0..n-1
+            double sumX = n * (n - 1) / 2.0;
+            double sumX2 = (n - 1) * n * (2 * n - 1) / 6.0;
+            SimpleLinearRegression model = SimpleLinearRegression.fromSufficientStatistics(n, sumX, y, xy, sumX2);
+
+            int thisMonth = currentMonth - originMonth;
+            return CategoryTrendDto.builder()
+                    .category(category)
+                    .monthsObserved(n)
+                    .monthlyChange(model.getSlope())
+                    .projectedThisMonth(model.predict(thisMonth))
+                    .projectedNextMonth(model.predict(thisMonth + 1))
+                    .build();
+        }
+    }
+}
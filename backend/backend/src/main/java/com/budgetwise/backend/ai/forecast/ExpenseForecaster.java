@@ -0,0 +1,351 @@
+package com.budgetwise.backend.ai.forecast;
+
+import com.budgetwise.backend.ai.ai.SimpleLinearRegression;
+import com.budgetwise.backend.ai.dto.CategoryForecastDto;
+import com.budgetwise.backend.ai.dto.DataPoint;
+import com.budgetwise.backend.ai.dto.ExpenseForecastDto;
+import com.budgetwise.backend.ai.dto.ForecastPointDto;
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Forecasts monthly expenses per category from the rollup table.
+ *
+ * - One query loads the user's (month, category) expense totals for the last
+ *   history-months complete months; gaps are filled with zero.
+ * - Every category series is fitted on the forecastPool in parallel. Both a
+ *   linear trend (SimpleLinearRegression) and Holt-Winters are tried on a
+ *   hold-out of the latest months; the better one is refitted on the full series.
+ * - Forecasts come with a +/- z * standard error band; the total is the sum of
+ *   the categories, with their errors treated as independent.
+ * - Results are cached per user, month and horizon until the user's data version changes.
+ */
+@Component
+@Slf4j
+public class ExpenseForecaster {
+
+    private static final int SEASON_LENGTH = 12;
+    private static final int MAX_HOLDOUT = 6;
+    private static final DateTimeFormatter LABEL = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+
+    private final UserMonthCategoryRollupRepository rollupRepository;
+    private final UserDataVersionTracker versionTracker;
+    private final ForkJoinPool forecastPool;
+    private final int historyMonths;
+    private final int maxHorizon;
+    private final double confidenceZ;
+    private final Map<String, CachedForecast> cache;
+
+    public ExpenseForecaster(
+            UserMonthCategoryRollupRepository rollupRepository,
+            UserDataVersionTracker versionTracker,
+            ForkJoinPool forecastPool,
+            @Value("${ai.forecast.history-months:36}") int historyMonths,
+            @Value("${ai.forecast.max-horizon:12}") int maxHorizon,
+            @Value("${ai.forecast.confidence-z:1.645}") double confidenceZ,
+            @Value("${ai.forecast.cache-max-entries:2000}") int cacheMaxEntries) {
+        this.rollupRepository = rollupRepository;
+        this.versionTracker = versionTracker;
+        this.forecastPool = forecastPool;
+        this.historyMonths = historyMonths;
+        this.maxHorizon = maxHorizon;
+        this.confidenceZ = confidenceZ;
+        // Access-ordered LinkedHashMap = LRU; guarded by its own monitor
+        this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedForecast> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        };
+    }
+
+    /**
+     * Forecasts the next horizon months, starting with the current month.
+     */
+    public ExpenseForecastDto forecast(Long userId, int horizon) {
+        int h = Math.max(1, Math.min(horizon, maxHorizon));
+        // The month is part of the key: the window and labels move on even if the data does not
+        YearMonth current = YearMonth.now();
+        String key = userId + ":" + current + ":" + h;
+        long version = versionTracker.current(userId);
+
+        CachedForecast cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null && cached.version == version) {
+            return cached.forecast;
+        }
+
+        ExpenseForecastDto result = compute(userId, current, h);
+        synchronized (cache) {
+            cache.put(key, new CachedForecast(version, result));
+        }
+        return result;
+    }
+
+    /**
+     * Forecast from rows of [monthStart, category, total] the caller already loaded
+     * (see findExpenseSeries for the expected window). Categories are fitted one after
+     * another on the calling thread: batch jobs parallelise across users instead.
+     * Not cached.
+     */
+    public ExpenseForecastDto forecastFromMonthlyTotals(List<Object[]> rows, int horizon) {
+        int h = Math.max(1, Math.min(horizon, maxHorizon));
+        return build(rows, YearMonth.now(), h, ExpenseForecaster::fitSequentially);
+    }
+
+    // First month of the fitted window; the window ends before the current month
+    public LocalDate historyStart() {
+        return YearMonth.now().minusMonths(historyMonths).atDay(1);
+    }
+
+    /**
+     * Fits the best of linear trend and Holt-Winters to one monthly series
+     * (oldest first) and forecasts horizon steps past its end.
+     */
+    public static SeriesForecast fitSeries(double[] y, int horizon) {
+        int n = y.length;
+        if (n < 3) {
+            return meanForecast(y, horizon);
+        }
+
+        // Pick the model by its error on the latest months, then refit on everything
+        boolean useHoltWinters = false;
+        int holdout = Math.min(MAX_HOLDOUT, n / 4);
+        if (holdout >= 1 && n - holdout >= 3) {
+            double[] train = new double[n - holdout];
+            System.arraycopy(y, 0, train, 0, train.length);
+            SeriesForecast linear = linearForecast(train, holdout);
+            SeriesForecast smoothed = holtWintersForecast(train, holdout);
+            useHoltWinters = absoluteError(y, train.length, smoothed.mean()) < absoluteError(y, train.length, linear.mean());
+        }
+        return useHoltWinters ? holtWintersForecast(y, horizon) : linearForecast(y, horizon);
+    }
+
+    /**
+     * Point forecasts and standard errors for steps 1..horizon.
+     */
+    public record SeriesForecast(String model, double[] mean, double[] standardError) {
+    }
+
+    // --- Helper Methods ---
+
+    private ExpenseForecastDto compute(Long userId, YearMonth current, int horizon) {
+        YearMonth from = current.minusMonths(historyMonths);
+
+        // The current month is still incomplete, so the series ends with last month
+        List<Object[]> rows = rollupRepository.findExpenseSeries(userId, from.atDay(1), current.atDay(1));
+        ExpenseForecastDto result = build(rows, current, horizon, this::fitAll);
+        log.debug("Forecast for user {}: {} categories, {} months of history, {} ms",
+                userId, result.getCategories().size(), result.getHistory().size(), result.getFitMillis());
+        return result;
+    }
+
+    private ExpenseForecastDto build(List<Object[]> rows, YearMonth current, int horizon,
+                                     Function<List<Callable<SeriesForecast>>, List<SeriesForecast>> fitter) {
+        long started = System.nanoTime();
+        YearMonth from = current.minusMonths(historyMonths);
+
+        Map<String, double[]> seriesByCategory = new LinkedHashMap<>();
+        int firstIndex = historyMonths;
+        for (Object[] row : rows) {
+            int index = (int) ChronoUnit.MONTHS.between(from, YearMonth.from((LocalDate) row[0]));
+            if (index < 0 || index >= historyMonths) {
+                continue; // Outside the window (e.g. the current month)
+            }
+            String category = row[1] == null || ((String) row[1]).isBlank() ? "Uncategorized" : (String) row[1];
+            seriesByCategory.computeIfAbsent(category, c -> new double[historyMonths])[index] += ((Number) row[2]).doubleValue();
+            firstIndex = Math.min(firstIndex, index);
+        }
+
+        // Series start at the user's first month with any expense, so all categories line up
+        int start = firstIndex;
+        int n = historyMonths - start;
+        List<String> categories = new ArrayList<>(seriesByCategory.keySet());
+        List<Callable<SeriesForecast>> fits = new ArrayList<>(categories.size());
+        for (String category : categories) {
+            double[] y = new double[n];
+            System.arraycopy(seriesByCategory.get(category), start, y, 0, n);
+            seriesByCategory.put(category, y);
+            fits.add(() -> fitSeries(y, horizon));
+        }
+        List<SeriesForecast> results = fitter.apply(fits);
+
+        double[] totalHistory = new double[n];
+        double[] totalMean = new double[horizon];
+        double[] totalVariance = new double[horizon];
+        List<CategoryForecastDto> categoryForecasts = new ArrayList<>(categories.size());
+        for (int c = 0; c < categories.size(); c++) {
+            double[] y = seriesByCategory.get(categories.get(c));
+            SeriesForecast fit = results.get(c);
+            for (int i = 0; i < n; i++) {
+                totalHistory[i] += y[i];
+            }
+            for (int step = 0; step < horizon; step++) {
+                totalMean[step] += Math.max(0, fit.mean()[step]);
+                totalVariance[step] += fit.standardError()[step] * fit.standardError()[step];
+            }
+            categoryForecasts.add(CategoryForecastDto.builder()
+                    .category(categories.get(c))
+                    .model(fit.model())
+                    .history(historyPoints(y, current))
+                    .forecast(forecastPoints(fit.mean(), fit.standardError(), current))
+                    .build());
+        }
+        categoryForecasts.sort(Comparator.comparingDouble(
+                (CategoryForecastDto f) -> f.getForecast().get(0).getValue()).reversed());
+
+        double[] totalError = new double[horizon];
+        for (int step = 0; step < horizon; step++) {
+            totalError[step] = Math.sqrt(totalVariance[step]);
+        }
+
+        long fitMillis = (System.nanoTime() - started) / 1_000_000;
+        return ExpenseForecastDto.builder()
+                .horizonMonths(horizon)
+                .confidenceZ(confidenceZ)
+                .history(historyPoints(totalHistory, current))
+                .forecast(forecastPoints(totalMean, totalError, current))
+                .categories(categoryForecasts)
+                .fitMillis(fitMillis)
+                .build();
+    }
+
+    private List<SeriesForecast> fitAll(List<Callable<SeriesForecast>> fits) {
+        List<SeriesForecast> results = new ArrayList<>(fits.size());
+        try {
+            for (Future<SeriesForecast> future : forecastPool.invokeAll(fits)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Forecast interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Forecast fit failed", e.getCause());
+        }
+        return results;
+    }
+
+    private static List<SeriesForecast> fitSequentially(List<Callable<SeriesForecast>> fits) {
+        List<SeriesForecast> results = new ArrayList<>(fits.size());
+        for (Callable<SeriesForecast> fit : fits) {
+            try {
+                results.add(fit.call());
+            } catch (Exception e) {
+                throw new IllegalStateException("Forecast fit failed", e);
+            }
+        }
+        return results;
+    }
+
+    // History labels: the n complete months before the current one
+    private static List<DataPoint> historyPoints(double[] y, YearMonth current) {
+        List<DataPoint> points = new ArrayList<>(y.length);
+        for (int i = 0; i < y.length; i++) {
+            points.add(new DataPoint(current.minusMonths(y.length - i).format(LABEL), y[i]));
+        }
+        return points;
+    }
+
+    private List<ForecastPointDto> forecastPoints(double[] mean, double[] standardError, YearMonth current) {
+        List<ForecastPointDto> points = new ArrayList<>(mean.length);
+        for (int step = 0; step < mean.length; step++) {
+            double value = Math.max(0, mean[step]);
+            double margin = confidenceZ * standardError[step];
+            points.add(new ForecastPointDto(current.plusMonths(step).format(LABEL),
+                    value, Math.max(0, value - margin), value + margin));
+        }
+        return points;
+    }
+
+    private static SeriesForecast linearForecast(double[] y, int horizon) {
+        int n = y.length;
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+        }
+        SimpleLinearRegression model = SimpleLinearRegression.fit(x, y);
+
+        double sse = 0;
+        for (int i = 0; i < n; i++) {
+            double error = y[i] - (model.getIntercept() + model.getSlope() * i);
+            sse += error * error;
+        }
+        double sigma = Math.sqrt(sse / Math.max(1, n - 2));
+        double xMean = (n - 1) / 2.0;
+        double sxx = n * ((double) n * n - 1) / 12.0; // sum of (i - mean)^2 for i = 0..n-1
+
+        double[] mean = new double[horizon];
+        double[] standardError = new double[horizon];
+        for (int step = 0; step < horizon; step++) {
+            double x0 = n - 1 + step + 1;
+            mean[step] = model.predict(x0);
+            // Prediction interval of a new observation at x0
+            standardError[step] = sigma * Math.sqrt(1 + 1.0 / n + (x0 - xMean) * (x0 - xMean) / sxx);
+        }
+        return new SeriesForecast("linear", mean, standardError);
+    }
+
+    private static SeriesForecast holtWintersForecast(double[] y, int horizon) {
+        HoltWinters model = HoltWinters.fit(y, SEASON_LENGTH);
+        double[] mean = new double[horizon];
+        double[] standardError = new double[horizon];
+        for (int step = 0; step < horizon; step++) {
+            mean[step] = model.forecast(step + 1);
+            standardError[step] = model.standardError(step + 1);
+        }
+        return new SeriesForecast(model.isSeasonal() ? "holt-winters" : "holt", mean, standardError);
+    }
+
+    private static SeriesForecast meanForecast(double[] y, int horizon) {
+        double sum = 0;
+        for (double value : y) {
+            sum += value;
+        }
+        double mean = y.length == 0 ? 0 : sum / y.length;
+        double squares = 0;
+        for (double value : y) {
+            squares += (value - mean) * (value - mean);
+        }
+        // With one point there is no spread to measure; use the value itself as a wide band
+        double sigma = y.length > 1 ? Math.sqrt(squares / (y.length - 1)) : mean;
+
+        double[] means = new double[horizon];
+        double[] standardError = new double[horizon];
+        Arrays.fill(means, mean);
+        Arrays.fill(standardError, sigma);
+        return new SeriesForecast("mean", means, standardError);
+    }
+
+    private static double absoluteError(double[] y, int offset, double[] predicted) {
+        double total = 0;
+        for (int i = 0; i < predicted.length; i++) {
+            total += Math.abs(y[offset + i] - Math.max(0, predicted[i]));
+        }
+        return total;
+    }
+
+    private record CachedForecast(long version, ExpenseForecastDto forecast) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.budgetwise.backend.ai.forecast;
+
+/**
+ * Additive Holt-Winters exponential smoothing (level + trend + seasonality).
+ *
+ * With fewer than two full seasons of data the seasonal part cannot be
+ * initialised, so the model degrades to Holt's linear method (level + trend).
+ * The smoothing factors are chosen by a small grid search that minimises the
+ * squared one-step-ahead forecast error over the series.
+ */
+public class HoltWinters {
+
+    // Coarse grid is plenty for monthly series of a few dozen points
+    private static final double[] GRID = {0.05, 0.15, 0.3, 0.5, 0.7, 0.9};
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final int period; // 0 = no seasonality
+    private final double level;
+    private final double trend;
+    private final double[] seasonals;
+    private final int length;
+    private final double residualStdDev;
+
+    private HoltWinters(double alpha, double beta, double gamma, int period,
+                        double level, double trend, double[] seasonals, int length, double residualStdDev) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.period = period;
+        this.level = level;
+        this.trend = trend;
+        this.seasonals = seasonals;
+        this.length = length;
+        this.residualStdDev = residualStdDev;
+    }
+
+    /**
+     * Fits the model to y (oldest first).
+     * @param period season length, e.g. 12 for monthly data
+     */
+    public static HoltWinters fit(double[] y, int period) {
+        if (y.length < 3) {
+            throw new IllegalArgumentException("Holt-Winters needs at least 3 points");
+        }
+        int m = y.length >= 2 * period ? period : 0;
+        double[] gammas = m > 0 ? GRID : new double[]{0};
+
+        // One seasonal buffer for the whole search: run() overwrites it every time
+        double[] seasonalScratch = new double[Math.max(m, 1)];
+        double bestSse = Double.MAX_VALUE;
+        double bestAlpha = GRID[0], bestBeta = GRID[0], bestGamma = 0;
+        for (double a : GRID) {
+            for (double b : GRID) {
+                for (double g : gammas) {
+                    double sse = run(y, m, a, b, g, seasonalScratch, null);
+                    if (sse < bestSse) {
+                        bestSse = sse;
+                        bestAlpha = a;
+                        bestBeta = b;
+                        bestGamma = g;
+                    }
+                }
+            }
+        }
+
+        // Final pass with the chosen factors keeps the end state for forecasting
+        double[] state = new double[2 + Math.max(m, 1)];
+        run(y, m, bestAlpha, bestBeta, bestGamma, seasonalScratch, state);
+        double[] seasonals = new double[m];
+        System.arraycopy(state, 2, seasonals, 0, m);
+
+        int errors = y.length - (m > 0 ? m : 1);
+        double sigma = Math.sqrt(bestSse / Math.max(1, errors));
+        return new HoltWinters(bestAlpha, bestBeta, bestGamma, m, state[0], state[1], seasonals, y.length, sigma);
+    }
+
+    /**
+     * Point forecast h steps (h >= 1) past the last observation.
+     */
+    public double forecast(int h) {
+        double value = level + h * trend;
+        if (period > 0) {
+            value += seasonals[(length - 1 + h) % period];
+        }
+        return value;
+    }
+
+    /**
+     * Approximate standard error of the h-step forecast, using the variance
+     * formula for Holt's linear method. It ignores the (small) seasonal term.
+     */
+    public double standardError(int h) {
+        double variance = 1;
+        for (int j = 1; j < h; j++) {
+            double c = alpha * (1 + j * beta);
+            variance += c * c;
+        }
+        return residualStdDev * Math.sqrt(variance);
+    }
+
+    public boolean isSeasonal() {
+        return period > 0;
+    }
+
+    public double getResidualStdDev() {
+        return residualStdDev;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Runs the smoothing recursions and returns the sum of squared one-step errors.
+     * s holds the seasonal indices while running (at least max(m, 1) long; its contents are replaced).
+     * When state is given, the final [level, trend, seasonals...] are written into it.
+     */
+    private static double run(double[] y, int m, double a, double b, double g, double[] s, double[] state) {
+        double level;
+        double trend;
+        int start;
+
+        if (m > 0) {
+            double first = 0, second = 0;
+            for (int i = 0; i < m; i++) {
+                first += y[i];
+                second += y[m + i];
+            }
+            // The first season's mean is the level at its midpoint; detrend the seasonal
+            // indices around it, then move the level to the season's last month
+            double midLevel = first / m;
+            double midpoint = (m - 1) / 2.0;
+            trend = (second - first) / ((double) m * m);
+            for (int i = 0; i < m; i++) {
+                s[i] = y[i] - (midLevel + (i - midpoint) * trend);
+            }
+            level = midLevel + midpoint * trend;
+            start = m;
+        } else {
+            level = y[0];
+            trend = y[1] - y[0];
+            start = 1;
+        }
+
+        double sse = 0;
+        for (int t = start; t < y.length; t++) {
+            int si = m > 0 ? t % m : 0;
+            double season = m > 0 ? s[si] : 0;
+            double error = y[t] - (level + trend + season);
+            sse += error * error;
+
+            double newLevel = a * (y[t] - season) + (1 - a) * (level + trend);
+            trend = b * (newLevel - level) + (1 - b) * trend;
+            if (m > 0) {
+                s[si] = g * (y[t] - newLevel) + (1 - g) * s[si];
+            }
+            level = newLevel;
+        }
+
+        if (state != null) {
+            state[0] = level;
+            state[1] = trend;
+            if (m > 0) {
+                System.arraycopy(s, 0, state, 2, m);
+            }
+        }
+        return sse;
+    }
+}
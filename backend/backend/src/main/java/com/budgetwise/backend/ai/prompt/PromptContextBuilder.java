@@ -0,0 +1,239 @@
+package com.budgetwise.backend.ai.prompt;
+
+import com.budgetwise.backend.dto.TransactionDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Condenses a user's transaction history into a compact plain-text context for LLM prompts.
+ *
+ * Instead of serializing every transaction as JSON, the context holds:
+ *  1. an overview line (count, date range, totals per type),
+ *  2. monthly totals per category, newest month first,
+ *  3. the N largest expenses,
+ *  4. recurring payees (same description seen in several months),
+ *  5. the most recent transactions.
+ * Sections are filled in that order within a token budget (estimated locally as
+ * ~4 characters per token), so the prompt stays the same size however long the history is.
+ */
+@Component
+public class PromptContextBuilder {
+
+    private static final int TOP_N = 10;
+    private static final int RECENT_N = 10;
+    private static final int RECURRING_MIN_MONTHS = 3;
+    private static final int MAX_DESCRIPTION_CHARS = 40;
+
+    // Share of the budget left after the overview, per section (unused share carries over)
+    private static final double MONTHLY_SHARE = 0.40;
+    private static final double TOP_SHARE = 0.20;
+    private static final double RECURRING_SHARE = 0.15;
+
+    // Oldest first, so the queue head is the one to drop when we keep only the latest N
+    private static final Comparator<TransactionDto> BY_RECENCY = Comparator
+            .comparing((TransactionDto t) -> t.getDate() == null ? LocalDate.MIN : t.getDate())
+            .thenComparing(t -> t.getId() == null ? 0L : t.getId());
+
+    private final int defaultTokenBudget;
+
+    public PromptContextBuilder(@Value("${ai.prompt.token-budget:1200}") int defaultTokenBudget) {
+        this.defaultTokenBudget = defaultTokenBudget;
+    }
+
+    public String build(List<TransactionDto> transactions) {
+        return build(transactions, defaultTokenBudget);
+    }
+
+    public String build(List<TransactionDto> transactions, int tokenBudget) {
+        if (transactions == null || transactions.isEmpty()) {
+            return "No transactions recorded yet.";
+        }
+
+        // --- One pass over the history to collect every aggregate ---
+        Map<String, Double> totalsByType = new TreeMap<>();
+        TreeMap<YearMonth, Map<String, Double>> monthly = new TreeMap<>(Comparator.reverseOrder());
+        PriorityQueue<TransactionDto> largest = new PriorityQueue<>(Comparator.comparingDouble(TransactionDto::getAmount));
+        PriorityQueue<TransactionDto> recent = new PriorityQueue<>(BY_RECENCY);
+        Map<String, Set<YearMonth>> payeeMonths = new HashMap<>();
+        Map<String, double[]> payeeStats = new HashMap<>(); // [count, total]
+        LocalDate first = null;
+        LocalDate last = null;
+
+        for (TransactionDto t : transactions) {
+            String type = t.getType() == null ? "UNKNOWN" : t.getType().toUpperCase(Locale.ROOT);
+            totalsByType.merge(type, t.getAmount(), Double::sum);
+
+            if (t.getDate() != null) {
+                first = (first == null || t.getDate().isBefore(first)) ? t.getDate() : first;
+                last = (last == null || t.getDate().isAfter(last)) ? t.getDate() : last;
+                YearMonth month = YearMonth.from(t.getDate());
+                String label = "EXPENSE".equals(type) ? category(t) : type.toLowerCase(Locale.ROOT);
+                monthly.computeIfAbsent(month, m -> new TreeMap<>()).merge(label, t.getAmount(), Double::sum);
+
+                String payee = normalizePayee(t.getDescription());
+                if (!payee.isEmpty()) {
+                    payeeMonths.computeIfAbsent(payee, p -> new HashSet<>()).add(month);
+                    double[] stats = payeeStats.computeIfAbsent(payee, p -> new double[2]);
+                    stats[0]++;
+                    stats[1] += t.getAmount();
+                }
+            }
+
+            if ("EXPENSE".equals(type)) {
+                largest.offer(t);
+                if (largest.size() > TOP_N) {
+                    largest.poll();
+                }
+            }
+            recent.offer(t);
+            if (recent.size() > RECENT_N) {
+                recent.poll();
+            }
+        }
+
+        // --- Assemble sections within the budget ---
+        StringBuilder out = new StringBuilder();
+        StringBuilder overview = new StringBuilder("Overview: ")
+                .append(transactions.size()).append(" transactions");
+        if (first != null) {
+            overview.append(" from ").append(first).append(" to ").append(last);
+        }
+        overview.append("; totals");
+        totalsByType.forEach((type, total) -> overview.append(' ').append(type).append('=').append(money(total)));
+        out.append(overview).append('\n');
+
+        int remaining = Math.max(0, tokenBudget - estimateTokens(out));
+        int carry = 0;
+
+        List<String> monthlyLines = new ArrayList<>();
+        monthly.forEach((month, byLabel) -> {
+            StringBuilder line = new StringBuilder("  ").append(month).append(':');
+            byLabel.forEach((label, total) -> line.append(' ').append(label).append('=').append(money(total)));
+            monthlyLines.add(line.toString());
+        });
+        carry = appendSection(out, "Monthly totals (expenses by category, newest first):", monthlyLines,
+                (int) (remaining * MONTHLY_SHARE) + carry);
+
+        List<TransactionDto> top = new ArrayList<>(largest);
+        top.sort(Comparator.comparingDouble(TransactionDto::getAmount).reversed());
+        carry = appendSection(out, "Largest expenses:", top.stream().map(this::line).toList(),
+                (int) (remaining * TOP_SHARE) + carry);
+
+        List<String> recurringLines = new ArrayList<>();
+        payeeMonths.entrySet().stream()
+                .filter(e -> e.getValue().size() >= RECURRING_MIN_MONTHS)
+                .sorted((a, b) -> Integer.compare(b.getValue().size(), a.getValue().size()))
+                .forEach(e -> {
+                    double[] stats = payeeStats.get(e.getKey());
+                    recurringLines.add("  " + e.getKey() + ": " + e.getValue().size() + " months, avg "
+                            + money(stats[1] / stats[0]));
+                });
+        carry = appendSection(out, "Recurring payees:", recurringLines,
+                (int) (remaining * RECURRING_SHARE) + carry);
+
+        List<TransactionDto> latest = new ArrayList<>(recent);
+        latest.sort(BY_RECENCY.reversed());
+        int recentBudget = Math.max(0, tokenBudget - estimateTokens(out));
+        appendSection(out, "Most recent transactions:", latest.stream().map(this::line).toList(), recentBudget);
+
+        return out.toString().trim();
+    }
+
+    /**
+     * Renders an already-selected list (e.g. retrieval results) one line per transaction,
+     * in the given order, cut off at the default token budget.
+     */
+    public String describe(List<TransactionDto> transactions) {
+        StringBuilder out = new StringBuilder();
+        appendSection(out, "Relevant transactions:", transactions.stream().map(this::line).toList(), defaultTokenBudget);
+        return out.toString().trim();
+    }
+
+    /**
+     * Cheap local token estimate (~4 characters per token for English text and numbers).
+     */
+    public static int estimateTokens(CharSequence text) {
+        return (text.length() + 3) / 4;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Appends the header and as many lines as fit in the budget.
+     * Returns the unused part of the budget so the next section can use it.
+     */
+    private int appendSection(StringBuilder out, String header, List<String> lines, int budget) {
+        if (lines.isEmpty()) {
+            return budget;
+        }
+        int used = estimateTokens(header) + 1;
+        if (used + estimateTokens(lines.get(0)) > budget) {
+            return budget;
+        }
+        out.append(header).append('\n');
+        for (String line : lines) {
+            int cost = estimateTokens(line) + 1;
+            if (used + cost > budget) {
+                break;
+            }
+            out.append(line).append('\n');
+            used += cost;
+        }
+        return budget - used;
+    }
+
+    private String line(TransactionDto t) {
+        String description = t.getDescription() == null ? "" : t.getDescription();
+        if (description.length() > MAX_DESCRIPTION_CHARS) {
+            description = description.substring(0, MAX_DESCRIPTION_CHARS);
+        }
+        return "  " + t.getDate() + " " + t.getType() + " " + category(t) + " " + money(t.getAmount())
+                + (description.isEmpty() ? "" : " \"" + description + "\"");
+    }
+
+    private static String category(TransactionDto t) {
+        return (t.getCategory() == null || t.getCategory().isBlank()) ? "Uncategorized" : t.getCategory();
+    }
+
+    // Lower-cases and strips digits/punctuation so "NETFLIX #1234" and "Netflix 5678" match.
+    // One pass instead of regex replaceAll: this runs once per transaction of the history.
+    static String normalizePayee(String description) {
+        if (description == null) {
+            return "";
+        }
+        String lower = description.toLowerCase(Locale.ROOT);
+        StringBuilder payee = new StringBuilder(lower.length());
+        boolean gap = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                // Runs of anything else become one space between words, none at the ends
+                if (gap && payee.length() > 0) {
+                    payee.append(' ');
+                }
+                payee.append(c);
+                gap = false;
+            } else {
+                gap = true;
+            }
+        }
+        return payee.toString();
+    }
+
+    private static String money(double amount) {
+        return String.format(Locale.ROOT, "%.2f", amount);
+    }
+}
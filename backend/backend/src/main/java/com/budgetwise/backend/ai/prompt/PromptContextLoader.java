@@ -0,0 +1,82 @@
+package com.budgetwise.backend.ai.prompt;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Loads the independent inputs of an AI prompt (summary, transactions, goals, ...)
+ * side by side on virtual threads, so building the context takes as long as the
+ * slowest query instead of the sum of all of them.
+ *
+ * Usage is scoped like structured concurrency: fork every input, then awaitAll.
+ * If any input fails, the others are cancelled (their threads are interrupted) and
+ * the first failure is rethrown.
+ * (StructuredTaskScope is still a preview API on Java 21, so this uses CompletableFuture.)
+ */
+@Component
+@RequiredArgsConstructor
+public class PromptContextLoader {
+
+    @Qualifier("queryExecutor") // Copied onto the constructor parameter (lombok.config)
+    private final ExecutorService queryExecutor;
+
+    /**
+     * Starts the task on a virtual thread. Cancelling the returned future interrupts that
+     * thread (CompletableFuture.cancel alone would only mark the future as cancelled and
+     * leave the query running), so a cancelled JDBC call is aborted instead of finishing
+     * for nobody.
+     */
+    public <T> CompletableFuture<T> fork(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> worker = queryExecutor.submit(() -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                worker.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Waits until every task has finished, or until the first one fails.
+     */
+    public void awaitAll(CompletableFuture<?>... tasks) {
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        for (CompletableFuture<?> task : tasks) {
+            task.whenComplete((result, error) -> {
+                if (error != null) {
+                    firstFailure.completeExceptionally(error);
+                }
+            });
+        }
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(tasks), firstFailure).join();
+        } catch (CompletionException | CancellationException e) {
+            for (CompletableFuture<?> task : tasks) {
+                task.cancel(true);
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
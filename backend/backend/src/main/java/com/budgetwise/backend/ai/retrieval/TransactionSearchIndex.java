@@ -0,0 +1,278 @@
+package com.budgetwise.backend.ai.retrieval;
+
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.cache.UserStateCache;
+import com.budgetwise.backend.dto.TransactionDto;
+import com.budgetwise.backend.entity.Transaction;
+import com.budgetwise.backend.event.TransactionChangedEvent;
+import com.budgetwise.backend.event.UserAccountDeletedEvent;
+import com.budgetwise.backend.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * In-memory, per-user lexical index over transaction descriptions and categories.
+ *
+ * Ranking is BM25 over tokenized text, multiplied by small boosts for recency,
+ * for months named in the question ("march", "2024"), and for larger amounts
+ * (stronger when the question asks for the "biggest"/"largest" items).
+ *
+ * An index is built from the database the first time a user chats (see UserStateCache),
+ * kept up to date from TransactionChangedEvent, and dropped after it has been idle for
+ * a while or when the account is deleted.
+ */
+@Component
+@Slf4j
+public class TransactionSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double RECENCY_WEIGHT = 0.5;
+    private static final double RECENCY_HALF_LIFE_DAYS = 90.0;
+    private static final double MONTH_MATCH_WEIGHT = 1.0;
+    private static final double AMOUNT_WEIGHT = 0.25;
+    private static final double AMOUNT_WEIGHT_SIZE_QUERY = 1.5;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "did", "do", "for", "from", "how", "i", "in",
+            "is", "it", "me", "much", "my", "of", "on", "or", "spend", "spent", "the", "this", "to",
+            "was", "what", "when", "where", "which", "with", "you", "your");
+    private static final Set<String> SIZE_WORDS = Set.of(
+            "biggest", "largest", "highest", "expensive", "most", "big", "large", "top");
+
+    private final TransactionRepository transactionRepository;
+
+    @Value("${ai.retrieval.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final UserStateCache<UserIndex> indexes;
+
+    public TransactionSearchIndex(TransactionRepository transactionRepository, UserDataVersionTracker versionTracker) {
+        this.transactionRepository = transactionRepository;
+        this.indexes = new UserStateCache<>(versionTracker::committed);
+    }
+
+    /**
+     * Returns up to k transactions most relevant to the question, best first.
+     * If nothing in the question matches, the k most recent transactions are returned.
+     */
+    public List<TransactionDto> search(Long userId, String question, int k) {
+        UserIndex index = indexes.get(userId, this::load);
+        return index.search(question == null ? "" : question, k);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        // Not loaded: it will be built fresh on the next search
+        indexes.update(event.getUserId(), event.getDataVersion(), index -> {
+            if (event.getBefore() != null) {
+                index.remove(event.getBefore().getId());
+            }
+            if (event.getAfter() != null) {
+                index.add(event.getAfter());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountDeleted(UserAccountDeletedEvent event) {
+        indexes.evict(event.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${ai.retrieval.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        indexes.evictIf(index -> index.lastAccess < cutoff);
+    }
+
+    // --- Helper Methods ---
+
+    private UserIndex load(Long userId) {
+        UserIndex index = new UserIndex();
+        for (Transaction t : transactionRepository.findByUserId(userId)) {
+            index.add(toDto(t));
+        }
+        log.debug("Built search index for user {} ({} docs)", userId, index.docs.size());
+        return index;
+    }
+
+    private static TransactionDto toDto(Transaction transaction) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(transaction.getId());
+        dto.setType(transaction.getType());
+        dto.setAmount(transaction.getAmount());
+        dto.setCategory(transaction.getCategory());
+        dto.setDescription(transaction.getDescription());
+        dto.setDate(transaction.getDate());
+        return dto;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^a-z0-9]+")) {
+            if (token.length() >= 2 && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Doc(TransactionDto tx, Map<String, Integer> termFreq, int length) {
+    }
+
+    private record Scored(TransactionDto tx, double score) {
+    }
+
+    /**
+     * One user's inverted index. All access is synchronized on the instance;
+     * a single user's chat requests are rare enough that this never contends.
+     */
+    private static final class UserIndex {
+        final Map<Long, Doc> docs = new HashMap<>();
+        final Map<String, Set<Long>> postings = new HashMap<>();
+        long totalLength;
+        double maxAmount;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        synchronized void add(TransactionDto tx) {
+            if (tx.getId() == null) {
+                return;
+            }
+            remove(tx.getId());
+            List<String> tokens = tokenize(tx.getDescription() + " " + tx.getCategory() + " " + tx.getType());
+            Map<String, Integer> tf = new HashMap<>();
+            for (String token : tokens) {
+                tf.merge(token, 1, Integer::sum);
+                postings.computeIfAbsent(token, t -> new HashSet<>()).add(tx.getId());
+            }
+            docs.put(tx.getId(), new Doc(tx, tf, tokens.size()));
+            totalLength += tokens.size();
+            maxAmount = Math.max(maxAmount, Math.abs(tx.getAmount()));
+        }
+
+        synchronized void remove(Long id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) {
+                return;
+            }
+            totalLength -= doc.length();
+            for (String term : doc.termFreq().keySet()) {
+                Set<Long> ids = postings.get(term);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        synchronized List<TransactionDto> search(String question, int k) {
+            lastAccess = System.currentTimeMillis();
+            if (docs.isEmpty() || k <= 0) {
+                return List.of();
+            }
+
+            List<String> terms = tokenize(question);
+            Set<Month> months = new HashSet<>();
+            Set<Integer> years = new HashSet<>();
+            boolean sizeQuery = false;
+            for (String term : terms) {
+                sizeQuery |= SIZE_WORDS.contains(term);
+                Month month = parseMonth(term);
+                if (month != null) {
+                    months.add(month);
+                }
+                if (term.length() == 4 && term.chars().allMatch(Character::isDigit)) {
+                    years.add(Integer.parseInt(term));
+                }
+            }
+
+            // 1. BM25 over the documents that contain at least one query term
+            int n = docs.size();
+            double avgLength = Math.max(1.0, (double) totalLength / n);
+            Map<Long, Double> bm25 = new HashMap<>();
+            for (String term : new HashSet<>(terms)) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - ids.size() + 0.5) / (ids.size() + 0.5));
+                for (Long id : ids) {
+                    Doc doc = docs.get(id);
+                    int tf = doc.termFreq().get(term);
+                    double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * doc.length() / avgLength));
+                    bm25.merge(id, idf * norm, Double::sum);
+                }
+            }
+
+            // 2. Candidates: BM25 hits, or every doc when nothing matched (recency/date/size decide)
+            boolean lexicalMatch = !bm25.isEmpty();
+            LocalDate today = LocalDate.now();
+            double amountWeight = sizeQuery ? AMOUNT_WEIGHT_SIZE_QUERY : AMOUNT_WEIGHT;
+            double logMax = Math.log1p(maxAmount);
+
+            PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+            for (Doc doc : docs.values()) {
+                Long id = doc.tx().getId();
+                double base = lexicalMatch ? bm25.getOrDefault(id, 0.0) : 1.0;
+                if (base == 0.0) {
+                    continue;
+                }
+                double boost = 1.0;
+                LocalDate date = doc.tx().getDate();
+                if (date != null) {
+                    double ageDays = Math.max(0, ChronoUnit.DAYS.between(date, today));
+                    boost += RECENCY_WEIGHT * Math.pow(0.5, ageDays / RECENCY_HALF_LIFE_DAYS);
+                    boolean monthHit = months.isEmpty() || months.contains(date.getMonth());
+                    boolean yearHit = years.isEmpty() || years.contains(date.getYear());
+                    if ((!months.isEmpty() || !years.isEmpty()) && monthHit && yearHit) {
+                        boost += MONTH_MATCH_WEIGHT;
+                    }
+                }
+                if (logMax > 0) {
+                    boost += amountWeight * Math.log1p(Math.abs(doc.tx().getAmount())) / logMax;
+                }
+                top.offer(new Scored(doc.tx(), base * boost));
+                if (top.size() > k) {
+                    top.poll();
+                }
+            }
+
+            List<Scored> ranked = new ArrayList<>(top);
+            ranked.sort(Comparator.comparingDouble(Scored::score).reversed());
+            return ranked.stream().map(Scored::tx).toList();
+        }
+
+        private static Month parseMonth(String token) {
+            if (token.length() < 3) {
+                return null;
+            }
+            for (Month month : Month.values()) {
+                if (month.name().toLowerCase(Locale.ROOT).startsWith(token)) {
+                    return month;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.budgetwise.backend.analytics;
+
+/**
+ * Tight loops over primitive columns (see TransactionColumns).
+ *
+ * Nothing here allocates: callers pass the output arrays (sums, selection
+ * vectors, histogram buckets) and can reuse them across calls. The loops are
+ * plain counted loops over arrays, which the JIT unrolls and, for the simple
+ * ones, auto-vectorises.
+ *
+ * A selection vector is an int[] of row indices plus a count, produced by the
+ * select* kernels and consumed by the *Selected kernels, so filters compose
+ * without copying any column.
+ */
+public final class AnalyticsKernels {
+
+    private AnalyticsKernels() {
+    }
+
+    // --- Filters ---
+
+    /**
+     * Writes the indices of rows with from <= days[i] <= to into selection; returns how many.
+     * Branch-free: every index is written, and the count only advances for matches.
+     */
+    public static int selectRange(long[] days, int size, long from, long to, int[] selection) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long day = days[i];
+            selection[count] = i;
+            count += (day >= from & day <= to) ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Narrows a selection in place to the rows whose code equals the given one; returns the new count.
+     */
+    public static int refineEquals(int[] codes, int code, int[] selection, int count) {
+        int kept = 0;
+        for (int s = 0; s < count; s++) {
+            int row = selection[s];
+            selection[kept] = row;
+            kept += codes[row] == code ? 1 : 0;
+        }
+        return kept;
+    }
+
+    // --- Aggregations ---
+
+    /**
+     * sums[keys[i]] += values[i] for all rows. sums must have one slot per key and start at zero.
+     */
+    public static void groupBySum(int[] keys, double[] values, int size, double[] sums) {
+        for (int i = 0; i < size; i++) {
+            sums[keys[i]] += values[i];
+        }
+    }
+
+    /**
+     * Like groupBySum, but only rows whose filter code equals filterValue (e.g. only expenses).
+     */
+    public static void groupBySumWhere(int[] keys, double[] values, int[] filter, int filterValue,
+                                       int size, double[] sums) {
+        for (int i = 0; i < size; i++) {
+            // Adds 0.0 for filtered-out rows instead of branching
+            sums[keys[i]] += filter[i] == filterValue ? values[i] : 0.0;
+        }
+    }
+
+    public static void groupBySumSelected(int[] keys, double[] values, int[] selection, int count, double[] sums) {
+        for (int s = 0; s < count; s++) {
+            int row = selection[s];
+            sums[keys[row]] += values[row];
+        }
+    }
+
+    public static double sumSelected(double[] values, int[] selection, int count) {
+        double sum = 0;
+        for (int s = 0; s < count; s++) {
+            sum += values[selection[s]];
+        }
+        return sum;
+    }
+
+    public static double maxSelected(double[] values, int[] selection, int count) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s < count; s++) {
+            max = Math.max(max, values[selection[s]]);
+        }
+        return max;
+    }
+
+    /**
+     * Counts the selected values into equal-width buckets starting at min.
+     * Values below min land in the first bucket, values past the last edge in the last one.
+     * buckets must start at zero.
+     */
+    public static void histogramSelected(double[] values, int[] selection, int count,
+                                         double min, double width, long[] buckets) {
+        int last = buckets.length - 1;
+        double scale = 1.0 / width;
+        for (int s = 0; s < count; s++) {
+            int bucket = (int) ((values[selection[s]] - min) * scale);
+            buckets[Math.max(0, Math.min(last, bucket))]++;
+        }
+    }
+
+    // --- Regression ---
+
+    /**
+     * Sufficient statistics of a least-squares line: writes Σx, Σy, Σxy and Σx² into sums[0..3].
+     * Four independent accumulator sets let the CPU overlap the additions
+     * instead of waiting on one long dependency chain.
+     */
+    public static void leastSquaresSums(double[] x, double[] y, int size, double[] sums) {
+        double sx0 = 0, sx1 = 0, sx2 = 0, sx3 = 0;
+        double sy0 = 0, sy1 = 0, sy2 = 0, sy3 = 0;
+        double sxy0 = 0, sxy1 = 0, sxy2 = 0, sxy3 = 0;
+        double sxx0 = 0, sxx1 = 0, sxx2 = 0, sxx3 = 0;
+        int i = 0;
+        for (; i + 3 < size; i += 4) {
+            double x0 = x[i], x1 = x[i + 1], x2 = x[i + 2], x3 = x[i + 3];
+            double y0 = y[i], y1 = y[i + 1], y2 = y[i + 2], y3 = y[i + 3];
+            sx0 += x0; sx1 += x1; sx2 += x2; sx3 += x3;
+            sy0 += y0; sy1 += y1; sy2 += y2; sy3 += y3;
+            sxy0 += x0 * y0; sxy1 += x1 * y1; sxy2 += x2 * y2; sxy3 += x3 * y3;
+            sxx0 += x0 * x0; sxx1 += x1 * x1; sxx2 += x2 * x2; sxx3 += x3 * x3;
+        }
+        for (; i < size; i++) {
+            sx0 += x[i];
+            sy0 += y[i];
+            sxy0 += x[i] * y[i];
+            sxx0 += x[i] * x[i];
+        }
+        sums[0] = (sx0 + sx1) + (sx2 + sx3);
+        sums[1] = (sy0 + sy1) + (sy2 + sy3);
+        sums[2] = (sxy0 + sxy1) + (sxy2 + sxy3);
+        sums[3] = (sxx0 + sxx1) + (sxx2 + sxx3);
+    }
+}
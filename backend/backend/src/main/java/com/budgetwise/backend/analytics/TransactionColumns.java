@@ -0,0 +1,155 @@
+package com.budgetwise.backend.analytics;
+
+import com.budgetwise.backend.dto.TransactionDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A user's transactions as parallel primitive arrays (one "column" per field),
+ * for the loops in AnalyticsKernels. Row i is (epochDays[i], amounts[i],
+ * categoryCodes[i], typeCodes[i]).
+ *
+ * Categories are dictionary-encoded: codes are 0..categoryCount()-1 in order of
+ * first appearance, and categoryName(code) maps back. Names that differ only in
+ * case share a code and keep the spelling seen first. Types use the fixed codes
+ * below. Rows without a date get NO_DATE, so no date range ever selects them.
+ */
+public final class TransactionColumns {
+
+    public static final int INCOME = 0;
+    public static final int EXPENSE = 1;
+    public static final int SAVINGS = 2;
+    public static final int OTHER = 3;
+    public static final int TYPE_COUNT = 4;
+
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private final long[] epochDays;
+    private final double[] amounts;
+    private final int[] categoryCodes;
+    private final int[] typeCodes;
+    private final List<String> categories;
+
+    private TransactionColumns(long[] epochDays, double[] amounts, int[] categoryCodes, int[] typeCodes,
+                               List<String> categories) {
+        this.epochDays = epochDays;
+        this.amounts = amounts;
+        this.categoryCodes = categoryCodes;
+        this.typeCodes = typeCodes;
+        this.categories = categories;
+    }
+
+    /**
+     * From projection rows of [date, amount, category, type]
+     * (see TransactionRepository.findColumnsByUserId).
+     */
+    public static TransactionColumns fromRows(List<Object[]> rows) {
+        Builder builder = new Builder(rows.size());
+        for (Object[] row : rows) {
+            builder.add((LocalDate) row[0], ((Number) row[1]).doubleValue(), (String) row[2], (String) row[3]);
+        }
+        return builder.build();
+    }
+
+    public static TransactionColumns fromDtos(Collection<TransactionDto> transactions) {
+        Builder builder = new Builder(transactions.size());
+        for (TransactionDto t : transactions) {
+            builder.add(t.getDate(), t.getAmount(), t.getCategory(), t.getType());
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return amounts.length;
+    }
+
+    public long[] epochDays() {
+        return epochDays;
+    }
+
+    public double[] amounts() {
+        return amounts;
+    }
+
+    public int[] categoryCodes() {
+        return categoryCodes;
+    }
+
+    public int[] typeCodes() {
+        return typeCodes;
+    }
+
+    public int categoryCount() {
+        return categories.size();
+    }
+
+    public String categoryName(int code) {
+        return categories.get(code);
+    }
+
+    public static int typeCode(String type) {
+        // equalsIgnoreCase is locale-independent and, unlike toUpperCase, never copies the string
+        if ("EXPENSE".equalsIgnoreCase(type)) {
+            return EXPENSE;
+        }
+        if ("INCOME".equalsIgnoreCase(type)) {
+            return INCOME;
+        }
+        if ("SAVINGS".equalsIgnoreCase(type)) {
+            return SAVINGS;
+        }
+        return OTHER;
+    }
+
+    // --- Helper Methods ---
+
+    private static final class Builder {
+        final long[] epochDays;
+        final double[] amounts;
+        final int[] categoryCodes;
+        final int[] typeCodes;
+        final Map<String, Integer> dictionary = new HashMap<>();
+        // Codes by exact spelling, checked first: a history repeats a handful of spellings,
+        // and looking those up needs no lower-cased copy per row
+        final Map<String, Integer> spellings = new HashMap<>();
+        final List<String> categories = new ArrayList<>();
+        int size;
+
+        Builder(int capacity) {
+            epochDays = new long[capacity];
+            amounts = new double[capacity];
+            categoryCodes = new int[capacity];
+            typeCodes = new int[capacity];
+        }
+
+        void add(LocalDate date, double amount, String category, String type) {
+            String name = category == null || category.isBlank() ? "Uncategorized" : category;
+            Integer code = spellings.get(name);
+            if (code == null) {
+                String key = name.toLowerCase(Locale.ROOT);
+                code = dictionary.get(key);
+                if (code == null) {
+                    code = categories.size();
+                    dictionary.put(key, code);
+                    categories.add(name);
+                }
+                spellings.put(name, code);
+            }
+            epochDays[size] = date == null ? NO_DATE : date.toEpochDay();
+            amounts[size] = amount;
+            categoryCodes[size] = code;
+            typeCodes[size] = typeCode(type);
+            size++;
+        }
+
+        TransactionColumns build() {
+            return new TransactionColumns(epochDays, amounts, categoryCodes, typeCodes, List.copyOf(categories));
+        }
+    }
+}
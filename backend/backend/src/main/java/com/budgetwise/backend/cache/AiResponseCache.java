@@ -0,0 +1,144 @@
+package com.budgetwise.backend.cache;
+
+import com.budgetwise.backend.ai.fallback.LocalInsightGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches generated AI texts by (endpoint, user, hash of the request input).
+ *
+ * An entry is only served while the user's data version is the one it was
+ * computed from, so any transaction, budget or goal write invalidates every
+ * cached answer for that user. Entries also expire after a TTL, and the least
+ * recently used entries are evicted once the cache is full.
+ */
+@Component
+@Slf4j
+public class AiResponseCache {
+
+    private final UserDataVersionTracker versionTracker;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AiResponseCache(
+            UserDataVersionTracker versionTracker,
+            @Value("${ai.cache.max-entries:5000}") int maxEntries,
+            @Value("${ai.cache.ttl-minutes:30}") long ttlMinutes) {
+        this.versionTracker = versionTracker;
+        this.ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+        // Access-ordered LinkedHashMap = LRU; guarded by its own monitor
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached text if it is still valid, otherwise subscribes to the loader
+     * and caches its result. Error texts from the AI layer are never cached.
+     */
+    public Mono<String> getOrCompute(String endpoint, Long userId, String input, Supplier<Mono<String>> loader) {
+        String key = key(endpoint, userId, input);
+        long version = versionTracker.current(userId);
+
+        String cached = lookup(key, version);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.defer(loader).doOnNext(value -> store(key, version, value));
+    }
+
+    /**
+     * Streaming variant sharing the same entries: a valid cached text is emitted as a
+     * single chunk; otherwise the loader's chunks are passed through and, if the stream
+     * completes normally, their concatenation is cached. Cancelled streams are not cached.
+     */
+    public Flux<String> getOrStream(String endpoint, Long userId, String input, Supplier<Flux<String>> loader) {
+        String key = key(endpoint, userId, input);
+        long version = versionTracker.current(userId);
+
+        String cached = lookup(key, version);
+        if (cached != null) {
+            return Flux.just(cached);
+        }
+        return Flux.defer(() -> {
+            StringBuilder text = new StringBuilder();
+            return loader.get()
+                    .doOnNext(text::append)
+                    .doOnComplete(() -> store(key, version, text.toString()));
+        });
+    }
+
+    public Map<String, Long> stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return Map.of("hits", hits.get(), "misses", misses.get(), "size", (long) size);
+    }
+
+    private String lookup(String key, long version) {
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.version == version && System.nanoTime() < cached.expiresAt) {
+            hits.incrementAndGet();
+            return cached.value;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private void store(String key, long version, String value) {
+        if (isCacheable(value)) {
+            synchronized (entries) {
+                entries.put(key, new Entry(value, version, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    /**
+     * Error texts and offline fallbacks are never cached or stored,
+     * so the real answer replaces them once Gemini is back.
+     */
+    public static boolean isCacheable(String value) {
+        return value != null && !value.isEmpty() && !value.startsWith("Error:")
+                && !value.startsWith(LocalInsightGenerator.OFFLINE_NOTE);
+    }
+
+    private static String key(String endpoint, Long userId, String input) {
+        return endpoint + ":" + userId + ":" + sha256(input == null ? "" : input);
+    }
+
+    private static String sha256(String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String value, long version, long expiresAt) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.budgetwise.backend.cache;
+
+import com.budgetwise.backend.event.TransactionChangedEvent;
+import com.budgetwise.backend.event.UserAccountDeletedEvent;
+import com.budgetwise.backend.event.UserDataChangedEvent;
+import com.budgetwise.backend.repository.UserDataVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A per-user counter that goes up every time the user's transactions, budgets or
+ * goals change. Anything derived from the user's data can be stamped with the
+ * version it was computed from and treated as stale once the version moves on.
+ *
+ * The counter lives in the user_data_versions table and is bumped inside the
+ * transaction that changes the data, so it survives restarts and commits
+ * together with the data it describes. Users who never changed anything are at version 0.
+ *
+ * current() is on the cache-hit path of every AI and export cache, so it answers
+ * from memory: the table is only read the first time a user is asked about.
+ * A bump is published to memory once its transaction commits, so a reader that
+ * sees the new version also sees the new data. Writes made through another
+ * instance are only picked up by this one when the user is read from the table again.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDataVersionTracker {
+
+    private final UserDataVersionRepository versionRepository;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public long current(Long userId) {
+        Long version = versions.get(userId);
+        if (version != null) {
+            return version;
+        }
+        // max(): a bump published while the table was being read must not be overwritten
+        return versions.merge(userId, committed(userId), Math::max);
+    }
+
+    /**
+     * Reads the version from the table, bypassing memory. Inside a transaction this
+     * includes the transaction's own bumps; use it where the version has to match the
+     * rows read alongside it.
+     */
+    public long committed(Long userId) {
+        return versionRepository.findVersion(userId).orElse(0L);
+    }
+
+    // BEFORE_COMMIT runs inside the writer's transaction; without one, the bump commits on its own.
+    // First, so that without a transaction the event is stamped before the other listeners see it.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        event.stampDataVersion(bump(event.getUserId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        bump(event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountDeleted(UserAccountDeletedEvent event) {
+        versions.remove(event.getUserId());
+    }
+
+    // --- Helper Methods ---
+
+    private long bump(Long userId) {
+        versionRepository.bump(userId);
+        long version = committed(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(userId, version); // No transaction: the bump is already committed
+            return version;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // Before the after-commit event listeners, so they already read the new version
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                publish(userId, version);
+            }
+        });
+        return version;
+    }
+
+    private void publish(Long userId, long version) {
+        versions.merge(userId, version, Math::max);
+    }
+}
@@ -0,0 +1,172 @@
+package com.budgetwise.backend.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-user state (an index, a model, running statistics) that is loaded from the
+ * database on first use and then kept in step with change events.
+ *
+ * - The load runs on the calling thread, outside any map lock: only a placeholder
+ *   future is put in the map, and other callers for the same user wait on it
+ *   instead of loading a second copy. Other users are never blocked.
+ * - Every loaded state is stamped with the user's data version it was read at
+ *   (UserDataVersionTracker.committed, read before and after the load; a load that
+ *   saw the version move is repeated). Each change carries the version its write
+ *   produced, and a change the snapshot already contains is skipped, so a load that
+ *   ran between a writer's commit and its after-commit event does not count it twice.
+ * - A change that arrives while a load is running is queued and applied once the
+ *   stamp is known, if it is newer. After a few contended attempts the last result
+ *   is returned to the waiting callers but not kept.
+ * - A failed load leaves nothing behind, so the next call tries again.
+ */
+public final class UserStateCache<S> {
+
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final ToLongFunction<Long> versionReader;
+    private final Map<Long, Slot<S>> slots = new ConcurrentHashMap<>();
+
+    /**
+     * @param versionReader reads a user's committed data version from the database
+     */
+    public UserStateCache(ToLongFunction<Long> versionReader) {
+        this.versionReader = versionReader;
+    }
+
+    /**
+     * Returns the user's state, loading it with the loader if it is not present.
+     */
+    public S get(Long userId, Function<Long, S> loader) {
+        Slot<S> slot = slots.get(userId);
+        if (slot == null) {
+            Slot<S> created = new Slot<>();
+            slot = slots.putIfAbsent(userId, created);
+            if (slot == null) {
+                return load(userId, created, loader);
+            }
+        }
+        try {
+            return slot.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Applies a change, made by the write that produced the given data version, to the
+     * user's state if it is loaded and does not contain it yet. If the state is still
+     * loading, the change waits for the load; if it is absent, nothing needs doing,
+     * because the next load reads the committed data.
+     */
+    public void update(Long userId, long version, Consumer<S> change) {
+        Slot<S> slot = slots.get(userId);
+        if (slot == null) {
+            return;
+        }
+        S state;
+        synchronized (slot) {
+            if (slot.state == null) {
+                slot.pending.add(new PendingChange<>(version, change));
+                return;
+            }
+            if (version <= slot.version) {
+                return; // Already in the snapshot
+            }
+            state = slot.state;
+        }
+        change.accept(state);
+    }
+
+    /**
+     * True if the user's loaded state was read at or after the given data version,
+     * i.e. already reflects the write that produced it.
+     */
+    public boolean contains(Long userId, long version) {
+        Slot<S> slot = slots.get(userId);
+        if (slot == null) {
+            return false;
+        }
+        synchronized (slot) {
+            return slot.state != null && version <= slot.version;
+        }
+    }
+
+    public void evict(Long userId) {
+        slots.remove(userId);
+    }
+
+    /**
+     * Drops loaded states matching the predicate (e.g. idle ones). Loads in progress are kept.
+     */
+    public void evictIf(Predicate<S> predicate) {
+        slots.values().removeIf(slot -> {
+            S state = slot.loadedState();
+            return state != null && predicate.test(state);
+        });
+    }
+
+    // --- Helper Methods ---
+
+    private S load(Long userId, Slot<S> slot, Function<Long, S> loader) {
+        S state;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                long versionBefore = versionReader.applyAsLong(userId);
+                state = loader.apply(userId);
+                long versionAfter = versionReader.applyAsLong(userId);
+                synchronized (slot) {
+                    if (versionBefore == versionAfter) {
+                        // Changes queued during the load that the snapshot missed
+                        for (PendingChange<S> pending : slot.pending) {
+                            if (pending.version > versionAfter) {
+                                pending.change.accept(state);
+                            }
+                        }
+                        slot.pending.clear();
+                        slot.version = versionAfter;
+                        slot.state = state;
+                        break;
+                    }
+                    if (attempt == MAX_LOAD_ATTEMPTS) {
+                        // Still changing underneath us: serve this result, but do not keep it
+                        slots.remove(userId, slot);
+                        break;
+                    }
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            slots.remove(userId, slot);
+            slot.future.completeExceptionally(e);
+            throw e;
+        }
+        slot.future.complete(state);
+        return state;
+    }
+
+    private record PendingChange<S>(long version, Consumer<S> change) {
+    }
+
+    private static final class Slot<S> {
+        final CompletableFuture<S> future = new CompletableFuture<>();
+        // All guarded by the slot monitor; state stays null until the load is kept
+        final List<PendingChange<S>> pending = new ArrayList<>();
+        S state;
+        long version;
+
+        synchronized S loadedState() {
+            return state;
+        }
+    }
+}
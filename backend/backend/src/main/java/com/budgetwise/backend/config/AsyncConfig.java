@@ -0,0 +1,72 @@
+package com.budgetwise.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Runs the independent read queries of one request side by side.
+     * Virtual threads are cheap to block on JDBC; the Hikari pool size is what
+     * actually bounds how many queries hit the database at once.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService queryExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Bounded pool for background export jobs. When every worker is busy and the
+     * queue is full, new submissions are rejected (and answered with 503) instead
+     * of piling up without limit.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService exportExecutor(
+            @Value("${export.jobs.workers:2}") int workers,
+            @Value("${export.jobs.queue-capacity:20}") int queueCapacity) {
+        return new ThreadPoolExecutor(
+                workers, workers,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("export-worker-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * CPU-bound pool for fitting forecast models (one task per category series).
+     * Kept separate from the common pool so forecasting cannot starve parallel
+     * streams elsewhere, and sized to the cores rather than to the request load.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool forecastPool(
+            @Value("${ai.forecast.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Small bounded pool for the nightly forecast batch job. When the queue is
+     * full the job's own thread runs the task (CallerRunsPolicy), which slows the
+     * job down instead of rejecting work.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService forecastBatchExecutor(
+            @Value("${forecast.batch.workers:2}") int workers,
+            @Value("${forecast.batch.queue-capacity:100}") int queueCapacity) {
+        return new ThreadPoolExecutor(
+                workers, workers,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("forecast-batch-worker-", 0).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
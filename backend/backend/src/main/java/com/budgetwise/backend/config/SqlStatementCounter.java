@@ -0,0 +1,57 @@
+package com.budgetwise.backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a counter is bound to the current thread.
+ * Registered through spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ *
+ * Usage: bind a counter on the request thread with start(), wrap any work handed to other
+ * threads with counted(), and read the total when done. Unbound threads are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+
+    // Binds a fresh counter to the calling thread and returns it
+    public static AtomicInteger start() {
+        AtomicInteger counter = new AtomicInteger();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    // Wraps a task so that statements it runs on another thread add to the same counter
+    public static <T> Supplier<T> counted(AtomicInteger counter, Supplier<T> task) {
+        return () -> {
+            AtomicInteger previous = CURRENT.get();
+            CURRENT.set(counter);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
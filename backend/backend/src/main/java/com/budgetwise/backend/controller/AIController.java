@@ -1,21 +1,68 @@
 package com.budgetwise.backend.controller;
 
+import com.budgetwise.backend.ai.client.GeminiClient;
+import com.budgetwise.backend.ai.dto.CategoryTrendDto;
+import com.budgetwise.backend.ai.dto.ExpenseForecastDto;
 import com.budgetwise.backend.ai.dto.ExpensePredictionDto;
+import com.budgetwise.backend.ai.forecast.CategoryTrendStore;
+import com.budgetwise.backend.ai.forecast.ExpenseForecaster;
+import com.budgetwise.backend.ai.prompt.PromptContextBuilder;
+import com.budgetwise.backend.ai.prompt.PromptContextLoader;
+import com.budgetwise.backend.ai.retrieval.TransactionSearchIndex;
+import com.budgetwise.backend.cache.AiResponseCache;
+import com.budgetwise.backend.dto.CategorizeBatchRequestDto;
+import com.budgetwise.backend.dto.CategorizedDescriptionDto;
 import com.budgetwise.backend.dto.SavingsGoalDto;
 import com.budgetwise.backend.dto.TransactionDto;
 import com.budgetwise.backend.dto.TransactionSummaryDto;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.exception.TooManyRequestsException;
+import com.budgetwise.backend.service.AlertService;
+import com.budgetwise.backend.service.CategorizationService;
 import com.budgetwise.backend.service.GoogleGeminiService;
+import com.budgetwise.backend.service.PrecomputedInsightService;
 import com.budgetwise.backend.service.SavingsGoalService;
 import com.budgetwise.backend.service.TransactionService;
+import com.budgetwise.backend.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.security.Principal;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * AI endpoints return Mono results: the servlet thread is released while
+ * Gemini is generating, and Spring MVC completes the response asynchronously.
+ *
+ * Read-only insight endpoints go through AiResponseCache, so repeat views of
+ * unchanged data are answered from memory without rebuilding the prompt or calling
+ * Gemini. The inputs are loaded first and their hash is part of the cache key, so an
+ * answer is only reused for exactly the inputs it was generated from.
+ *
+ * Chat and insight endpoints also have /stream variants that forward Gemini's text
+ * as server-sent events while it is generated.
+ *
+ * Every Gemini call is attributed to the caller through the Reactor Context
+ * (GeminiClient.forUser), which enforces the per-user concurrency limit.
+ *
+ * Prompts that need several inputs (chat, personalized insights, goal tracking) load
+ * them concurrently through PromptContextLoader, using the user resolved once per request.
+ *
+ * Chat questions are grounded with a top-K retrieval over the user's transactions
+ * (TransactionSearchIndex) instead of the full history.
+ */
 @RestController
 @RequestMapping("/api/ai")
 @RequiredArgsConstructor
@@ -24,31 +71,76 @@ public class AIController {
     private final GoogleGeminiService geminiService;
     private final TransactionService transactionService;
     private final SavingsGoalService savingsGoalService;
+    private final UserService userService;
+    private final CategorizationService categorizationService;
+    private final PrecomputedInsightService precomputedInsightService;
+    private final ExpenseForecaster expenseForecaster;
+    private final CategoryTrendStore categoryTrendStore;
+    private final AlertService alertService;
+    private final AiResponseCache aiResponseCache;
+    private final PromptContextBuilder promptContextBuilder;
+    private final TransactionSearchIndex transactionSearchIndex;
+    private final PromptContextLoader contextLoader;
     private final ObjectMapper objectMapper;
 
+    // The forecast answer covers this month and next, and the latest detected anomalies
+    private static final int FORECAST_CHAT_MONTHS = 2;
+    private static final int FORECAST_CHAT_ALERTS = 10;
+
+    @Value("${ai.retrieval.top-k:20}")
+    private int retrievalTopK;
+
     // --- Original AI Endpoints ---
+    // Insights, next-month prediction and goal tracking are precomputed in the background
+    // and served from storage; see PrecomputedInsightServiceImpl.
 
     @GetMapping("/insights")
-    public ResponseEntity<Map<String, String>> getInsights(Principal principal) {
-        var summary = transactionService.getTransactionSummary(principal.getName());
-        String insights = geminiService.generateMonthlyInsights(summary);
-        return ResponseEntity.ok(Map.of("insights", insights));
+    public Mono<ResponseEntity<Map<String, String>>> getInsights(Principal principal) {
+        User user = userService.resolveUser(principal);
+        return precomputedInsightService.getInsight(user, PrecomputedInsightService.INSIGHTS)
+                .map(insights -> ResponseEntity.ok(Map.of("insights", insights)))
+                .contextWrite(GeminiClient.forUser(user.getId()));
     }
 
     @GetMapping("/forecast")
-    public ResponseEntity<Map<String, String>> getForecast(Principal principal) {
-        List<TransactionDto> history = transactionService.getTransactionsByUser(principal.getName());
-        String historyJson = convertToJson(history);
-        String forecast = geminiService.generatePredictionAndAlerts(historyJson);
-        return ResponseEntity.ok(Map.of("forecast", forecast));
+    public Mono<ResponseEntity<Map<String, String>>> getForecast(Principal principal) {
+        User user = userService.resolveUser(principal);
+        var forecast = contextLoader.fork(() -> expenseForecaster.forecast(user.getId(), FORECAST_CHAT_MONTHS));
+        var alerts = contextLoader.fork(() -> alertService.getRecentAlerts(user.getId(), FORECAST_CHAT_ALERTS));
+        contextLoader.awaitAll(forecast, alerts);
+        // Keyed on the forecast's content; fitMillis is a timing that changes on every call
+        ExpenseForecastDto f = forecast.join();
+        String input = inputKey(f.getHistory(), f.getForecast(), f.getCategories(), alerts.join());
+        return aiResponseCache.getOrCompute("forecast", user.getId(), input,
+                        () -> geminiService.generatePredictionAndAlerts(forecast.join(), alerts.join()))
+                .map(response -> ResponseEntity.ok(Map.of("forecast", response)))
+                .contextWrite(GeminiClient.forUser(user.getId()));
     }
 
     @PostMapping("/categorize")
-    public ResponseEntity<Map<String, String>> categorize(@RequestBody Map<String, String> request) {
+    public Mono<ResponseEntity<Map<String, String>>> categorize(
+            @RequestBody Map<String, String> request, Principal principal) {
         String description = request.get("description");
-        List<String> categories = List.of("Food", "Rent", "Transport", "Entertainment", "Utilities", "Savings - Vacation", "Savings - School Fund");
-        String category = geminiService.getCategoryForTransaction(description, categories);
-        return ResponseEntity.ok(Map.of("category", category));
+        User user = userService.resolveUser(principal);
+        return categorizationService.categorize(user, List.of(description == null ? "" : description))
+                .map(results -> {
+                    String category = results.get(0).getCategory();
+                    return ResponseEntity.ok(Map.of("category", category == null ? "Uncategorized" : category));
+                })
+                .contextWrite(GeminiClient.forUser(user.getId()));
+    }
+
+    /**
+     * Categorizes many descriptions at once (e.g. a bank statement import).
+     * Results come back in request order.
+     */
+    @PostMapping("/categorize/batch")
+    public Mono<ResponseEntity<List<CategorizedDescriptionDto>>> categorizeBatch(
+            @RequestBody CategorizeBatchRequestDto request, Principal principal) {
+        User user = userService.resolveUser(principal);
+        return categorizationService.categorize(user, request.getDescriptions())
+                .map(ResponseEntity::ok)
+                .contextWrite(GeminiClient.forUser(user.getId()));
     }
 
     // --- New Prediction Endpoints ---
@@ -59,97 +151,193 @@ public class AIController {
         return ResponseEntity.ok(prediction);
     }
 
+    /**
+     * Per-category monthly expense forecast with confidence bands.
+     * Computed locally (no Gemini call); months is capped by ai.forecast.max-horizon.
+     */
+    @GetMapping("/expense-forecast")
+    public ResponseEntity<ExpenseForecastDto> getExpenseForecast(
+            @RequestParam(defaultValue = "3") int months, Principal principal) {
+        User user = userService.resolveUser(principal);
+        return ResponseEntity.ok(expenseForecaster.forecast(user.getId(), months));
+    }
+
+    /**
+     * Linear spending trend per expense category, from running regression sums.
+     */
+    @GetMapping("/category-trends")
+    public ResponseEntity<List<CategoryTrendDto>> getCategoryTrends(Principal principal) {
+        User user = userService.resolveUser(principal);
+        return ResponseEntity.ok(categoryTrendStore.trends(user.getId()));
+    }
+
     @GetMapping("/next-month-prediction-chat")
-    public ResponseEntity<Map<String, String>> getNextMonthPredictionChat(Principal principal) {
-        String predictionChat = geminiService.generateNextMonthExpensePrediction(principal.getName());
-        return ResponseEntity.ok(Map.of("predictionMessage", predictionChat));
+    public Mono<ResponseEntity<Map<String, String>>> getNextMonthPredictionChat(Principal principal) {
+        User user = userService.resolveUser(principal);
+        return precomputedInsightService.getInsight(user, PrecomputedInsightService.NEXT_MONTH_PREDICTION)
+                .map(predictionChat -> ResponseEntity.ok(Map.of("predictionMessage", predictionChat)))
+                .contextWrite(GeminiClient.forUser(user.getId()));
     }
 
     // --- Chatbot Endpoints ---
 
     @PostMapping("/chat")
-    public ResponseEntity<Map<String, String>> handleChat(
+    public Mono<ResponseEntity<Map<String, String>>> handleChat(
             @RequestBody Map<String, String> request, Principal principal) {
-        
-        String question = request.get("question");
-        String context = request.get("context");
-        String userEmail = principal.getName();
-        
-        String prompt;
-        
-        // Explicitly use the type to fix IDE warning
-        TransactionSummaryDto summary = transactionService.getTransactionSummary(userEmail);
-        var transactions = transactionService.getTransactionsByUser(userEmail);
 
-        String summaryJson = convertToJson(summary);
-        String transactionsJson = convertToJson(transactions);
+        User user = userService.resolveUser(principal);
+        String prompt = buildChatPrompt(request, user);
+        return geminiService.generateChatResponse(prompt)
+                .map(response -> ResponseEntity.ok(Map.of("response", response)))
+                .contextWrite(GeminiClient.forUser(user.getId()));
+    }
 
-        if ("savings".equalsIgnoreCase(context)) {
-            var goals = savingsGoalService.getSavingsGoalsByUser(userEmail);
-            String goalsJson = convertToJson(goals);
-            prompt = String.format(
-                "You are a savings coach. A user asks: '%s'\n" +
-                "Here is their financial summary: %s\n" +
-                "Here are their savings goals: %s\n" +
-                "Answer the question directly, using their data for context. Keep it under 150 words.",
-                question, summaryJson, goalsJson
-            );
-        } else { 
-            prompt = String.format(
-                "You are a financial analyst. A user asks: '%s'\n" +
-                "Here is their financial summary: %s\n" +
-                "Here are their recent transactions: %s\n" +
-                "Answer the question directly, using their data for context. Keep it under 150 words.",
-                question, summaryJson, transactionsJson
-            );
-        }
+    // --- Streaming (SSE) Endpoints ---
+    // Each emits "chunk" events as Gemini generates text, then a single "done" event
+    // (or an "error" event). Closing the connection cancels the upstream Gemini call.
+
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamChat(
+            @RequestBody Map<String, String> request, Principal principal) {
+        User user = userService.resolveUser(principal);
+        String prompt = buildChatPrompt(request, user);
+        return toEvents(geminiService.streamChatResponse(prompt), user);
+    }
 
-        String response = geminiService.generateChatResponse(prompt);
-        return ResponseEntity.ok(Map.of("response", response));
+    @GetMapping(value = "/insights/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamInsights(Principal principal) {
+        User user = userService.resolveUser(principal);
+        var summary = transactionService.getTransactionSummary(user);
+        return toEvents(aiResponseCache.getOrStream("insights", user.getId(), inputKey(summary),
+                () -> geminiService.streamMonthlyInsights(summary)), user);
+    }
+
+    @GetMapping(value = "/personalized-insights/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamPersonalizedInsights(Principal principal) {
+        User user = userService.resolveUser(principal);
+        var summary = contextLoader.fork(() -> transactionService.getTransactionSummary(user));
+        var transactions = forkTransactionSnapshot(user);
+        contextLoader.awaitAll(summary, transactions);
+        return toEvents(aiResponseCache.getOrStream("personalized-insights", user.getId(),
+                inputKey(summary.join(), transactions.join()),
+                () -> geminiService.streamPersonalizedInsights(summary.join(), transactions.join())), user);
     }
 
     @GetMapping("/spending-breakdown")
-    public ResponseEntity<Map<String, String>> getSpendingBreakdown(Principal principal) {
-        List<TransactionDto> transactions = transactionService.getTransactionsByUser(principal.getName());
-        String response = geminiService.generateSpendingBreakdown(transactions);
-        return ResponseEntity.ok(Map.of("breakdown", response));
+    public Mono<ResponseEntity<Map<String, String>>> getSpendingBreakdown(Principal principal) {
+        User user = userService.resolveUser(principal);
+        List<TransactionDto> transactions = transactionService.getTransactionsByUser(user);
+        return aiResponseCache.getOrCompute("spending-breakdown", user.getId(), inputKey(transactions),
+                        () -> geminiService.generateSpendingBreakdown(transactions))
+                .map(response -> ResponseEntity.ok(Map.of("breakdown", response)))
+                .contextWrite(GeminiClient.forUser(user.getId()));
     }
 
     @GetMapping("/saving-tips/{goalId}")
-    public ResponseEntity<Map<String, String>> getSavingTips(
+    public Mono<ResponseEntity<Map<String, String>>> getSavingTips(
             @PathVariable Long goalId, Principal principal) {
-        
-        SavingsGoalDto goal = savingsGoalService.getSavingsGoalsByUser(principal.getName())
-                .stream()
-                .filter(g -> g.getId().equals(goalId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Savings goal not found or not authorized"));
 
-        String response = geminiService.generateSavingTipsForGoal(goal);
-        return ResponseEntity.ok(Map.of("tips", response));
+        User user = userService.resolveUser(principal);
+        SavingsGoalDto goal = savingsGoalService.getSavingsGoalById(principal.getName(), goalId);
+        return aiResponseCache.getOrCompute("saving-tips", user.getId(), inputKey(goal),
+                        () -> geminiService.generateSavingTipsForGoal(goal))
+                .map(response -> ResponseEntity.ok(Map.of("tips", response)))
+                .contextWrite(GeminiClient.forUser(user.getId()));
     }
 
     @GetMapping("/transaction-details")
-    public ResponseEntity<Map<String, String>> getTransactionDetails(Principal principal) {
-        var transactions = transactionService.getTransactionsByUser(principal.getName());
-        String response = geminiService.generateTransactionDetails(transactions);
-        return ResponseEntity.ok(Map.of("details", response));
+    public Mono<ResponseEntity<Map<String, String>>> getTransactionDetails(Principal principal) {
+        User user = userService.resolveUser(principal);
+        var transactions = transactionService.getTransactionsByUser(user);
+        return aiResponseCache.getOrCompute("transaction-details", user.getId(), inputKey(transactions),
+                        () -> geminiService.generateTransactionDetails(transactions))
+                .map(response -> ResponseEntity.ok(Map.of("details", response)))
+                .contextWrite(GeminiClient.forUser(user.getId()));
     }
 
     @GetMapping("/personalized-insights")
-    public ResponseEntity<Map<String, String>> getPersonalizedInsights(Principal principal) {
-        var summary = transactionService.getTransactionSummary(principal.getName());
-        var transactions = transactionService.getTransactionsByUser(principal.getName());
-        String response = geminiService.generatePersonalizedInsights(summary, transactions);
-        return ResponseEntity.ok(Map.of("insights", response));
+    public Mono<ResponseEntity<Map<String, String>>> getPersonalizedInsights(Principal principal) {
+        User user = userService.resolveUser(principal);
+        var summary = contextLoader.fork(() -> transactionService.getTransactionSummary(user));
+        var transactions = forkTransactionSnapshot(user);
+        contextLoader.awaitAll(summary, transactions);
+        return aiResponseCache.getOrCompute("personalized-insights", user.getId(),
+                        inputKey(summary.join(), transactions.join()),
+                        () -> geminiService.generatePersonalizedInsights(summary.join(), transactions.join()))
+                .map(response -> ResponseEntity.ok(Map.of("insights", response)))
+                .contextWrite(GeminiClient.forUser(user.getId()));
     }
 
     @GetMapping("/goal-tracking")
-    public ResponseEntity<Map<String, String>> getGoalTracking(Principal principal) {
-        var summary = transactionService.getTransactionSummary(principal.getName());
-        var goals = savingsGoalService.getSavingsGoalsByUser(principal.getName());
-        String response = geminiService.generateGoalTrackingAnalysis(goals, summary);
-        return ResponseEntity.ok(Map.of("tracking", response));
+    public Mono<ResponseEntity<Map<String, String>>> getGoalTracking(Principal principal) {
+        User user = userService.resolveUser(principal);
+        return precomputedInsightService.getInsight(user, PrecomputedInsightService.GOAL_TRACKING)
+                .map(response -> ResponseEntity.ok(Map.of("tracking", response)))
+                .contextWrite(GeminiClient.forUser(user.getId()));
+    }
+
+    private String buildChatPrompt(Map<String, String> request, User user) {
+        String question = request.get("question");
+        String context = request.get("context");
+
+        // The summary and the second input (goals or relevant transactions) load side by side
+        CompletableFuture<TransactionSummaryDto> summary =
+                contextLoader.fork(() -> transactionService.getTransactionSummary(user));
+
+        if ("savings".equalsIgnoreCase(context)) {
+            var goals = contextLoader.fork(() -> savingsGoalService.getSavingsGoalsByUser(user));
+            contextLoader.awaitAll(summary, goals);
+            String summaryJson = convertToJson(summary.join());
+            String goalsJson = convertToJson(goals.join());
+            return String.format(
+                "You are a savings coach. A user asks: '%s'\n" +
+                "Here is their financial summary: %s\n" +
+                "Here are their savings goals: %s\n" +
+                "Answer the question directly, using their data for context. Keep it under 150 words.",
+                question, summaryJson, goalsJson
+            );
+        }
+
+        // Only the transactions that matter for this question, not the whole history
+        var relevant = contextLoader.fork(() -> transactionSearchIndex.search(user.getId(), question, retrievalTopK));
+        contextLoader.awaitAll(summary, relevant);
+        String summaryJson = convertToJson(summary.join());
+        String transactionsContext = promptContextBuilder.describe(relevant.join());
+        return String.format(
+            "You are a financial analyst. A user asks: '%s'\n" +
+            "Here is their financial summary: %s\n" +
+            "Here are the transactions most relevant to the question:\n%s\n" +
+            "Answer the question directly, using their data for context. Keep it under 150 words.",
+            question, summaryJson, transactionsContext
+        );
+    }
+
+    // One read-only copy of the history, shared by the prompt and any local fallback
+    private CompletableFuture<List<TransactionDto>> forkTransactionSnapshot(User user) {
+        return contextLoader.fork(() -> List.copyOf(transactionService.getTransactionsByUser(user)));
+    }
+
+    private static Flux<ServerSentEvent<String>> toEvents(Flux<String> chunks, User user) {
+        return chunks
+                .map(chunk -> ServerSentEvent.builder(chunk).event("chunk").build())
+                .concatWith(Mono.just(ServerSentEvent.builder("").event("done").build()))
+                .onErrorResume(e -> Mono.just(ServerSentEvent.builder(
+                        e instanceof ServiceBusyException || e instanceof TooManyRequestsException
+                                ? e.getMessage() : "AI service unavailable.")
+                        .event("error").build()))
+                .contextWrite(GeminiClient.forUser(user.getId()));
+    }
+
+    /**
+     * The cache input for a prompt: its inputs serialized together (AiResponseCache hashes it).
+     * Inputs that cannot be serialized get a unique key, so their answer is never reused.
+     */
+    private String inputKey(Object... inputs) {
+        try {
+            return objectMapper.writeValueAsString(Arrays.asList(inputs));
+        } catch (Exception e) {
+            return UUID.randomUUID().toString();
+        }
     }
 
     private String convertToJson(Object object) {
@@ -159,4 +347,4 @@ public class AIController {
             return "{\"error\": \"Could not process data\"}";
         }
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,20 @@
 package com.budgetwise.backend.controller;
 
+import com.budgetwise.backend.ai.classifier.CategorizerEvaluator;
+import com.budgetwise.backend.ai.client.GeminiClient;
+import com.budgetwise.backend.ai.dto.CategorizerEvaluationDto;
 import com.budgetwise.backend.dto.TransactionDto;
 import com.budgetwise.backend.dto.UserDto;
+import com.budgetwise.backend.dto.UserForecastDto;
+import com.budgetwise.backend.ratelimit.AiRateLimiter;
 import com.budgetwise.backend.service.AdminService;
+import com.budgetwise.backend.service.CategorizationService;
+import com.budgetwise.backend.service.ForecastBatchService;
+import com.budgetwise.backend.service.PrecomputedInsightService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +25,12 @@ import java.util.Map;
 public class AdminController {
 
     private final AdminService adminService;
+    private final CategorizationService categorizationService;
+    private final CategorizerEvaluator categorizerEvaluator;
+    private final GeminiClient geminiClient;
+    private final AiRateLimiter aiRateLimiter;
+    private final PrecomputedInsightService precomputedInsightService;
+    private final ForecastBatchService forecastBatchService;
 
     /**
      * Admin Feature: Get summary stats for the whole site.
@@ -57,4 +72,98 @@ public class AdminController {
         adminService.deleteUserAccount(userId);
         return ResponseEntity.ok(Map.of("message", "User and all associated data deleted successfully."));
     }
-}
\ No newline at end of file
+
+    /**
+     * Admin Feature: Rebuild the monthly dashboard rollups from the transactions table.
+     * Omit userId to reconcile every user.
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups(@RequestParam(value = "userId", required = false) Long userId) {
+        int rebuilt = adminService.rebuildRollups(userId);
+        return ResponseEntity.ok(Map.of("usersRebuilt", rebuilt));
+    }
+
+    /**
+     * Admin Feature: Progress and users/second of the nightly forecast job.
+     */
+    @GetMapping("/forecasts/job")
+    public ResponseEntity<Map<String, Object>> getForecastJobStats() {
+        return ResponseEntity.ok(forecastBatchService.stats());
+    }
+
+    /**
+     * Admin Feature: Start the forecast job now (resumes an interrupted run). Returns immediately.
+     */
+    @PostMapping("/forecasts/job")
+    public ResponseEntity<Map<String, Object>> startForecastJob() {
+        boolean started = forecastBatchService.start();
+        return ResponseEntity.accepted().body(Map.of("started", started));
+    }
+
+    /**
+     * Admin Feature: Forecast rows the last job run stored for one user.
+     */
+    @GetMapping("/users/{userId}/forecasts")
+    public ResponseEntity<List<UserForecastDto>> getForecastsForUser(@PathVariable Long userId) {
+        return ResponseEntity.ok(forecastBatchService.getStoredForecasts(userId));
+    }
+
+    /**
+     * Admin Feature: Hit/miss counters of the shared description -> category cache.
+     */
+    @GetMapping("/ai/categorization-stats")
+    public ResponseEntity<Map<String, Long>> getCategorizationStats() {
+        return ResponseEntity.ok(categorizationService.cacheStats());
+    }
+
+    /**
+     * Admin Feature: Hold-out evaluation of a user's local categorizer.
+     * Set llmSample > 0 to also score Gemini on that many hold-out items.
+     */
+    @GetMapping("/ai/categorizer/evaluate")
+    public Mono<ResponseEntity<CategorizerEvaluationDto>> evaluateCategorizer(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "0.2") double holdout,
+            @RequestParam(defaultValue = "0") int llmSample) {
+        return categorizerEvaluator.evaluate(userId, holdout, llmSample).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Admin Feature: Upstream vs coalesced Gemini calls and limiter rejections.
+     */
+    @GetMapping("/ai/gemini-stats")
+    public ResponseEntity<Map<String, Long>> getGeminiStats() {
+        return ResponseEntity.ok(geminiClient.stats());
+    }
+
+    /**
+     * Admin Feature: Allowed, delayed and rejected AI requests.
+     */
+    @GetMapping("/ai/rate-limit-stats")
+    public ResponseEntity<Map<String, Long>> getRateLimitStats() {
+        return ResponseEntity.ok(aiRateLimiter.stats());
+    }
+
+    @GetMapping("/ai/precompute-stats")
+    public ResponseEntity<Map<String, Long>> getPrecomputeStats() {
+        return ResponseEntity.ok(precomputedInsightService.stats());
+    }
+
+    /**
+     * Starts a background precompute run for all recently active users
+     * (the same run the scheduler starts). Returns immediately.
+     */
+    @PostMapping("/ai/precompute")
+    public ResponseEntity<Map<String, String>> triggerPrecompute() {
+        precomputedInsightService.refreshActiveUsers();
+        return ResponseEntity.accepted().body(Map.of("status", "started"));
+    }
+
+    /**
+     * Admin Feature: Gemini circuit breaker state and recent failure / slow-call rates.
+     */
+    @GetMapping("/ai/circuit")
+    public ResponseEntity<Map<String, Object>> getCircuitState() {
+        return ResponseEntity.ok(geminiClient.circuitStats());
+    }
+}
@@ -0,0 +1,36 @@
+package com.budgetwise.backend.controller;
+
+import com.budgetwise.backend.dto.AlertPageDto;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.service.AlertService;
+import com.budgetwise.backend.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/alerts")
+@RequiredArgsConstructor
+public class AlertController {
+
+    private final AlertService alertService;
+    private final UserService userService;
+
+    /**
+     * Unusual expenses flagged by the anomaly detector, newest first.
+     * Example URL: /api/alerts?limit=20&cursor=...
+     */
+    @GetMapping
+    public ResponseEntity<AlertPageDto> getAlerts(
+            Principal principal,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        User user = userService.resolveUser(principal);
+        return ResponseEntity.ok(alertService.getAlertPage(user.getId(), cursor, limit));
+    }
+}
@@ -0,0 +1,35 @@
+package com.budgetwise.backend.controller;
+
+import com.budgetwise.backend.dto.DashboardDto;
+import com.budgetwise.backend.service.DashboardService;
+import com.budgetwise.backend.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+    private final UserService userService;
+
+    /**
+     * Returns summary, category spending, budgets and savings goals in one round trip.
+     * Example URL: /api/dashboard?sections=summary,budgets (omit sections for everything)
+     */
+    @GetMapping
+    public ResponseEntity<DashboardDto> getDashboard(
+            Authentication authentication,
+            @RequestParam(value = "sections", required = false) Set<String> sections) {
+        // The principal is the user loaded by the JWT filter, so no extra lookup holds a connection here
+        return ResponseEntity.ok(dashboardService.getDashboard(userService.resolveUser(authentication), sections));
+    }
+}
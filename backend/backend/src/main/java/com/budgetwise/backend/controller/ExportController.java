@@ -1,17 +1,32 @@
 package com.budgetwise.backend.controller;
 
+import com.budgetwise.backend.dto.ExportJobDto;
+import com.budgetwise.backend.service.ExportJobService;
 import com.budgetwise.backend.service.ExportService;
+import com.budgetwise.backend.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.Principal;
 import java.time.LocalDate;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/export")
@@ -19,9 +34,13 @@ import java.time.LocalDate;
 public class ExportController {
 
     private final ExportService exportService;
+    private final ExportJobService exportJobService;
+    private final UserService userService;
 
     /**
      * Exports user transactions to a CSV file.
+     * Rows are streamed as they are read; if the client sends "Accept-Encoding: gzip"
+     * the body is gzip-compressed on the fly.
      * Example URL: /api/export/csv?startDate=2025-01-01&endDate=2025-01-31
      */
     @GetMapping("/csv")
@@ -29,16 +48,29 @@ public class ExportController {
             Principal principal,
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            HttpServletRequest request,
             HttpServletResponse response) throws IOException {
 
         response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
         response.setHeader("Content-Disposition", "attachment; filename=\"BudgetWise_Transactions.csv\"");
+        response.setHeader("Vary", "Accept-Encoding");
+
+        Writer writer;
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            response.setHeader("Content-Encoding", "gzip");
+            // Closing the CSVPrinter closes this writer, which finishes the gzip trailer
+            writer = new OutputStreamWriter(new GZIPOutputStream(response.getOutputStream(), 8192), StandardCharsets.UTF_8);
+        } else {
+            writer = response.getWriter();
+        }
 
         exportService.exportTransactionsToCsv(
             principal.getName(), 
             startDate, 
             endDate, 
-            response.getWriter()
+            writer
         );
     }
 
@@ -66,4 +98,69 @@ public class ExportController {
             response
         );
     }
-}
\ No newline at end of file
+
+    // ---
+    // --- Background Export Jobs ---
+    // ---
+
+    /**
+     * Queues a CSV or PDF export and returns immediately with the job status.
+     * Example URL: POST /api/export/jobs?format=pdf&startDate=2025-01-01&endDate=2025-01-31
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ExportJobDto> submitExportJob(
+            Principal principal,
+            @RequestParam("format") String format,
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        if (!"csv".equalsIgnoreCase(format) && !"pdf".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ExportJobDto job = exportJobService.submit(userService.resolveUser(principal), format, startDate, endDate);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED); // 202: poll the status endpoint
+    }
+
+    /**
+     * Returns the status of an export job. Poll until status is READY.
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ExportJobDto> getExportJob(Principal principal, @PathVariable("id") String jobId) {
+        return ResponseEntity.ok(exportJobService.getStatus(principal.getName(), jobId));
+    }
+
+    /**
+     * Downloads a finished export. On Tomcat the file is handed to the connector's
+     * sendfile support, so the kernel copies it to the socket and the request thread is
+     * released right away; otherwise it falls back to a plain stream copy. The artifact
+     * is reserved while this method runs, and its deletion is deferred past the
+     * sendfile transfer (see ExportJobServiceImpl).
+     */
+    @GetMapping("/jobs/{id}/download")
+    public void downloadExportJob(
+            Principal principal,
+            @PathVariable("id") String jobId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        try (ExportJobService.Download download = exportJobService.openDownload(principal.getName(), jobId)) {
+            Path artifact = download.path();
+            long size = Files.size(artifact);
+
+            boolean isPdf = "pdf".equals(download.format());
+            response.setContentType(isPdf ? "application/pdf" : "text/csv");
+            response.setHeader("Content-Disposition", isPdf
+                    ? "attachment; filename=\"BudgetWise_Report.pdf\""
+                    : "attachment; filename=\"BudgetWise_Transactions.csv\"");
+            response.setContentLengthLong(size);
+
+            if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+                request.setAttribute("org.apache.tomcat.sendfile.filename", artifact.toString());
+                request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+                request.setAttribute("org.apache.tomcat.sendfile.end", size);
+            } else {
+                Files.copy(artifact, response.getOutputStream());
+            }
+        }
+    }
+}
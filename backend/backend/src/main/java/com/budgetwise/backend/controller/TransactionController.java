@@ -1,14 +1,19 @@
 package com.budgetwise.backend.controller;
 
 import com.budgetwise.backend.dto.CategorySpendingDto;
+import com.budgetwise.backend.dto.SpendingAnalyticsDto;
 import com.budgetwise.backend.dto.TransactionDto;
+import com.budgetwise.backend.dto.TransactionFilterDto;
+import com.budgetwise.backend.dto.TransactionPageDto;
 import com.budgetwise.backend.dto.TransactionSummaryDto; // <-- 1. Added this import
 import com.budgetwise.backend.service.TransactionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -38,6 +43,22 @@ public class TransactionController {
         return ResponseEntity.ok(transactions); // Return the list of transactions
     }
 
+    /**
+     * Retrieves one page of transactions for the currently logged-in user, newest first.
+     * Example URL: /api/transactions/page?limit=50&type=EXPENSE&startDate=2025-01-01&cursor=...
+     * Filters: startDate, endDate, type, category, minAmount, maxAmount (all optional).
+     */
+    @GetMapping("/page")
+    public ResponseEntity<TransactionPageDto> getUserTransactionPage(
+            Authentication authentication,
+            @ModelAttribute TransactionFilterDto filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        String userEmail = authentication.getName();
+        TransactionPageDto page = transactionService.getTransactionPage(userEmail, filter, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
     /**
      * Updates an existing transaction for the currently logged-in user.
      */
@@ -81,4 +102,18 @@ public class TransactionController {
         TransactionSummaryDto summary = transactionService.getTransactionSummary(userEmail);
         return ResponseEntity.ok(summary);
     }
+
+    /**
+     * Expense totals per category and a histogram of expense amounts for a date range.
+     * Both dates are optional; leaving them out covers the whole history.
+     * Example URL: /api/transactions/spending-analytics?startDate=2025-01-01&endDate=2025-03-31&buckets=10
+     */
+    @GetMapping("/spending-analytics")
+    public ResponseEntity<SpendingAnalyticsDto> getSpendingAnalytics(
+            Authentication authentication,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "buckets", defaultValue = "10") int buckets) {
+        return ResponseEntity.ok(transactionService.getSpendingAnalytics(authentication.getName(), startDate, endDate, buckets));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.budgetwise.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of anomaly alerts, newest first.
+ * Pass nextCursor back as ?cursor= to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertPageDto {
+    private List<TransactionAlertDto> items;
+    private Long nextCursor; // null when there are no more alerts
+    private boolean hasMore;
+}
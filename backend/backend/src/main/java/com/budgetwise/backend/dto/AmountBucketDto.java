@@ -0,0 +1,18 @@
+package com.budgetwise.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One histogram bucket: how many expenses had an amount in [lower, upper).
+ * The last bucket also includes its upper edge.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AmountBucketDto {
+    private double lower;
+    private double upper;
+    private long count;
+}
@@ -0,0 +1,10 @@
+package com.budgetwise.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CategorizeBatchRequestDto {
+    private List<String> descriptions;
+}
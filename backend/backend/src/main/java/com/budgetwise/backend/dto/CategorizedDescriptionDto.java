@@ -0,0 +1,16 @@
+package com.budgetwise.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One categorization result. category is null when no confident answer was found.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorizedDescriptionDto {
+    private String description;
+    private String category;
+}
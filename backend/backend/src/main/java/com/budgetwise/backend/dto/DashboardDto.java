@@ -0,0 +1,23 @@
+package com.budgetwise.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Everything the dashboard page needs in one response.
+ * Sections that were not requested are left null and omitted from the JSON.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardDto {
+    private TransactionSummaryDto summary;
+    private List<CategorySpendingDto> spendingByCategory;
+    private List<BudgetDto> budgets;
+    private List<SavingsGoalDto> goals;
+
+    // How many SQL statements this response cost, and how long it took
+    private Integer sqlStatements;
+    private Long elapsedMs;
+}
@@ -0,0 +1,19 @@
+package com.budgetwise.backend.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class ExportJobDto {
+    private String id;
+    private String format;      // csv or pdf
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String status;      // QUEUED, RUNNING, READY, FAILED
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private Long sizeBytes;
+    private String error;
+    private String downloadUrl; // Set once the job is READY
+}
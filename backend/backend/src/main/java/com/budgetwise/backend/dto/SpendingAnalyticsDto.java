@@ -0,0 +1,24 @@
+package com.budgetwise.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Expense breakdown for a date range: totals per category (largest first)
+ * and a histogram of the individual expense amounts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingAnalyticsDto {
+    private LocalDate startDate; // null = from the first transaction
+    private LocalDate endDate;   // null = up to the latest transaction
+    private long expenseCount;
+    private double totalExpenses;
+    private List<CategorySpendingDto> byCategory;
+    private List<AmountBucketDto> amountHistogram;
+}
@@ -0,0 +1,22 @@
+package com.budgetwise.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class TransactionAlertDto {
+    private Long id;
+    private Long transactionId;
+    private String category;
+    private String description;
+    private LocalDate transactionDate;
+    private double amount;
+    private double typicalAmount;
+    private double robustScore;
+    private double ewmaScore;
+    private LocalDateTime createdAt;
+}
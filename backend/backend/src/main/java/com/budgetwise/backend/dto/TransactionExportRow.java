@@ -0,0 +1,20 @@
+package com.budgetwise.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * Flat scalar projection of a transaction used by the exports.
+ * Loaded through a JPQL constructor expression, so no managed entities
+ * pile up in the persistence context while a large export streams.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionExportRow {
+    private LocalDate date;
+    private String type;
+    private String category;
+    private String description;
+    private double amount;
+}
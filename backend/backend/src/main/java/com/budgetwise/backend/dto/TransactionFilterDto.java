@@ -0,0 +1,25 @@
+package com.budgetwise.backend.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional server-side filters for the paginated transaction listing.
+ * Every field may be left empty; empty fields are simply not applied.
+ */
+@Data
+public class TransactionFilterDto {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+
+    private String type;        // INCOME, EXPENSE, SAVINGS
+    private String category;
+    private Double minAmount;
+    private Double maxAmount;
+}
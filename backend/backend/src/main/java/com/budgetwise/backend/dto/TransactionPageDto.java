@@ -0,0 +1,20 @@
+package com.budgetwise.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of transactions, newest first.
+ * Pass nextCursor back as ?cursor= to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageDto {
+    private List<TransactionDto> items;
+    private String nextCursor; // null when there are no more rows
+    private boolean hasMore;
+}
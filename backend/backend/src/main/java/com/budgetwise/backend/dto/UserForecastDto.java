@@ -0,0 +1,19 @@
+package com.budgetwise.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class UserForecastDto {
+    private String category; // "*" = the user's total
+    private LocalDate monthStart;
+    private double predictedAmount;
+    private double lowerAmount;
+    private double upperAmount;
+    private String model;
+    private LocalDateTime generatedAt;
+}
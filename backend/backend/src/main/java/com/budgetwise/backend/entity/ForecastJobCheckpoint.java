@@ -0,0 +1,37 @@
+package com.budgetwise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a batch job, committed together with each chunk of results.
+ * A run that stops half way (crash, deploy) resumes after lastUserId.
+ */
+@Data
+@Entity
+@Table(name = "forecast_job_checkpoints")
+public class ForecastJobCheckpoint {
+
+    public enum Status { RUNNING, COMPLETED }
+
+    @Id
+    @Column(name = "job_name", length = 64)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "last_user_id", nullable = false)
+    private long lastUserId; // Keyset cursor: every user id <= this is done
+
+    @Column(name = "users_processed", nullable = false)
+    private long usersProcessed;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
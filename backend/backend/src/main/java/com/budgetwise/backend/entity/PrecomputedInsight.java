@@ -0,0 +1,39 @@
+package com.budgetwise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * An AI answer computed ahead of time by the background pipeline, one row per (user, kind).
+ * dataVersion is the UserDataVersionTracker version the answer was computed from;
+ * once the user's version moves on, the row is stale and gets refreshed.
+ */
+@Data
+@Entity
+@Table(name = "precomputed_insights",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_precomputed_insight_user_kind",
+                columnNames = {"user_id", "kind"}))
+public class PrecomputedInsight {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 40)
+    private String kind; // insights, next-month-prediction-chat, goal-tracking
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "data_version", nullable = false)
+    private long dataVersion;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
@@ -6,7 +6,10 @@ import java.time.LocalDate;
 
 @Data // <-- 2. ADD THIS ANNOTATION
 @Entity
-@Table(name = "transactions") // Or whatever your table name is
+@Table(name = "transactions", indexes = {
+        // Backs the keyset-paginated listing: WHERE user_id = ? ORDER BY date DESC, id DESC
+        @Index(name = "idx_transactions_user_date_id", columnList = "user_id, date, id")
+}) // Or whatever your table name is
 public class Transaction {
 
     @Id
@@ -0,0 +1,54 @@
+package com.budgetwise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An expense the anomaly detector flagged as unusual for its category.
+ * Written by AnomalyDetector after the transaction is committed; removed
+ * again if the transaction is edited back to normal or deleted.
+ */
+@Data
+@Entity
+@Table(name = "transaction_alerts", indexes = {
+        // Keyset paging: newest first by id within one user
+        @Index(name = "idx_transaction_alerts_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_transaction_alerts_transaction", columnList = "transaction_id")
+})
+public class TransactionAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private String category;
+
+    private String description;
+
+    @Column(name = "transaction_date")
+    private LocalDate transactionDate;
+
+    @Column(nullable = false)
+    private double amount;
+
+    @Column(name = "typical_amount", nullable = false)
+    private double typicalAmount; // Robust median of the category at detection time
+
+    @Column(name = "robust_score", nullable = false)
+    private double robustScore; // Modified z-score: 0.6745 * (amount - median) / MAD
+
+    @Column(name = "ewma_score", nullable = false)
+    private double ewmaScore; // (amount - EWMA mean) / EWMA standard deviation
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.budgetwise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * The persisted per-user data version (see UserDataVersionTracker): one row per user
+ * who has ever changed anything, bumped in the transaction that makes the change.
+ */
+@Data
+@Entity
+@Table(name = "user_data_versions")
+public class UserDataVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,50 @@
+package com.budgetwise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One forecast month for one user and expense category, written by the
+ * nightly batch job (ForecastBatchServiceImpl). The user's total is stored
+ * with category = TOTAL.
+ */
+@Data
+@Entity
+@Table(name = "user_forecasts",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_user_forecast_user_category_month",
+                columnNames = {"user_id", "category", "month_start"}))
+public class UserForecast {
+
+    public static final String TOTAL = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart; // Always the 1st day of the forecast month
+
+    @Column(name = "predicted_amount", nullable = false)
+    private double predictedAmount;
+
+    @Column(name = "lower_amount", nullable = false)
+    private double lowerAmount;
+
+    @Column(name = "upper_amount", nullable = false)
+    private double upperAmount;
+
+    @Column(nullable = false, length = 20)
+    private String model; // holt-winters, holt, linear, mean (blank for TOTAL)
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
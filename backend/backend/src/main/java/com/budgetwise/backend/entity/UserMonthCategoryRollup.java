@@ -0,0 +1,41 @@
+package com.budgetwise.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated totals per (user, month, category, type).
+ * Kept in sync by TransactionServiceImpl on every write, so dashboard
+ * summaries read a handful of rows instead of the user's whole history.
+ */
+@Data
+@Entity
+@Table(name = "user_month_category_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_rollup_user_month_category_type",
+                columnNames = {"user_id", "month_start", "category", "type"}))
+public class UserMonthCategoryRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart; // Always the 1st day of the month
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false, length = 16)
+    private String type; // INCOME, EXPENSE, SAVINGS
+
+    @Column(name = "total_amount", nullable = false)
+    private double totalAmount;
+
+    @Column(name = "tx_count", nullable = false)
+    private long txCount;
+}
@@ -0,0 +1,38 @@
+package com.budgetwise.backend.event;
+
+import com.budgetwise.backend.dto.TransactionDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by TransactionServiceImpl after every transaction write.
+ * Caches and in-memory models listen for it instead of being called directly.
+ *
+ * dataVersion is the user's data version this write produced. UserDataVersionTracker
+ * sets it before commit, so after-commit listeners can tell whether a state they
+ * loaded already contains the change (see UserStateCache).
+ */
+@Getter
+@RequiredArgsConstructor
+public class TransactionChangedEvent {
+
+    public enum Kind { CREATED, UPDATED, DELETED }
+
+    private final Long userId;
+    private final Kind kind;
+    private final TransactionDto before; // null for CREATED
+    private final TransactionDto after;  // null for DELETED
+    private long dataVersion;
+
+    public void stampDataVersion(long version) {
+        this.dataVersion = version;
+    }
+
+    /**
+     * True if either the old or the new version of the transaction has the given type.
+     */
+    public boolean involvesType(String type) {
+        return (before != null && type.equalsIgnoreCase(before.getType()))
+                || (after != null && type.equalsIgnoreCase(after.getType()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.budgetwise.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user account and all of its data are deleted.
+ * The bulk deletes publish no TransactionChangedEvent, so in-memory
+ * per-user state must listen for this and drop the user.
+ */
+@Getter
+@AllArgsConstructor
+public class UserAccountDeletedEvent {
+    private final Long userId;
+}
@@ -0,0 +1,15 @@
+package com.budgetwise.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a user's budgets or savings goals change.
+ * (Transaction writes publish the more detailed TransactionChangedEvent.)
+ */
+@Getter
+@AllArgsConstructor
+public class UserDataChangedEvent {
+    private final Long userId;
+    private final String source; // e.g. "budget", "savings-goal"
+}
@@ -0,0 +1,19 @@
+package com.budgetwise.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the AI provider is known to be unhealthy (circuit breaker open)
+ * and the call is rejected without being attempted.
+ * Automatically returns a 503 SERVICE_UNAVAILABLE if nothing handles it first.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class AiUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+}
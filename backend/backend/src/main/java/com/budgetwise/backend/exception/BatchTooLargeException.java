@@ -0,0 +1,18 @@
+package com.budgetwise.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a batch request carries more items than the server accepts in one call.
+ * Automatically returns a 400 BAD_REQUEST.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class BatchTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.budgetwise.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an export job does not exist, has expired, or belongs to another user.
+ * Automatically returns a 404 NOT_FOUND.
+ */
+@ResponseStatus(value = HttpStatus.NOT_FOUND)
+public class ExportJobNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.budgetwise.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a download is requested before the export job has finished.
+ * Automatically returns a 409 CONFLICT.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ExportJobNotReadyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExportJobNotReadyException(String message) {
+        super(message);
+    }
+}
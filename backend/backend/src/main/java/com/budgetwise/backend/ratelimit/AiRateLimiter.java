@@ -0,0 +1,127 @@
+package com.budgetwise.backend.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits for the AI endpoints: a token bucket per user plus one global bucket
+ * sized to the Gemini quota.
+ *
+ * User buckets live in a ConcurrentHashMap (internally striped, lock-free reads), are
+ * created on first use and evicted once they have refilled completely. A request must
+ * pass its user bucket and then the global bucket; if the global bucket refuses, the
+ * user's token is refunded so one user is not charged for everybody else's traffic.
+ *
+ * Optionally a request may wait up to ai.ratelimit.max-wait-ms for a token instead of
+ * being rejected. Waiting holds the request thread, so the number of concurrent waiters
+ * is capped as well; the default is no waiting.
+ */
+@Component
+@Slf4j
+public class AiRateLimiter {
+
+    /**
+     * Outcome of a check: allowed (possibly after a short delay) or rejected with a retry hint.
+     */
+    public record Decision(boolean allowed, long delayNanos, long retryAfterNanos, String reason) {
+
+        static Decision allow(long delayNanos) {
+            return new Decision(true, delayNanos, 0L, null);
+        }
+
+        static Decision reject(long retryAfterNanos, String reason) {
+            return new Decision(false, 0L, retryAfterNanos, reason);
+        }
+    }
+
+    private final double userRate;
+    private final int userBurst;
+    private final TokenBucket globalBucket;
+    private final long maxWaitNanos;
+    private final Semaphore waiters;
+
+    private final Map<Long, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong delayed = new AtomicLong();
+    private final AtomicLong rejectedUser = new AtomicLong();
+    private final AtomicLong rejectedGlobal = new AtomicLong();
+    private final AtomicLong rejectedQueue = new AtomicLong();
+
+    public AiRateLimiter(
+            @Value("${ai.ratelimit.user.requests-per-minute:20}") double userPerMinute,
+            @Value("${ai.ratelimit.user.burst:5}") int userBurst,
+            @Value("${ai.ratelimit.global.requests-per-minute:60}") double globalPerMinute,
+            @Value("${ai.ratelimit.global.burst:20}") int globalBurst,
+            @Value("${ai.ratelimit.max-wait-ms:0}") long maxWaitMs,
+            @Value("${ai.ratelimit.max-waiters:32}") int maxWaiters) {
+        this.userRate = userPerMinute / 60.0;
+        this.userBurst = userBurst;
+        this.globalBucket = new TokenBucket(globalPerMinute / 60.0, globalBurst, System.nanoTime());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+        this.waiters = new Semaphore(Math.max(0, maxWaiters));
+    }
+
+    public Decision check(Long userId) {
+        long now = System.nanoTime();
+        TokenBucket userBucket = userBuckets.computeIfAbsent(userId, id -> new TokenBucket(userRate, userBurst, now));
+
+        long userResult = userBucket.tryAcquire(now, maxWaitNanos);
+        if (userResult < 0) {
+            rejectedUser.incrementAndGet();
+            return Decision.reject(-userResult, "user");
+        }
+
+        long globalResult = globalBucket.tryAcquire(now, maxWaitNanos - userResult);
+        if (globalResult < 0) {
+            userBucket.refund();
+            rejectedGlobal.incrementAndGet();
+            return Decision.reject(-globalResult, "global");
+        }
+
+        long delay = Math.max(userResult, globalResult);
+        if (delay > 0) {
+            if (!waiters.tryAcquire()) {
+                // Too many requests already waiting: give both tokens back and reject
+                userBucket.refund();
+                globalBucket.refund();
+                rejectedQueue.incrementAndGet();
+                return Decision.reject(delay, "queue");
+            }
+            delayed.incrementAndGet();
+        }
+        allowed.incrementAndGet();
+        return Decision.allow(delay);
+    }
+
+    /**
+     * Must be called after an allowed decision with a delay, once the caller has finished waiting.
+     */
+    public void endWait() {
+        waiters.release();
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "allowed", allowed.get(),
+                "delayed", delayed.get(),
+                "rejectedUser", rejectedUser.get(),
+                "rejectedGlobal", rejectedGlobal.get(),
+                "rejectedQueue", rejectedQueue.get(),
+                "userBuckets", (long) userBuckets.size());
+    }
+
+    @Scheduled(fixedDelayString = "${ai.ratelimit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
@@ -0,0 +1,59 @@
+package com.budgetwise.backend.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in GCRA form (generic cell rate algorithm).
+ *
+ * The whole bucket state is one long: the "theoretical arrival time" (TAT) of the next
+ * token, in System.nanoTime() units. Refill is lazy: nothing runs in the background,
+ * the elapsed time since the last call simply counts as refilled tokens. Taking a token
+ * is a single compareAndSet, so contention costs a retry instead of a lock.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos; // time to earn one token
+    private final long capacityNanos; // burst size expressed as time
+    private final AtomicLong tat;
+
+    public TokenBucket(double tokensPerSecond, int burst, long now) {
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        this.tat = new AtomicLong(now);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @param now          current System.nanoTime()
+     * @param maxWaitNanos how long the caller is willing to wait for the token (0 = not at all)
+     * @return {@code >= 0}: the token is taken and the caller should proceed after that many nanos;
+     *         {@code < 0}: denied, nothing was taken, and {@code -result} is the time until
+     *         a token would be available
+     */
+    public long tryAcquire(long now, long maxWaitNanos) {
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - capacityNanos - now;
+            if (wait > maxWaitNanos) {
+                return -wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return Math.max(0L, wait);
+            }
+        }
+    }
+
+    /**
+     * Gives a token back, e.g. when a later check (the global bucket) rejected the request.
+     */
+    public void refund() {
+        tat.addAndGet(-intervalNanos);
+    }
+
+    // A full bucket carries no state worth keeping, so it can be evicted and recreated on demand
+    public boolean isFull(long now) {
+        return tat.get() <= now;
+    }
+}
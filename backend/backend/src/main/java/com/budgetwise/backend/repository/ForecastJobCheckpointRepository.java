@@ -0,0 +1,7 @@
+package com.budgetwise.backend.repository;
+
+import com.budgetwise.backend.entity.ForecastJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ForecastJobCheckpointRepository extends JpaRepository<ForecastJobCheckpoint, String> {
+}
@@ -0,0 +1,21 @@
+package com.budgetwise.backend.repository;
+
+import com.budgetwise.backend.entity.PrecomputedInsight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PrecomputedInsightRepository extends JpaRepository<PrecomputedInsight, Long> {
+
+    Optional<PrecomputedInsight> findByUserIdAndKind(Long userId, String kind);
+
+    List<PrecomputedInsight> findByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM PrecomputedInsight p WHERE p.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
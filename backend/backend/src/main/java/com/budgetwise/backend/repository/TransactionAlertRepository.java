@@ -0,0 +1,31 @@
+package com.budgetwise.backend.repository;
+
+import com.budgetwise.backend.entity.TransactionAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TransactionAlertRepository extends JpaRepository<TransactionAlert, Long> {
+
+    /**
+     * Keyset page, newest first. Pass beforeId = null for the first page,
+     * then the id of the last alert of the previous page.
+     */
+    @Query("SELECT a FROM TransactionAlert a WHERE a.userId = :userId " +
+            "AND (:beforeId IS NULL OR a.id < :beforeId) ORDER BY a.id DESC")
+    List<TransactionAlert> findPageByUserId(@Param("userId") Long userId,
+                                            @Param("beforeId") Long beforeId,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TransactionAlert a WHERE a.transactionId = :transactionId")
+    int deleteByTransactionId(@Param("transactionId") Long transactionId);
+
+    @Modifying
+    @Query("DELETE FROM TransactionAlert a WHERE a.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
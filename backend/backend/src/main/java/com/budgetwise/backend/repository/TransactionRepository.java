@@ -1,18 +1,55 @@
 package com.budgetwise.backend.repository;
 
+import com.budgetwise.backend.dto.TransactionExportRow;
 import com.budgetwise.backend.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
     List<Transaction> findByUserId(Long userId);
 
+    // --- Paginated Listing Query ---
+
+    /**
+     * Keyset (seek) pagination over (date DESC, id DESC).
+     * The cursor predicate starts with "date <= :cursorDate" so the
+     * (user_id, date, id) index can seek straight to the next page instead of
+     * skipping rows the way OFFSET does. Pass Pageable only as a LIMIT (page 0).
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId " +
+            "AND (:startDate IS NULL OR t.date >= :startDate) " +
+            "AND (:endDate IS NULL OR t.date <= :endDate) " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "AND (:category IS NULL OR t.category = :category) " +
+            "AND (:minAmount IS NULL OR t.amount >= :minAmount) " +
+            "AND (:maxAmount IS NULL OR t.amount <= :maxAmount) " +
+            "AND (:cursorDate IS NULL OR (t.date <= :cursorDate AND (t.date < :cursorDate OR t.id < :cursorId))) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByUserId(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("type") String type,
+            @Param("category") String category,
+            @Param("minAmount") Double minAmount,
+            @Param("maxAmount") Double maxAmount,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorId") Long cursorId,
+            Pageable limit
+    );
+
     // --- Dashboard Summary Queries ---
 
     @Query("SELECT COALESCE(SUM(t.amount), 0.0) FROM Transaction t WHERE t.user.id = :userId AND t.type = 'INCOME'")
@@ -36,6 +73,25 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("endDate") LocalDate endDate
     );
 
+    /**
+     * Batched budget evaluation: EXPENSE totals for each budget over its own date range.
+     * Returns rows of [budgetId, total]; budgets with nothing spent have no row.
+     * Budgets without dates use the given defaults (the current month).
+     * One query regardless of how many budgets the user has, and the category
+     * match uses the column collation, like the single-budget query above.
+     */
+    @Query("SELECT b.id, SUM(t.amount) FROM Budget b, Transaction t " +
+            "WHERE b.id IN :budgetIds AND b.user.id = :userId " +
+            "AND t.user.id = :userId AND t.type = 'EXPENSE' AND t.category = b.category " +
+            "AND t.date BETWEEN COALESCE(b.startDate, :defaultStart) AND COALESCE(b.endDate, :defaultEnd) " +
+            "GROUP BY b.id")
+    List<Object[]> sumExpensesPerBudget(
+            @Param("userId") Long userId,
+            @Param("budgetIds") Collection<Long> budgetIds,
+            @Param("defaultStart") LocalDate defaultStart,
+            @Param("defaultEnd") LocalDate defaultEnd
+    );
+
     @Query("SELECT COALESCE(SUM(t.amount), 0.0) FROM Transaction t WHERE t.user.id = :userId AND t.category = :category AND t.type = 'SAVINGS'")
     double findTotalSavingsByCategory(
             @Param("userId") Long userId,
@@ -47,6 +103,13 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT DISTINCT t.category FROM Transaction t ORDER BY t.category ASC")
     List<String> findAllDistinctCategories();
 
+    // Users with at least one transaction dated on or after :since (the "active" users for background jobs)
+    @Query("SELECT DISTINCT t.user.id FROM Transaction t WHERE t.date >= :since")
+    List<Long> findActiveUserIdsSince(@Param("since") LocalDate since);
+
+    @Query("SELECT DISTINCT t.category FROM Transaction t WHERE t.user.id = :userId AND t.category IS NOT NULL ORDER BY t.category ASC")
+    List<String> findDistinctCategoriesByUserId(@Param("userId") Long userId);
+
 
     // --- ***NEW*** Export Feature Query ---
 
@@ -56,6 +119,53 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     List<Transaction> findByUserIdAndDateBetweenOrderByDateDesc(Long userId, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Report totals for a date range. Returns rows of [type, total].
+     */
+    @Query("SELECT t.type, COALESCE(SUM(t.amount), 0.0) FROM Transaction t " +
+            "WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate GROUP BY t.type")
+    List<Object[]> sumByTypeBetween(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    long countByUserIdAndDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Just the four columns the analytics kernels read, as rows of [date, amount, category, type],
+     * for the user's transactions in [startDate, endDate]. A null bound leaves that end open.
+     * See TransactionColumns.fromRows.
+     */
+    @Query("SELECT t.date, t.amount, t.category, t.type FROM Transaction t WHERE t.user.id = :userId " +
+            "AND (:startDate IS NULL OR t.date >= :startDate) " +
+            "AND (:endDate IS NULL OR t.date <= :endDate)")
+    List<Object[]> findColumnsByUserId(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Streaming variant of the export query. Rows are projected straight to scalars and
+     * read through a forward-only cursor: a fetch size of Integer.MIN_VALUE tells MySQL
+     * Connector/J to stream rows one at a time instead of buffering the whole result.
+     * Must be consumed inside a read-only transaction and closed when done.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.budgetwise.backend.dto.TransactionExportRow(t.date, t.type, t.category, t.description, t.amount) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY t.date DESC, t.id DESC")
+    Stream<TransactionExportRow> streamExportRows(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
 
     // --- Delete User Query ---
     @Transactional
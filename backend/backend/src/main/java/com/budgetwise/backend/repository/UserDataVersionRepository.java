@@ -0,0 +1,31 @@
+package com.budgetwise.backend.repository;
+
+import com.budgetwise.backend.entity.UserDataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface UserDataVersionRepository extends JpaRepository<UserDataVersion, Long> {
+
+    @Query("SELECT v.version FROM UserDataVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") Long userId);
+
+    /**
+     * Increments the user's version, creating the row at 1 on the first change.
+     * Joins the caller's transaction, so the new version commits with the data it describes.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_data_versions (user_id, version) VALUES (:userId, 1) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1",
+            nativeQuery = true)
+    int bump(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserDataVersion v WHERE v.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
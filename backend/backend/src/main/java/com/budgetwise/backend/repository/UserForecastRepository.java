@@ -0,0 +1,21 @@
+package com.budgetwise.backend.repository;
+
+import com.budgetwise.backend.entity.UserForecast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Reads and deletes only; the batch job writes this table with JDBC batches.
+ */
+public interface UserForecastRepository extends JpaRepository<UserForecast, Long> {
+
+    List<UserForecast> findByUserIdOrderByMonthStartAscCategoryAsc(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserForecast f WHERE f.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,119 @@
+package com.budgetwise.backend.repository;
+
+import com.budgetwise.backend.dto.CategorySpendingDto;
+import com.budgetwise.backend.entity.UserMonthCategoryRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserMonthCategoryRollupRepository extends JpaRepository<UserMonthCategoryRollup, Long> {
+
+    // --- Write Path (called inside the transaction that changes the Transaction row) ---
+
+    /**
+     * Adds a delta to one rollup row, creating it if it does not exist yet.
+     * A single atomic upsert, so concurrent writes for the same month cannot lose updates.
+     * Uses the row alias form (MySQL 8.0.19+); VALUES() in the update clause is deprecated.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_month_category_rollup (user_id, month_start, category, type, total_amount, tx_count) " +
+            "VALUES (:userId, :monthStart, :category, :type, :amount, :count) AS new " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_amount = user_month_category_rollup.total_amount + new.total_amount, " +
+            "tx_count = user_month_category_rollup.tx_count + new.tx_count",
+            nativeQuery = true)
+    int applyDelta(
+            @Param("userId") Long userId,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("category") String category,
+            @Param("type") String type,
+            @Param("amount") double amount,
+            @Param("count") long count
+    );
+
+    /**
+     * Removes the row once its last transaction is gone, so months and categories
+     * the user no longer has do not linger as zero rows.
+     */
+    @Modifying
+    @Query("DELETE FROM UserMonthCategoryRollup r WHERE r.userId = :userId AND r.monthStart = :monthStart " +
+            "AND r.category = :category AND r.type = :type AND r.txCount <= 0")
+    int deleteIfEmpty(
+            @Param("userId") Long userId,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("category") String category,
+            @Param("type") String type
+    );
+
+    // --- Rebuild / Reconcile ---
+
+    @Modifying
+    @Query("DELETE FROM UserMonthCategoryRollup r WHERE r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Recomputes every rollup row for one user straight from the transactions table.
+     * Must run right after deleteAllByUserId in the same transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_month_category_rollup (user_id, month_start, category, type, total_amount, tx_count) " +
+            "SELECT t.user_id, DATE_FORMAT(t.date, '%Y-%m-01'), COALESCE(t.category, ''), UPPER(t.type), SUM(t.amount), COUNT(*) " +
+            "FROM transactions t " +
+            "WHERE t.user_id = :userId AND t.date IS NOT NULL AND t.type IS NOT NULL " +
+            "GROUP BY t.user_id, DATE_FORMAT(t.date, '%Y-%m-01'), COALESCE(t.category, ''), UPPER(t.type)",
+            nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId);
+
+    // --- Dashboard Read Queries ---
+
+    /**
+     * Returns rows of [type, total] for the user's whole history.
+     */
+    @Query("SELECT r.type, COALESCE(SUM(r.totalAmount), 0.0) FROM UserMonthCategoryRollup r WHERE r.userId = :userId GROUP BY r.type")
+    List<Object[]> sumByType(@Param("userId") Long userId);
+
+    /**
+     * Returns rows of [category, total] for one transaction type across all months.
+     */
+    @Query("SELECT r.category, SUM(r.totalAmount) FROM UserMonthCategoryRollup r " +
+            "WHERE r.userId = :userId AND r.type = :type GROUP BY r.category")
+    List<Object[]> sumByCategoryForType(@Param("userId") Long userId, @Param("type") String type);
+
+    @Query("SELECT new com.budgetwise.backend.dto.CategorySpendingDto(r.category, SUM(r.totalAmount)) " +
+            "FROM UserMonthCategoryRollup r WHERE r.userId = :userId AND r.type = 'EXPENSE' GROUP BY r.category")
+    List<CategorySpendingDto> findExpenseTotalsByCategory(@Param("userId") Long userId);
+
+    // --- Forecasting ---
+
+    /**
+     * Returns rows of [monthStart, category, total] of expenses for months in [from, to).
+     * Rollup rows are already one per (month, category), so this is the whole series in one query.
+     */
+    @Query("SELECT r.monthStart, r.category, r.totalAmount FROM UserMonthCategoryRollup r " +
+            "WHERE r.userId = :userId AND r.type = 'EXPENSE' AND r.monthStart >= :from AND r.monthStart < :to " +
+            "ORDER BY r.monthStart")
+    List<Object[]> findExpenseSeries(@Param("userId") Long userId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    /**
+     * Returns rows of [monthStart, category, total] for every expense month of the user.
+     */
+    @Query("SELECT r.monthStart, r.category, r.totalAmount FROM UserMonthCategoryRollup r " +
+            "WHERE r.userId = :userId AND r.type = 'EXPENSE'")
+    List<Object[]> findExpenseMonthTotals(@Param("userId") Long userId);
+
+    /**
+     * Batch variant of findExpenseSeries for a chunk of users: rows of [userId, monthStart, category, total].
+     */
+    @Query("SELECT r.userId, r.monthStart, r.category, r.totalAmount FROM UserMonthCategoryRollup r " +
+            "WHERE r.userId IN :userIds AND r.type = 'EXPENSE' AND r.monthStart >= :from AND r.monthStart < :to")
+    List<Object[]> findExpenseSeriesForUsers(@Param("userIds") Collection<Long> userIds,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+}
@@ -2,12 +2,24 @@ package com.budgetwise.backend.repository;
 
 import com.budgetwise.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     // Custom query to find a user by their email
     Optional<User> findByEmail(String email);
+
+    // Used by batch jobs that walk every user without loading full entities
+    @Query("SELECT u.id FROM User u ORDER BY u.id ASC")
+    List<Long> findAllIds();
+
+    // Keyset page of user ids for batch jobs: ids after the cursor, ascending
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id ASC")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.budgetwise.backend.security;
+
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.ratelimit.AiRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies AiRateLimiter to /api/ai/** after the JWT filter has identified the user.
+ * Rejected requests get 429 Too Many Requests with a Retry-After header (seconds).
+ *
+ * Unauthenticated requests pass straight through and are refused by the authorization
+ * rules. Async re-dispatches (Mono / SSE results) are not filtered, so one request is
+ * only charged once.
+ */
+@Component
+@RequiredArgsConstructor
+public class AiRateLimitFilter extends OncePerRequestFilter {
+
+    private final AiRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/ai/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof User user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AiRateLimiter.Decision decision = rateLimiter.check(user.getId());
+        if (!decision.allowed()) {
+            reject(response, decision.retryAfterNanos());
+            return;
+        }
+
+        if (decision.delayNanos() > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(decision.delayNanos());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reject(response, decision.delayNanos());
+                return;
+            } finally {
+                rateLimiter.endWait();
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterNanos) throws IOException {
+        long seconds = Math.max(1L, (long) Math.ceil(retryAfterNanos / 1_000_000_000.0));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("message", "Too many AI requests. Please retry in " + seconds + " seconds."));
+    }
+}
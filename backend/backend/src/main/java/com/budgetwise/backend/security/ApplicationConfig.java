@@ -14,8 +14,14 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 // --- NEW IMPORTS ---
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 // --- END NEW IMPORTS ---
 
 @Configuration
@@ -58,12 +64,57 @@ public class ApplicationConfig {
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
+    @Value("${gemini.pool.max-connections:32}")
+    private int geminiMaxConnections;
+
+    @Value("${gemini.connect-timeout-ms:3000}")
+    private int geminiConnectTimeoutMs;
+
+    @Value("${gemini.timeout-ms:20000}")
+    private long geminiTimeoutMs;
+
+    @Value("${gemini.api.stream-url:}")
+    private String geminiStreamApiUrl;
+
+    @Bean
+    public ReactorClientHttpConnector geminiConnector() {
+        // Dedicated, bounded connection pool so Gemini traffic reuses keep-alive connections
+        ConnectionProvider provider = ConnectionProvider.builder("gemini")
+                .maxConnections(geminiMaxConnections)
+                .pendingAcquireTimeout(Duration.ofSeconds(5))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+
+        // For streamed responses the response timeout applies between chunks, not to the whole body
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, geminiConnectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(geminiTimeoutMs));
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
     @Bean
-    public WebClient geminiWebClient() {
+    public WebClient geminiWebClient(ReactorClientHttpConnector geminiConnector) {
         // This builds the WebClient and automatically includes your API key in every request
         return WebClient.builder()
+                .clientConnector(geminiConnector)
                 .baseUrl(geminiApiUrl + "?key=" + geminiApiKey)
                 .defaultHeader("Content-Type", "application/json")
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Same connection pool, pointed at the streaming endpoint (server-sent events).
+     * Defaults to gemini.api.url with :generateContent swapped for :streamGenerateContent.
+     */
+    @Bean
+    public WebClient geminiStreamWebClient(ReactorClientHttpConnector geminiConnector) {
+        String streamUrl = geminiStreamApiUrl.isBlank()
+                ? geminiApiUrl.replace(":generateContent", ":streamGenerateContent")
+                : geminiStreamApiUrl;
+        return WebClient.builder()
+                .clientConnector(geminiConnector)
+                .baseUrl(streamUrl + "?alt=sse&key=" + geminiApiKey)
+                .defaultHeader("Content-Type", "application/json")
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.budgetwise.backend.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +24,7 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final AiRateLimitFilter aiRateLimitFilter;
     private final AuthenticationProvider authenticationProvider;
 
     @Bean
@@ -32,6 +34,11 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() 
+
+                // Async (Mono / SSE) results are dispatched back through the chain;
+                // the original request was already authorized, and the stateless
+                // JWT context is not carried over to that second dispatch
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll() 
                 
                 // --- THIS IS THE NEW LINE YOU ADDED ---
@@ -45,7 +52,9 @@ public class SecurityConfig {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authenticationProvider(authenticationProvider)
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            // Runs once the JWT filter has set the user, before authorization
+            .addFilterAfter(aiRateLimitFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -16,4 +16,6 @@ public interface AdminService {
     List<String> getAllCategories(); // Feature 4: Get all categories in use
 
     void deleteUserAccount(Long userId); // Feature 5: Delete a user
+
+    int rebuildRollups(Long userId); // Feature 6: Rebuild dashboard rollups (null = all users)
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.budgetwise.backend.service;
+
+import com.budgetwise.backend.dto.AlertPageDto;
+import com.budgetwise.backend.dto.TransactionAlertDto;
+
+import java.util.List;
+
+public interface AlertService {
+
+    // Keyset-paginated anomaly alerts (newest first); cursor is the previous page's nextCursor
+    AlertPageDto getAlertPage(Long userId, Long cursor, int limit);
+
+    // The latest alerts, e.g. for an AI summary
+    List<TransactionAlertDto> getRecentAlerts(Long userId, int limit);
+}
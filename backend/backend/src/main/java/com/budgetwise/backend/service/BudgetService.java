@@ -1,10 +1,12 @@
 package com.budgetwise.backend.service;
 import com.budgetwise.backend.dto.BudgetDto;
+import com.budgetwise.backend.entity.User;
 import java.util.List;
 
 public interface BudgetService {
     BudgetDto createBudget(String userEmail, BudgetDto budgetDto);
     List<BudgetDto> getBudgetsByUser(String userEmail);
+    List<BudgetDto> getBudgetsByUser(User user); // For callers that already resolved the user
 
     // ADD THESE NEW METHODS
     BudgetDto updateBudget(String userEmail, Long budgetId, BudgetDto budgetDto);
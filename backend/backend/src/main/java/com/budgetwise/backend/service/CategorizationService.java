@@ -0,0 +1,22 @@
+package com.budgetwise.backend.service;
+
+import com.budgetwise.backend.dto.CategorizedDescriptionDto;
+import com.budgetwise.backend.entity.User;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+public interface CategorizationService {
+
+    /**
+     * Categorizes the descriptions against the user's own category set.
+     * Results are returned in input order (one per input, duplicates included).
+     */
+    Mono<List<CategorizedDescriptionDto>> categorize(User user, List<String> descriptions);
+
+    // The categories the user actually uses (transactions, budgets, savings goals)
+    List<String> getCategoriesForUser(Long userId);
+
+    Map<String, Long> cacheStats();
+}
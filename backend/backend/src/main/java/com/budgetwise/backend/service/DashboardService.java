@@ -0,0 +1,11 @@
+package com.budgetwise.backend.service;
+
+import com.budgetwise.backend.dto.DashboardDto;
+import com.budgetwise.backend.entity.User;
+import java.util.Set;
+
+public interface DashboardService {
+
+    // Valid sections: summary, categories, budgets, goals (empty = all)
+    DashboardDto getDashboard(User user, Set<String> sections);
+}
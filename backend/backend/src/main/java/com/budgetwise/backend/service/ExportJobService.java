@@ -0,0 +1,32 @@
+package com.budgetwise.backend.service;
+
+import com.budgetwise.backend.dto.ExportJobDto;
+import com.budgetwise.backend.entity.User;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public interface ExportJobService {
+
+    // Queues a CSV or PDF export. An identical (user, range, format) job that is
+    // still queued, running or ready is returned instead of starting a new one,
+    // as long as the user's data has not changed since it was submitted.
+    ExportJobDto submit(User user, String format, LocalDate startDate, LocalDate endDate);
+
+    ExportJobDto getStatus(String userEmail, String jobId);
+
+    // Reserves the finished artifact for one download; close it once the bytes are sent
+    Download openDownload(String userEmail, String jobId);
+
+    /**
+     * A finished artifact on the spool directory. The file is not deleted
+     * while any download of it is still open.
+     */
+    interface Download extends AutoCloseable {
+        Path path();
+
+        String format();
+
+        @Override
+        void close();
+    }
+}
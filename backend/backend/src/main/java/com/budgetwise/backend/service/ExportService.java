@@ -2,6 +2,7 @@ package com.budgetwise.backend.service;
 
 import jakarta.servlet.http.HttpServletResponse; // <-- ADD THIS IMPORT
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.time.LocalDate;
 
@@ -17,4 +18,9 @@ public interface ExportService {
      * Creates and writes a PDF report to the HTTP response.
      */
     void exportTransactionsToPdf(String userEmail, LocalDate startDate, LocalDate endDate, HttpServletResponse response) throws IOException;
+
+    /**
+     * Writes the same PDF report to any stream (used by background export jobs).
+     */
+    void exportTransactionsToPdf(String userEmail, LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException;
 }
\ No newline at end of file
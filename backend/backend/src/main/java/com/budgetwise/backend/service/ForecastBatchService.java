@@ -0,0 +1,18 @@
+package com.budgetwise.backend.service;
+
+import com.budgetwise.backend.dto.UserForecastDto;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ForecastBatchService {
+
+    // Starts a run in the background (resuming an interrupted one). False if a run is already active.
+    boolean start();
+
+    // Progress and throughput of the current and the last finished run.
+    Map<String, Object> stats();
+
+    // Forecast rows the last run stored for one user.
+    List<UserForecastDto> getStoredForecasts(Long userId);
+}
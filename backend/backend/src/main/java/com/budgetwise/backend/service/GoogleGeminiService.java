@@ -1,25 +1,46 @@
 package com.budgetwise.backend.service;
 
 import com.budgetwise.backend.ai.dto.ExpensePredictionDto; // <-- ADD THIS NEW IMPORT
+import com.budgetwise.backend.ai.dto.ExpenseForecastDto;
 import com.budgetwise.backend.dto.SavingsGoalDto;
+import com.budgetwise.backend.dto.TransactionAlertDto;
 import com.budgetwise.backend.dto.TransactionDto;
 import com.budgetwise.backend.dto.TransactionSummaryDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import java.util.List;
 
+/**
+ * All LLM-backed methods are non-blocking: they return a Mono that completes
+ * when Gemini answers. When Gemini is unreachable they complete with a local,
+ * rule-based answer (LocalInsightGenerator) instead of an error text.
+ */
 public interface GoogleGeminiService {
 
     // --- Your 3 original AI methods ---
-    String generateMonthlyInsights(TransactionSummaryDto summary);
-    String generatePredictionAndAlerts(String transactionHistoryJson);
-    String getCategoryForTransaction(String description, List<String> categories);
+    Mono<String> generateMonthlyInsights(TransactionSummaryDto summary);
+    Mono<String> generatePredictionAndAlerts(ExpenseForecastDto forecast, List<TransactionAlertDto> alerts);
+    Mono<String> getCategoryForTransaction(String description, List<String> categories);
+
+    /**
+     * Categorizes many descriptions with a single prompt.
+     * The result is aligned with the input; entries Gemini did not answer (or answered
+     * with a category outside the list) are null.
+     */
+    Mono<List<String>> getCategoriesForTransactions(List<String> descriptions, List<String> categories);
 
     // --- Your 6 Chatbot methods ---
-    String generateChatResponse(String prompt);
-    String generateSpendingBreakdown(List<TransactionDto> transactions);
-    String generateSavingTipsForGoal(SavingsGoalDto goal);
-    String generateTransactionDetails(List<TransactionDto> transactions);
-    String generatePersonalizedInsights(TransactionSummaryDto summary, List<TransactionDto> transactions);
-    String generateGoalTrackingAnalysis(List<SavingsGoalDto> goals, TransactionSummaryDto summary);
+    Mono<String> generateChatResponse(String prompt);
+    Mono<String> generateSpendingBreakdown(List<TransactionDto> transactions);
+    Mono<String> generateSavingTipsForGoal(SavingsGoalDto goal);
+    Mono<String> generateTransactionDetails(List<TransactionDto> transactions);
+    Mono<String> generatePersonalizedInsights(TransactionSummaryDto summary, List<TransactionDto> transactions);
+    Mono<String> generateGoalTrackingAnalysis(List<SavingsGoalDto> goals, TransactionSummaryDto summary);
+
+    // --- Streaming variants (text chunks as Gemini generates them) ---
+    Flux<String> streamMonthlyInsights(TransactionSummaryDto summary);
+    Flux<String> streamChatResponse(String prompt);
+    Flux<String> streamPersonalizedInsights(TransactionSummaryDto summary, List<TransactionDto> transactions);
     
     // ---
     // --- ADD THIS NEW METHOD FOR THE CHART ---
@@ -35,5 +56,5 @@ public interface GoogleGeminiService {
      * Generates a conversational prediction for next month's expenses.
      * Returns text for the UI chat bubble.
      */
-    String generateNextMonthExpensePrediction(String userEmail);
+    Mono<String> generateNextMonthExpensePrediction(String userEmail);
 }
\ No newline at end of file
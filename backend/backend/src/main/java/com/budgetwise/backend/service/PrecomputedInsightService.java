@@ -0,0 +1,26 @@
+package com.budgetwise.backend.service;
+
+import com.budgetwise.backend.entity.User;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+public interface PrecomputedInsightService {
+
+    String INSIGHTS = "insights";
+    String NEXT_MONTH_PREDICTION = "next-month-prediction-chat";
+    String GOAL_TRACKING = "goal-tracking";
+    List<String> KINDS = List.of(INSIGHTS, NEXT_MONTH_PREDICTION, GOAL_TRACKING);
+
+    /**
+     * Returns the stored answer immediately (refreshing it in the background if it is stale),
+     * or computes, stores and returns it if there is none yet.
+     */
+    Mono<String> getInsight(User user, String kind);
+
+    // Scheduled batch over recently active users; also callable by an admin
+    void refreshActiveUsers();
+
+    Map<String, Long> stats();
+}
@@ -0,0 +1,16 @@
+package com.budgetwise.backend.service;
+
+import java.time.LocalDate;
+
+public interface RollupService {
+
+    // Applies a (possibly negative) change to the user's monthly rollup row.
+    // Must be called inside the transaction that writes the Transaction row.
+    void applyDelta(Long userId, String type, String category, LocalDate date, double amountDelta, int countDelta);
+
+    // Drops and recomputes all rollup rows for one user from the transactions table.
+    void rebuildForUser(Long userId);
+
+    // Reconciles every user's rollup rows. Returns the number of users rebuilt.
+    int rebuildAll();
+}
@@ -1,11 +1,14 @@
 package com.budgetwise.backend.service;
 
 import com.budgetwise.backend.dto.SavingsGoalDto;
+import com.budgetwise.backend.entity.User;
 import java.util.List;
 
 public interface SavingsGoalService {
     SavingsGoalDto createSavingsGoal(String userEmail, SavingsGoalDto savingsGoalDto);
     List<SavingsGoalDto> getSavingsGoalsByUser(String userEmail);
+    List<SavingsGoalDto> getSavingsGoalsByUser(User user); // For callers that already resolved the user
+    SavingsGoalDto getSavingsGoalById(String userEmail, Long goalId); // Direct single-goal lookup
 
     // ADD THESE LINES
     SavingsGoalDto updateSavingsGoal(String userEmail, Long goalId, SavingsGoalDto savingsGoalDto);
@@ -0,0 +1,17 @@
+package com.budgetwise.backend.service;
+
+import java.util.Locale;
+import java.util.Map;
+
+public interface SavingsProgressService {
+
+    // Total SAVINGS amount per category for the user (goal name == category), keyed by categoryKey()
+    Map<String, Double> getSavingsByCategory(Long userId);
+
+    void invalidate(Long userId);
+
+    // Case-insensitive key, matching how the database compares category names
+    static String categoryKey(String category) {
+        return category == null ? "" : category.toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,7 +2,12 @@ package com.budgetwise.backend.service;
 
 import com.budgetwise.backend.dto.CategorySpendingDto;
 import com.budgetwise.backend.dto.TransactionDto;
+import com.budgetwise.backend.dto.TransactionFilterDto;
+import com.budgetwise.backend.dto.SpendingAnalyticsDto;
+import com.budgetwise.backend.dto.TransactionPageDto;
 import com.budgetwise.backend.dto.TransactionSummaryDto; // <-- 1. Import this DTO
+import com.budgetwise.backend.entity.User;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TransactionService {
@@ -10,6 +15,9 @@ public interface TransactionService {
     TransactionDto createTransaction(String userEmail, TransactionDto transactionDto);
     
     List<TransactionDto> getTransactionsByUser(String userEmail);
+
+    // Cursor-paginated, filterable listing (newest first)
+    TransactionPageDto getTransactionPage(String userEmail, TransactionFilterDto filter, String cursor, int limit);
     
     TransactionDto updateTransaction(String userEmail, Long transactionId, TransactionDto transactionDto);
     
@@ -21,4 +29,12 @@ public interface TransactionService {
     // --- 2. Add this new method ---
     // This is the method for your main dashboard summary
     TransactionSummaryDto getTransactionSummary(String userEmail);
+
+    // Expense totals per category plus an amount histogram for a date range (either end may be null)
+    SpendingAnalyticsDto getSpendingAnalytics(String userEmail, LocalDate startDate, LocalDate endDate, int buckets);
+
+    // --- Variants for callers that already resolved the user (saves a findByEmail) ---
+    List<TransactionDto> getTransactionsByUser(User user);
+    List<CategorySpendingDto> getSpendingByCategory(User user);
+    TransactionSummaryDto getTransactionSummary(User user);
 }
\ No newline at end of file
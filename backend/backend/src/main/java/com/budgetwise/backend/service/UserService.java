@@ -2,6 +2,9 @@ package com.budgetwise.backend.service;
 
 import com.budgetwise.backend.dto.ProfileDto;
 import com.budgetwise.backend.dto.ProfileUpdateRequestDto;
+import com.budgetwise.backend.entity.User;
+
+import java.security.Principal;
 
 public interface UserService {
 
@@ -22,4 +25,10 @@ public interface UserService {
      * Deletes a user and all their associated data.
      */
     void deleteUserAccount(String email);
+
+    /**
+     * Returns the logged-in user. Reuses the User the JWT filter already loaded
+     * for this request, and only queries the database when it is not available.
+     */
+    User resolveUser(Principal principal);
 }
\ No newline at end of file
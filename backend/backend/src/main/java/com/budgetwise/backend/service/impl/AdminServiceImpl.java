@@ -4,12 +4,20 @@ import com.budgetwise.backend.dto.TransactionDto;
 import com.budgetwise.backend.dto.UserDto;
 import com.budgetwise.backend.entity.Transaction; // <-- MAKE SURE THIS IMPORT IS HERE
 import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.event.UserAccountDeletedEvent;
 import com.budgetwise.backend.repository.BudgetRepository;
 import com.budgetwise.backend.repository.SavingsGoalRepository;
 import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.PrecomputedInsightRepository;
+import com.budgetwise.backend.repository.TransactionAlertRepository;
+import com.budgetwise.backend.repository.UserDataVersionRepository;
+import com.budgetwise.backend.repository.UserForecastRepository;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
 import com.budgetwise.backend.repository.UserRepository;
+import com.budgetwise.backend.service.RollupService;
 import com.budgetwise.backend.service.AdminService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +35,13 @@ public class AdminServiceImpl implements AdminService {
     private final TransactionRepository transactionRepository;
     private final BudgetRepository budgetRepository;
     private final SavingsGoalRepository savingsGoalRepository;
+    private final UserMonthCategoryRollupRepository rollupRepository;
+    private final PrecomputedInsightRepository precomputedInsightRepository;
+    private final UserForecastRepository userForecastRepository;
+    private final TransactionAlertRepository transactionAlertRepository;
+    private final UserDataVersionRepository userDataVersionRepository;
+    private final RollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
     // We REMOVED the forum repositories
 
     @Override
@@ -69,11 +84,28 @@ public class AdminServiceImpl implements AdminService {
         transactionRepository.deleteAllByUserId(userId);
         budgetRepository.deleteAllByUserId(userId);
         savingsGoalRepository.deleteAllByUserId(userId);
+        rollupRepository.deleteAllByUserId(userId);
+        precomputedInsightRepository.deleteAllByUserId(userId);
+        userForecastRepository.deleteAllByUserId(userId);
+        transactionAlertRepository.deleteAllByUserId(userId);
+        userDataVersionRepository.deleteAllByUserId(userId);
         
         // 2. We REMOVED the forum deletion logic
         
         // 3. Finally, delete the user
         userRepository.delete(user);
+
+        // In-memory per-user state is dropped once this commits
+        eventPublisher.publishEvent(new UserAccountDeletedEvent(userId));
+    }
+
+    @Override
+    public int rebuildRollups(Long userId) {
+        if (userId != null) {
+            rollupService.rebuildForUser(userId);
+            return 1;
+        }
+        return rollupService.rebuildAll();
     }
 
     // --- Helper Methods ---
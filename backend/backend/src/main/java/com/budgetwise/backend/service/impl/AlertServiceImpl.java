@@ -0,0 +1,60 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.dto.AlertPageDto;
+import com.budgetwise.backend.dto.TransactionAlertDto;
+import com.budgetwise.backend.entity.TransactionAlert;
+import com.budgetwise.backend.repository.TransactionAlertRepository;
+import com.budgetwise.backend.service.AlertService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class AlertServiceImpl implements AlertService {
+
+    private final TransactionAlertRepository alertRepository;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Override
+    public AlertPageDto getAlertPage(Long userId, Long cursor, int limit) {
+        int pageSize = (limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        // Fetch one extra row to know whether another page exists
+        List<TransactionAlert> rows = alertRepository.findPageByUserId(userId, cursor, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionAlert> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        Long nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+        List<TransactionAlertDto> items = page.stream().map(this::mapToDto).collect(Collectors.toList());
+        return new AlertPageDto(items, nextCursor, hasMore);
+    }
+
+    @Override
+    public List<TransactionAlertDto> getRecentAlerts(Long userId, int limit) {
+        return alertRepository.findPageByUserId(userId, null, PageRequest.of(0, Math.max(1, limit)))
+                .stream().map(this::mapToDto).collect(Collectors.toList());
+    }
+
+    // --- Helper Methods ---
+
+    private TransactionAlertDto mapToDto(TransactionAlert alert) {
+        return TransactionAlertDto.builder()
+                .id(alert.getId())
+                .transactionId(alert.getTransactionId())
+                .category(alert.getCategory())
+                .description(alert.getDescription())
+                .transactionDate(alert.getTransactionDate())
+                .amount(alert.getAmount())
+                .typicalAmount(alert.getTypicalAmount())
+                .robustScore(alert.getRobustScore())
+                .ewmaScore(alert.getEwmaScore())
+                .createdAt(alert.getCreatedAt())
+                .build();
+    }
+}
@@ -3,16 +3,21 @@ package com.budgetwise.backend.service.impl;
 import com.budgetwise.backend.dto.BudgetDto;
 import com.budgetwise.backend.entity.Budget;
 import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.event.UserDataChangedEvent;
 import com.budgetwise.backend.repository.BudgetRepository;
 import com.budgetwise.backend.repository.TransactionRepository; // 1. Import TransactionRepository
 import com.budgetwise.backend.repository.UserRepository;
 import com.budgetwise.backend.service.BudgetService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate; // 2. Import LocalDate
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +27,7 @@ public class BudgetServiceImpl implements BudgetService {
     private final UserRepository userRepository;
     private final BudgetRepository budgetRepository;
     private final TransactionRepository transactionRepository; // 3. Inject TransactionRepository
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new budget for the user.
@@ -41,7 +47,8 @@ public class BudgetServiceImpl implements BudgetService {
         }
 
         Budget savedBudget = budgetRepository.save(budget);
-        return mapToDtoWithSpent(savedBudget); // 4. Return DTO with calculated fields
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getId(), "budget"));
+        return evaluateBudgets(user.getId(), List.of(savedBudget)).get(0); // 4. Return DTO with calculated fields
     }
 
     /**
@@ -49,13 +56,15 @@ public class BudgetServiceImpl implements BudgetService {
      */
     @Override
     public List<BudgetDto> getBudgetsByUser(String userEmail) {
-        User user = findUserByEmail(userEmail); // Changed to findUserByEmail
+        return getBudgetsByUser(findUserByEmail(userEmail)); // Changed to findUserByEmail
+    }
+
+    @Override
+    public List<BudgetDto> getBudgetsByUser(User user) {
         List<Budget> budgets = budgetRepository.findByUserId(user.getId());
         
-        // 5. Map each Budget to a DTO, calculating spent/remaining
-        return budgets.stream()
-                .map(this::mapToDtoWithSpent) // Use the new helper
-                .collect(Collectors.toList());
+        // 5. Map every Budget to a DTO, calculating spent/remaining in one batched query
+        return evaluateBudgets(user.getId(), budgets);
     }
 
     /**
@@ -73,7 +82,8 @@ public class BudgetServiceImpl implements BudgetService {
         budget.setEndDate(budgetDto.getEndDate());
         
         Budget updatedBudget = budgetRepository.save(budget);
-        return mapToDtoWithSpent(updatedBudget); // 6. Return DTO with calculated fields
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getId(), "budget"));
+        return evaluateBudgets(user.getId(), List.of(updatedBudget)).get(0); // 6. Return DTO with calculated fields
     }
 
     /**
@@ -86,6 +96,7 @@ public class BudgetServiceImpl implements BudgetService {
                  .orElseThrow(() -> new RuntimeException("Budget not found or user not authorized"));
         
         budgetRepository.delete(budget);
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getId(), "budget"));
     }
 
     // --- Helper Methods ---
@@ -121,35 +132,37 @@ public class BudgetServiceImpl implements BudgetService {
     }
 
     /**
-     * 7. NEW HELPER METHOD
-     * Maps a Budget entity to a BudgetDto AND calculates the spent/remaining amounts.
-     * This is the method that fixes your problem.
+     * Batched budget evaluation.
+     * Maps every Budget to a BudgetDto AND calculates the spent/remaining amounts.
+     * ONE grouped query sums each budget's category over the budget's own date range,
+     * so the number of SQL statements does not grow with the number of budgets and
+     * no rows are read for the gaps between budget periods.
      */
-    private BudgetDto mapToDtoWithSpent(Budget budget) {
-        // 1. Get the basic DTO
-        BudgetDto dto = mapToDto(budget);
-
-        // 2. Define the date range for the query
-        LocalDate startDate = (budget.getStartDate() != null) ? budget.getStartDate() : LocalDate.now().withDayOfMonth(1);
-        LocalDate endDate = (budget.getEndDate() != null) ? budget.getEndDate() : LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
-
-        // 3. Call the repository to find the sum of transactions
-        //    (This requires the findSpentAmountByCategoryAndDate method in TransactionRepository)
-        double spent = transactionRepository.findSpentAmountByCategoryAndDate(
-                budget.getUser().getId(),
-                budget.getCategory(),
-                startDate,
-                endDate
-        );
-
-        // 4. Set the calculated values on the DTO
-        double planned = dto.getAmount();
-        double remaining = planned - spent;
-        
-        // These fields must exist in your BudgetDto.java
-        dto.setSpent(spent);
-        dto.setRemaining(remaining);
+    private List<BudgetDto> evaluateBudgets(Long userId, List<Budget> budgets) {
+        if (budgets.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        return dto;
+        // 1. Budgets without dates cover the current month
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        LocalDate monthEnd = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
+        List<Long> budgetIds = budgets.stream().map(Budget::getId).collect(Collectors.toList());
+
+        // 2. One query: spent per budget
+        Map<Long, Double> spentByBudget = new HashMap<>();
+        for (Object[] row : transactionRepository.sumExpensesPerBudget(userId, budgetIds, monthStart, monthEnd)) {
+            spentByBudget.put((Long) row[0], ((Number) row[1]).doubleValue());
+        }
+
+        // 3. Fill in the DTOs
+        List<BudgetDto> result = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            BudgetDto dto = mapToDto(budget);
+            double spent = spentByBudget.getOrDefault(budget.getId(), 0.0);
+            dto.setSpent(spent);
+            dto.setRemaining(dto.getAmount() - spent);
+            result.add(dto);
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,237 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.ai.classifier.LocalCategorizer;
+import com.budgetwise.backend.ai.classifier.NaiveBayesCategorizer;
+import com.budgetwise.backend.dto.CategorizedDescriptionDto;
+import com.budgetwise.backend.entity.Budget;
+import com.budgetwise.backend.entity.SavingsGoal;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.exception.BatchTooLargeException;
+import com.budgetwise.backend.repository.BudgetRepository;
+import com.budgetwise.backend.repository.SavingsGoalRepository;
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.service.CategorizationService;
+import com.budgetwise.backend.service.GoogleGeminiService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batch categorization in four steps:
+ *  1. normalize and de-duplicate the descriptions ("NETFLIX #123" and "Netflix 456" are one item),
+ *  2. ask the user's local naive Bayes model (LocalCategorizer) and keep confident answers,
+ *  3. answer what we can from a global, bounded normalized-description -> category cache,
+ *  4. pack the remaining misses into as few numbered Gemini prompts as possible.
+ *
+ * The cache is shared across users; a cached category is only used when it is
+ * part of the requesting user's own category set.
+ */
+@Service
+@Slf4j
+public class CategorizationServiceImpl implements CategorizationService {
+
+    private static final List<String> DEFAULT_CATEGORIES = List.of(
+            "Food", "Rent", "Transport", "Entertainment", "Utilities", "Shopping", "Health", "Salary", "Other");
+
+    private final TransactionRepository transactionRepository;
+    private final BudgetRepository budgetRepository;
+    private final SavingsGoalRepository savingsGoalRepository;
+    private final GoogleGeminiService geminiService;
+    private final LocalCategorizer localCategorizer;
+    private final int promptBatchSize;
+    private final int maxDescriptions;
+    private final int promptConcurrency;
+    private final Map<String, String> cache;
+
+    private final AtomicLong local = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong prompts = new AtomicLong();
+    private final AtomicLong failedPrompts = new AtomicLong();
+
+    public CategorizationServiceImpl(
+            TransactionRepository transactionRepository,
+            BudgetRepository budgetRepository,
+            SavingsGoalRepository savingsGoalRepository,
+            GoogleGeminiService geminiService,
+            LocalCategorizer localCategorizer,
+            @Value("${ai.categorize.prompt-batch-size:50}") int promptBatchSize,
+            @Value("${ai.categorize.max-descriptions:1000}") int maxDescriptions,
+            @Value("${ai.categorize.prompt-concurrency:2}") int promptConcurrency,
+            @Value("${ai.categorize.cache-max-entries:20000}") int cacheMaxEntries) {
+        this.transactionRepository = transactionRepository;
+        this.budgetRepository = budgetRepository;
+        this.savingsGoalRepository = savingsGoalRepository;
+        this.geminiService = geminiService;
+        this.localCategorizer = localCategorizer;
+        this.promptBatchSize = Math.max(1, promptBatchSize);
+        this.maxDescriptions = maxDescriptions;
+        this.promptConcurrency = Math.max(1, promptConcurrency);
+        // Access-ordered LinkedHashMap = LRU; guarded by its own monitor
+        this.cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Mono<List<CategorizedDescriptionDto>> categorize(User user, List<String> descriptions) {
+        if (descriptions == null || descriptions.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        if (descriptions.size() > maxDescriptions) {
+            throw new BatchTooLargeException("At most " + maxDescriptions + " descriptions can be categorized per request");
+        }
+
+        List<String> categories = getCategoriesForUser(user.getId());
+        Map<String, String> allowed = new HashMap<>();
+        for (String category : categories) {
+            allowed.put(category.toLowerCase(Locale.ROOT), category);
+        }
+
+        // 1. Normalize + de-duplicate (keeps first-seen order, and one original text to show Gemini)
+        Map<String, String> uniqueToOriginal = new LinkedHashMap<>();
+        for (String description : descriptions) {
+            String key = normalize(description);
+            if (!key.isEmpty()) {
+                uniqueToOriginal.putIfAbsent(key, description.trim());
+            }
+        }
+
+        // 2. Local model: microseconds, no network
+        Map<String, String> resolved = new HashMap<>();
+        for (Map.Entry<String, String> entry : uniqueToOriginal.entrySet()) {
+            NaiveBayesCategorizer.Prediction prediction = localCategorizer.predict(user.getId(), entry.getValue());
+            if (localCategorizer.isConfident(prediction)) {
+                String category = allowed.get(prediction.category().toLowerCase(Locale.ROOT));
+                if (category != null) {
+                    resolved.put(entry.getKey(), category);
+                }
+            }
+        }
+        int localAnswers = resolved.size();
+        local.addAndGet(localAnswers);
+
+        // 3. Cache lookups
+        List<String> missKeys = new ArrayList<>();
+        synchronized (cache) {
+            for (String key : uniqueToOriginal.keySet()) {
+                if (resolved.containsKey(key)) {
+                    continue;
+                }
+                String cached = cache.get(key);
+                String category = cached == null ? null : allowed.get(cached.toLowerCase(Locale.ROOT));
+                if (category != null) {
+                    resolved.put(key, category);
+                } else {
+                    missKeys.add(key);
+                }
+            }
+        }
+        hits.addAndGet(resolved.size() - localAnswers);
+        misses.addAndGet(missKeys.size());
+
+        // 4. One numbered prompt per chunk of misses
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < missKeys.size(); i += promptBatchSize) {
+            chunks.add(missKeys.subList(i, Math.min(i + promptBatchSize, missKeys.size())));
+        }
+
+        return Flux.fromIterable(chunks)
+                .flatMap(chunk -> categorizeChunk(chunk, uniqueToOriginal, categories), promptConcurrency)
+                .doOnNext(resolved::putAll) // flatMap signals are serialized, so the plain HashMap is safe
+                .then(Mono.fromSupplier(() -> {
+                    List<CategorizedDescriptionDto> result = new ArrayList<>(descriptions.size());
+                    for (String description : descriptions) {
+                        result.add(new CategorizedDescriptionDto(description, resolved.get(normalize(description))));
+                    }
+                    return result;
+                }));
+    }
+
+    @Override
+    public List<String> getCategoriesForUser(Long userId) {
+        Set<String> categories = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (String category : transactionRepository.findDistinctCategoriesByUserId(userId)) {
+            if (!category.isBlank()) {
+                categories.add(category.trim());
+            }
+        }
+        for (Budget budget : budgetRepository.findByUserId(userId)) {
+            if (budget.getCategory() != null && !budget.getCategory().isBlank()) {
+                categories.add(budget.getCategory().trim());
+            }
+        }
+        for (SavingsGoal goal : savingsGoalRepository.findByUserId(userId)) {
+            if (goal.getGoalName() != null && !goal.getGoalName().isBlank()) {
+                categories.add(goal.getGoalName().trim());
+            }
+        }
+        return categories.isEmpty() ? DEFAULT_CATEGORIES : new ArrayList<>(categories);
+    }
+
+    @Override
+    public Map<String, Long> cacheStats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return Map.of("size", (long) size, "local", local.get(), "hits", hits.get(),
+                "misses", misses.get(), "prompts", prompts.get(), "failedPrompts", failedPrompts.get());
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Asks Gemini for one chunk. A chunk that fails (busy, rate-limited, circuit open, timeout)
+     * yields no answers, so its items come back uncategorized while the other chunks still count.
+     */
+    private Mono<Map<String, String>> categorizeChunk(List<String> keys, Map<String, String> originals, List<String> categories) {
+        prompts.incrementAndGet();
+        List<String> texts = keys.stream().map(originals::get).toList();
+        return Mono.defer(() -> geminiService.getCategoriesForTransactions(texts, categories))
+                .map(answers -> {
+                    Map<String, String> chunkResult = new HashMap<>();
+                    synchronized (cache) {
+                        for (int i = 0; i < keys.size(); i++) {
+                            String category = answers.get(i);
+                            if (category != null) {
+                                chunkResult.put(keys.get(i), category);
+                                cache.put(keys.get(i), category);
+                            }
+                        }
+                    }
+                    return chunkResult;
+                })
+                .onErrorResume(e -> {
+                    failedPrompts.incrementAndGet();
+                    log.warn("Categorization prompt for {} descriptions failed: {}", keys.size(), e.toString());
+                    return Mono.just(Map.of());
+                });
+    }
+
+    // Lower-cases and strips digits/punctuation so "NETFLIX #1234" and "Netflix 5678" share one entry
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        return description.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z ]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+}
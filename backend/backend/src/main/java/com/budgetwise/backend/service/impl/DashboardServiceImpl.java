@@ -0,0 +1,175 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.config.SqlStatementCounter;
+import com.budgetwise.backend.dto.BudgetDto;
+import com.budgetwise.backend.dto.CategorySpendingDto;
+import com.budgetwise.backend.dto.DashboardDto;
+import com.budgetwise.backend.dto.SavingsGoalDto;
+import com.budgetwise.backend.dto.TransactionSummaryDto;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.service.BudgetService;
+import com.budgetwise.backend.service.DashboardService;
+import com.budgetwise.backend.service.SavingsGoalService;
+import com.budgetwise.backend.service.TransactionService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    public static final Set<String> ALL_SECTIONS = Set.of("summary", "categories", "budgets", "goals");
+
+    private final TransactionService transactionService;
+    private final BudgetService budgetService;
+    private final SavingsGoalService savingsGoalService;
+    private final ExecutorService queryExecutor;
+    private final Semaphore queryPermits;
+    private final long permitTimeoutMs;
+
+    /**
+     * Every section query needs its own pooled connection, so the permits (shared by all
+     * dashboard requests) must stay below the Hikari pool size. Otherwise a burst of
+     * dashboard loads could take the whole pool and starve every other request.
+     */
+    public DashboardServiceImpl(
+            TransactionService transactionService,
+            BudgetService budgetService,
+            SavingsGoalService savingsGoalService,
+            @Qualifier("queryExecutor") ExecutorService queryExecutor,
+            @Value("${dashboard.max-concurrent-queries:6}") int maxConcurrentQueries,
+            @Value("${dashboard.query-permit-timeout-ms:5000}") long permitTimeoutMs) {
+        this.transactionService = transactionService;
+        this.budgetService = budgetService;
+        this.savingsGoalService = savingsGoalService;
+        this.queryExecutor = queryExecutor;
+        this.queryPermits = new Semaphore(Math.max(1, maxConcurrentQueries));
+        this.permitTimeoutMs = permitTimeoutMs;
+    }
+
+    /**
+     * Loads every requested section concurrently. The user comes from the JWT principal,
+     * so the request thread itself never takes a connection while it waits.
+     */
+    @Override
+    public DashboardDto getDashboard(User user, Set<String> sections) {
+        long started = System.nanoTime();
+        AtomicInteger statements = SqlStatementCounter.start();
+        try {
+            Set<String> wanted = normalize(sections);
+
+            CompletableFuture<TransactionSummaryDto> summary =
+                    load(wanted, "summary", statements, () -> transactionService.getTransactionSummary(user));
+            CompletableFuture<List<CategorySpendingDto>> categories =
+                    load(wanted, "categories", statements, () -> transactionService.getSpendingByCategory(user));
+            CompletableFuture<List<BudgetDto>> budgets =
+                    load(wanted, "budgets", statements, () -> budgetService.getBudgetsByUser(user));
+            CompletableFuture<List<SavingsGoalDto>> goals =
+                    load(wanted, "goals", statements, () -> savingsGoalService.getSavingsGoalsByUser(user));
+            awaitAll(List.of(summary, categories, budgets, goals));
+
+            DashboardDto dto = new DashboardDto();
+            dto.setSummary(summary.join());
+            dto.setSpendingByCategory(categories.join());
+            dto.setBudgets(budgets.join());
+            dto.setGoals(goals.join());
+            dto.setSqlStatements(statements.get());
+            dto.setElapsedMs((System.nanoTime() - started) / 1_000_000);
+            return dto;
+        } finally {
+            SqlStatementCounter.stop();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private Set<String> normalize(Set<String> sections) {
+        if (sections == null || sections.isEmpty()) {
+            return ALL_SECTIONS;
+        }
+        Set<String> wanted = sections.stream()
+                .map(s -> s.trim().toLowerCase(Locale.ROOT))
+                .filter(ALL_SECTIONS::contains)
+                .collect(Collectors.toSet());
+        return wanted.isEmpty() ? ALL_SECTIONS : wanted;
+    }
+
+    /**
+     * Submits one section query. Cancelling the returned future interrupts the worker,
+     * whether it is still waiting for a permit or already running its query.
+     */
+    private <T> CompletableFuture<T> load(Set<String> wanted, String section, AtomicInteger statements, Supplier<T> task) {
+        if (!wanted.contains(section)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Supplier<T> counted = SqlStatementCounter.counted(statements, task);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> worker = queryExecutor.submit(() -> {
+            try {
+                result.complete(withPermit(counted));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                worker.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <T> T withPermit(Supplier<T> task) throws InterruptedException {
+        if (!queryPermits.tryAcquire(permitTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new ServiceBusyException("Dashboard is busy, please try again shortly.");
+        }
+        try {
+            return task.get();
+        } finally {
+            queryPermits.release();
+        }
+    }
+
+    /**
+     * Waits for all sections. The first failure cancels the others, so their
+     * connections and permits are freed right away, and is then rethrown.
+     */
+    private void awaitAll(List<CompletableFuture<?>> futures) {
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null && !(error instanceof CancellationException) && firstFailure.compareAndSet(null, error)) {
+                    futures.forEach(other -> other.cancel(true));
+                }
+            });
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = firstFailure.get() != null ? firstFailure.get() : e;
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.dto.ExportJobDto;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.exception.ExportJobNotFoundException;
+import com.budgetwise.backend.exception.ExportJobNotReadyException;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.exception.TooManyRequestsException;
+import com.budgetwise.backend.service.ExportJobService;
+import com.budgetwise.backend.service.ExportService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Renders exports on a bounded worker pool into a local spool directory,
+ * so no Tomcat thread waits while a large report is generated. Each user may have
+ * at most max-active-per-user jobs queued or running, so one user cannot fill the pool.
+ *
+ * Expired artifacts are deleted in two steps: the job is forgotten first (no new
+ * downloads can start), and the file is removed after a grace period, once no
+ * download holds it open. The grace period also covers Tomcat's sendfile, which
+ * reads the file after the request method has already returned.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportJobServiceImpl implements ExportJobService {
+
+    public enum Status { QUEUED, RUNNING, READY, FAILED }
+
+    // Only files named like this are ever created (or cleaned up) in the spool directory
+    private static final Pattern ARTIFACT_NAME =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.(part|csv|pdf)");
+
+    private final ExportService exportService;
+    @Qualifier("exportExecutor") // Copied onto the constructor parameter (lombok.config)
+    private final ExecutorService exportExecutor;
+    private final UserDataVersionTracker versionTracker;
+
+    @Value("${export.spool.dir:${java.io.tmpdir}/budgetwise-exports}")
+    private String spoolDirPath;
+
+    @Value("${export.jobs.ttl-minutes:15}")
+    private long ttlMinutes;
+
+    @Value("${export.jobs.delete-grace-minutes:5}")
+    private long deleteGraceMinutes;
+
+    @Value("${export.jobs.max-active-per-user:3}")
+    private int maxActivePerUser;
+
+    private Path spoolDir;
+
+    private final Map<String, ExportJob> jobsById = new ConcurrentHashMap<>();
+    private final Map<String, ExportJob> jobsByKey = new ConcurrentHashMap<>();
+    // Expired jobs whose artifact is waiting to be deleted
+    private final Map<String, ExportJob> retiring = new ConcurrentHashMap<>();
+    // Queued or running jobs per user email; entries are removed at zero
+    private final Map<String, Integer> activeJobsByUser = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void initSpoolDir() throws IOException {
+        spoolDir = Paths.get(spoolDirPath).toAbsolutePath();
+        Files.createDirectories(spoolDir);
+        // Jobs live in memory only, so artifacts left over from a previous run are orphaned.
+        // Anything else in the directory is not ours and is left alone.
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolDir,
+                file -> ARTIFACT_NAME.matcher(file.getFileName().toString()).matches())) {
+            for (Path file : leftovers) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public ExportJobDto submit(User user, String format, LocalDate startDate, LocalDate endDate) {
+        String userEmail = user.getEmail();
+        String fmt = format.toLowerCase(Locale.ROOT);
+        // The data version makes any transaction write start a fresh job instead of reusing an outdated one
+        String key = userEmail + "|" + fmt + "|" + startDate + "|" + endDate + "|" + versionTracker.current(user.getId());
+
+        // Deduplicate: reuse a live job for the same (user, range, format, data version)
+        ExportJob job = jobsByKey.compute(key, (k, existing) -> {
+            if (existing != null && existing.status != Status.FAILED) {
+                return existing;
+            }
+            if (!reserveUserSlot(userEmail)) {
+                throw new TooManyRequestsException(
+                        "You already have " + maxActivePerUser + " exports in progress, please wait for one to finish.");
+            }
+            ExportJob created = new ExportJob(UUID.randomUUID().toString(), k, userEmail, fmt, startDate, endDate);
+            jobsById.put(created.id, created);
+            return created;
+        });
+
+        if (job.status == Status.QUEUED && job.submitted.compareAndSet(false, true)) {
+            try {
+                exportExecutor.execute(() -> render(job));
+            } catch (RejectedExecutionException e) {
+                // Callers that already deduplicated onto this job must see it fail, not wait on it forever
+                String message = "Export queue is full, please try again shortly.";
+                markFailed(job, message);
+                releaseUserSlot(job.userEmail);
+                throw new ServiceBusyException(message);
+            }
+        }
+        return toDto(job);
+    }
+
+    @Override
+    public ExportJobDto getStatus(String userEmail, String jobId) {
+        return toDto(findOwnedJob(userEmail, jobId));
+    }
+
+    @Override
+    public Download openDownload(String userEmail, String jobId) {
+        ExportJob job = findOwnedJob(userEmail, jobId);
+        if (job.status != Status.READY) {
+            throw new ExportJobNotReadyException("Export job " + jobId + " is " + job.status);
+        }
+        job.openDownloads.incrementAndGet();
+        return new JobDownload(job);
+    }
+
+    /**
+     * Forgets finished jobs once they are older than the TTL, and deletes their
+     * artifacts after the grace period when no download has them open any more.
+     */
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval-ms:60000}")
+    public void expireOldJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(Duration.ofMinutes(ttlMinutes));
+        for (ExportJob job : jobsById.values()) {
+            boolean finished = job.status == Status.READY || job.status == Status.FAILED;
+            if (finished && job.completedAt != null && job.completedAt.isBefore(cutoff)) {
+                forget(job);
+                if (job.artifact != null) {
+                    job.deleteAfter = now.plus(Duration.ofMinutes(deleteGraceMinutes));
+                    retiring.put(job.id, job);
+                }
+            }
+        }
+
+        for (ExportJob job : retiring.values()) {
+            if (job.deleteAfter.isBefore(now) && job.openDownloads.get() == 0) {
+                try {
+                    Files.deleteIfExists(job.artifact);
+                    retiring.remove(job.id);
+                } catch (IOException e) {
+                    log.warn("Could not delete expired export {}: {}", job.artifact, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void render(ExportJob job) {
+        try {
+            renderArtifact(job);
+        } finally {
+            releaseUserSlot(job.userEmail);
+        }
+    }
+
+    private void renderArtifact(ExportJob job) {
+        job.status = Status.RUNNING;
+        Path partial = spoolDir.resolve(job.id + ".part");
+        Path target = spoolDir.resolve(job.id + "." + job.format);
+        try {
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                if ("pdf".equals(job.format)) {
+                    exportService.exportTransactionsToPdf(job.userEmail, job.startDate, job.endDate, out);
+                } else {
+                    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                    exportService.exportTransactionsToCsv(job.userEmail, job.startDate, job.endDate, writer);
+                }
+            }
+            // Only a complete file ever appears under the final name
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.artifact = target;
+            job.sizeBytes = Files.size(target);
+            job.completedAt = LocalDateTime.now();
+            job.status = Status.READY;
+        } catch (IOException | RuntimeException e) {
+            log.error("Export job {} failed: {}", job.id, e.getMessage());
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // Nothing else to clean up
+            }
+            markFailed(job, e.getMessage());
+        }
+    }
+
+    private static void markFailed(ExportJob job, String error) {
+        job.error = error;
+        job.completedAt = LocalDateTime.now();
+        job.status = Status.FAILED;
+    }
+
+    // Counts a new job against the user's limit; false if the user is already at it
+    private boolean reserveUserSlot(String userEmail) {
+        boolean[] reserved = new boolean[1];
+        activeJobsByUser.compute(userEmail, (user, active) -> {
+            int count = active == null ? 0 : active;
+            if (count >= maxActivePerUser) {
+                return active;
+            }
+            reserved[0] = true;
+            return count + 1;
+        });
+        return reserved[0];
+    }
+
+    private void releaseUserSlot(String userEmail) {
+        activeJobsByUser.computeIfPresent(userEmail, (user, active) -> active <= 1 ? null : active - 1);
+    }
+
+    private ExportJob findOwnedJob(String userEmail, String jobId) {
+        ExportJob job = jobsById.get(jobId);
+        if (job == null || !job.userEmail.equals(userEmail)) {
+            throw new ExportJobNotFoundException("Export job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void forget(ExportJob job) {
+        jobsById.remove(job.id);
+        jobsByKey.remove(job.key, job);
+    }
+
+    private ExportJobDto toDto(ExportJob job) {
+        ExportJobDto dto = new ExportJobDto();
+        dto.setId(job.id);
+        dto.setFormat(job.format);
+        dto.setStartDate(job.startDate);
+        dto.setEndDate(job.endDate);
+        dto.setStatus(job.status.name());
+        dto.setCreatedAt(job.createdAt);
+        dto.setCompletedAt(job.completedAt);
+        dto.setSizeBytes(job.sizeBytes);
+        dto.setError(job.error);
+        if (job.status == Status.READY) {
+            dto.setDownloadUrl("/api/export/jobs/" + job.id + "/download");
+        }
+        return dto;
+    }
+
+    /**
+     * Releases its reservation on the artifact exactly once.
+     */
+    private static final class JobDownload implements Download {
+        private final ExportJob job;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        JobDownload(ExportJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public Path path() {
+            return job.artifact;
+        }
+
+        @Override
+        public String format() {
+            return job.format;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                job.openDownloads.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * In-memory job record. Fields are written by the worker thread and read by request threads.
+     */
+    private static final class ExportJob {
+        final String id;
+        final String key;
+        final String userEmail;
+        final String format;
+        final LocalDate startDate;
+        final LocalDate endDate;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final AtomicBoolean submitted = new AtomicBoolean();
+        final AtomicInteger openDownloads = new AtomicInteger();
+
+        volatile Status status = Status.QUEUED;
+        volatile Path artifact;
+        volatile Long sizeBytes;
+        volatile LocalDateTime completedAt;
+        volatile String error;
+        volatile LocalDateTime deleteAfter;
+
+        ExportJob(String id, String key, String userEmail, String format, LocalDate startDate, LocalDate endDate) {
+            this.id = id;
+            this.key = key;
+            this.userEmail = userEmail;
+            this.format = format;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+    }
+}
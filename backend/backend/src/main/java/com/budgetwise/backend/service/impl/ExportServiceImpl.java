@@ -1,7 +1,7 @@
 package com.budgetwise.backend.service.impl;
 
 // We no longer need TransactionService, so we can remove it
-import com.budgetwise.backend.entity.Transaction;
+import com.budgetwise.backend.dto.TransactionExportRow;
 import com.budgetwise.backend.entity.User;
 import com.budgetwise.backend.repository.TransactionRepository;
 import com.budgetwise.backend.repository.UserRepository;
@@ -10,13 +10,19 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 // --- iText PDF Imports ---
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
@@ -26,10 +32,12 @@ import com.itextpdf.kernel.colors.ColorConstants;
 // --- End iText Imports ---
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -39,14 +47,23 @@ public class ExportServiceImpl implements ExportService {
     private final TransactionRepository transactionRepository;
     // We REMOVED the TransactionService to fix the bug
 
+    // Push rows to the client every N records so memory and latency stay flat
+    private static final int CSV_FLUSH_EVERY = 500;
+    private static final int PDF_FLUSH_EVERY = 200;
+
+    @Value("${export.pdf.large-table-threshold:2000}")
+    private long largeTableThreshold;
+
+    /**
+     * Streams the CSV: each row is read from the database cursor and written straight
+     * to the CSVPrinter, so heap use does not depend on how many rows are exported.
+     * The read-only transaction keeps the cursor open for the whole export.
+     */
     @Override
+    @Transactional(readOnly = true)
     public void exportTransactionsToCsv(String userEmail, LocalDate startDate, LocalDate endDate, Writer writer) throws IOException {
         User user = findUserByEmail(userEmail);
 
-        List<Transaction> transactions = transactionRepository.findByUserIdAndDateBetweenOrderByDateDesc(
-                user.getId(), startDate, endDate
-        );
-
         String[] headers = {"Date", "Type", "Category", "Description", "Amount"};
 
         // --- THIS IS THE FIX ---
@@ -55,10 +72,14 @@ public class ExportServiceImpl implements ExportService {
                 .setHeader(headers)
                 .build();
         
-        try (CSVPrinter csvPrinter = new CSVPrinter(writer, csvFormat)) {
+        try (CSVPrinter csvPrinter = new CSVPrinter(writer, csvFormat);
+             Stream<TransactionExportRow> rows = transactionRepository.streamExportRows(user.getId(), startDate, endDate)) {
         // --- END FIX ---
 
-            for (Transaction tx : transactions) {
+            int written = 0;
+            Iterator<TransactionExportRow> it = rows.iterator();
+            while (it.hasNext()) {
+                TransactionExportRow tx = it.next();
                 csvPrinter.printRecord(
                     tx.getDate(),
                     tx.getType(),
@@ -66,49 +87,78 @@ public class ExportServiceImpl implements ExportService {
                     tx.getDescription(),
                     tx.getAmount()
                 );
+                if (++written % CSV_FLUSH_EVERY == 0) {
+                    csvPrinter.flush();
+                }
             }
+            csvPrinter.flush();
         }
     }
 
     // ---
     // --- THIS IS THE FIXED PDF EXPORT METHOD ---
     // ---
+    /**
+     * Builds the PDF report. Totals come from one SQL aggregate, and the rows are
+     * streamed from the database cursor. Reports with more rows than
+     * export.pdf.large-table-threshold use iText's large-table mode: the table is
+     * added to the document up front and flushed every PDF_FLUSH_EVERY rows, so
+     * finished rows are written out and released instead of kept in one big object graph.
+     */
     @Override
+    @Transactional(readOnly = true)
     public void exportTransactionsToPdf(String userEmail, LocalDate startDate, LocalDate endDate, HttpServletResponse response) throws IOException {
-        User user = findUserByEmail(userEmail);
+        exportTransactionsToPdf(userEmail, startDate, endDate, response.getOutputStream());
+    }
 
-        // 1. Fetch the transactions *only for the selected date range*
-        List<Transaction> transactions = transactionRepository.findByUserIdAndDateBetweenOrderByDateDesc(
-                user.getId(), startDate, endDate
-        );
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactionsToPdf(String userEmail, LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+        User user = findUserByEmail(userEmail);
 
-        // 2. --- THIS IS THE FIX ---
-        //    Calculate totals *manually* from the list we just fetched.
+        // 1. Totals for the selected date range, computed by the database
         double totalIncome = 0.0;
         double totalExpenses = 0.0;
         double totalSavings = 0.0;
 
-        for (Transaction tx : transactions) {
-            switch (tx.getType()) {
+        for (Object[] row : transactionRepository.sumByTypeBetween(user.getId(), startDate, endDate)) {
+            String type = (String) row[0];
+            if (type == null) {
+                continue;
+            }
+            double sum = ((Number) row[1]).doubleValue();
+            switch (type) {
                 case "INCOME":
-                    totalIncome += tx.getAmount();
+                    totalIncome += sum;
                     break;
                 case "EXPENSE":
-                    totalExpenses += tx.getAmount();
+                    totalExpenses += sum;
                     break;
                 case "SAVINGS":
-                    totalSavings += tx.getAmount();
+                    totalSavings += sum;
                     break;
             }
         }
         // Use the correct formula: (Income - Expenses) - Savings
         double availableBalance = totalIncome - totalExpenses - totalSavings;
 
-        // 3. Initialize the PDF document
-        PdfWriter pdfWriter = new PdfWriter(response.getOutputStream());
+        boolean largeReport = transactionRepository.countByUserIdAndDateBetween(user.getId(), startDate, endDate)
+                > largeTableThreshold;
+
+        // 2. Initialize the PDF document
+        PdfWriter pdfWriter = new PdfWriter(out);
         PdfDocument pdfDocument = new PdfDocument(pdfWriter);
         Document document = new Document(pdfDocument);
 
+        // 3. Fonts and styles are created once and shared by every cell
+        PdfFont regularFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        PdfFont boldFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        document.setFont(regularFont);
+        Style headerStyle = new Style().setFont(boldFont);
+        Style incomeStyle = new Style().setFontColor(ColorConstants.GREEN);
+        Style expenseStyle = new Style().setFontColor(ColorConstants.RED);
+        Style withdrawalStyle = new Style().setFontColor(ColorConstants.ORANGE);
+
         // 4. Define a date formatter
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM d, yyyy");
 
@@ -124,11 +174,10 @@ public class ExportServiceImpl implements ExportService {
         
         document.add(new Paragraph("\n")); // Add a space
 
-        // 6. --- Add High-Level Summary (using our new correct totals) ---
+        // 6. --- Add High-Level Summary ---
         document.add(new Paragraph("Financial Summary for Selected Period")
                 .setBold().setFontSize(16));
         
-        // Use the new, correct variables
         document.add(new Paragraph("Total Income: ₹" + String.format("%.2f", totalIncome)));
         document.add(new Paragraph("Total Expenses: ₹" + String.format("%.2f", totalExpenses)));
         document.add(new Paragraph("Total Saved: ₹" + String.format("%.2f", totalSavings)));
@@ -146,43 +195,65 @@ public class ExportServiceImpl implements ExportService {
         
         document.add(new Paragraph("\n"));
 
-        // 7. --- Add Detailed Transaction Table (this was already correct) ---
+        // 7. --- Add Detailed Transaction Table ---
         document.add(new Paragraph("Detailed Transactions")
                 .setBold().setFontSize(16));
         
-        Table table = new Table(UnitValue.createPercentArray(new float[]{3, 2, 3, 5, 3}));
+        Table table = new Table(UnitValue.createPercentArray(new float[]{3, 2, 3, 5, 3}), largeReport);
         table.setWidth(UnitValue.createPercentValue(100));
 
         // Add Table Headers
-        table.addHeaderCell(new Cell().add(new Paragraph("Date").setBold()));
-        table.addHeaderCell(new Cell().add(new Paragraph("Type").setBold()));
-        table.addHeaderCell(new Cell().add(new Paragraph("Category").setBold()));
-        table.addHeaderCell(new Cell().add(new Paragraph("Description").setBold()));
-        table.addHeaderCell(new Cell().add(new Paragraph("Amount (₹)").setBold()));
-
-        // Add Table Rows
-        for (Transaction tx : transactions) {
-            table.addCell(new Cell().add(new Paragraph(tx.getDate().toString())));
-            table.addCell(new Cell().add(new Paragraph(tx.getType())));
-            table.addCell(new Cell().add(new Paragraph(tx.getCategory())));
-            table.addCell(new Cell().add(new Paragraph(tx.getDescription())));
-            
-            Cell amountCell = new Cell().add(new Paragraph(String.format("%.2f", tx.getAmount())));
-            if ("INCOME".equals(tx.getType())) {
-                amountCell.setFontColor(ColorConstants.GREEN);
-            } else if ("EXPENSE".equals(tx.getType())) {
-                amountCell.setFontColor(ColorConstants.RED);
-            } else if (tx.getAmount() < 0) { // Handle savings withdrawal
-                amountCell.setFontColor(ColorConstants.ORANGE);
+        table.addHeaderCell(new Cell().add(new Paragraph("Date").addStyle(headerStyle)));
+        table.addHeaderCell(new Cell().add(new Paragraph("Type").addStyle(headerStyle)));
+        table.addHeaderCell(new Cell().add(new Paragraph("Category").addStyle(headerStyle)));
+        table.addHeaderCell(new Cell().add(new Paragraph("Description").addStyle(headerStyle)));
+        table.addHeaderCell(new Cell().add(new Paragraph("Amount (₹)").addStyle(headerStyle)));
+
+        // A large table must be added to the document before its rows, so it can be flushed
+        if (largeReport) {
+            document.add(table);
+        }
+
+        // Add Table Rows straight from the database cursor
+        try (Stream<TransactionExportRow> rows = transactionRepository.streamExportRows(user.getId(), startDate, endDate)) {
+            int written = 0;
+            Iterator<TransactionExportRow> it = rows.iterator();
+            while (it.hasNext()) {
+                TransactionExportRow tx = it.next();
+                table.addCell(new Cell().add(new Paragraph(String.valueOf(tx.getDate()))));
+                table.addCell(new Cell().add(new Paragraph(nullToEmpty(tx.getType()))));
+                table.addCell(new Cell().add(new Paragraph(nullToEmpty(tx.getCategory()))));
+                table.addCell(new Cell().add(new Paragraph(nullToEmpty(tx.getDescription()))));
+
+                Cell amountCell = new Cell().add(new Paragraph(String.format("%.2f", tx.getAmount())));
+                if ("INCOME".equals(tx.getType())) {
+                    amountCell.addStyle(incomeStyle);
+                } else if ("EXPENSE".equals(tx.getType())) {
+                    amountCell.addStyle(expenseStyle);
+                } else if (tx.getAmount() < 0) { // Handle savings withdrawal
+                    amountCell.addStyle(withdrawalStyle);
+                }
+                table.addCell(amountCell);
+
+                if (largeReport && ++written % PDF_FLUSH_EVERY == 0) {
+                    table.flush();
+                }
             }
-            table.addCell(amountCell);
         }
 
-        document.add(table);
+        if (largeReport) {
+            table.complete();
+        } else {
+            document.add(table);
+        }
         
         // 8. Close the document
         document.close();
     }
+
+    private String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
     
     private User findUserByEmail(String email) {
         return userRepository.findByEmail(email)
@@ -0,0 +1,407 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.ai.dto.CategoryForecastDto;
+import com.budgetwise.backend.ai.dto.ExpenseForecastDto;
+import com.budgetwise.backend.ai.dto.ForecastPointDto;
+import com.budgetwise.backend.ai.forecast.ExpenseForecaster;
+import com.budgetwise.backend.dto.UserForecastDto;
+import com.budgetwise.backend.entity.ForecastJobCheckpoint;
+import com.budgetwise.backend.entity.UserForecast;
+import com.budgetwise.backend.repository.ForecastJobCheckpointRepository;
+import com.budgetwise.backend.repository.UserForecastRepository;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
+import com.budgetwise.backend.repository.UserRepository;
+import com.budgetwise.backend.service.ForecastBatchService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly job that forecasts expenses for every user and stores the results in
+ * user_forecasts, for admin reports and notifications.
+ *
+ * - Users are walked in id order, chunk-size at a time (keyset, no OFFSET). One
+ *   query loads the monthly rollup rows of the whole chunk.
+ * - Each user is fitted (ExpenseForecaster) on the bounded forecastBatchExecutor;
+ *   the database is only touched from the job thread.
+ * - A chunk's old rows are deleted and its new rows inserted with one JDBC batch,
+ *   in the same transaction that advances the checkpoint. A run interrupted by a
+ *   crash or deploy resumes after the last committed chunk on the next start.
+ * - Only users that got a new forecast have their rows replaced. A user whose fit
+ *   failed, or who has no expense history, keeps the previous rows and is counted
+ *   in failedUsers.
+ * - Throttling: the job waits while the connection pool looks busy with request
+ *   traffic, caps its rate at max-users-per-second, and pauses between chunks.
+ */
+@Service
+@Slf4j
+public class ForecastBatchServiceImpl implements ForecastBatchService {
+
+    private static final String JOB_NAME = "nightly-forecast";
+
+    private static final String DELETE_SQL = "DELETE FROM user_forecasts WHERE user_id IN (%s)";
+    private static final String INSERT_SQL = "INSERT INTO user_forecasts "
+            + "(user_id, category, month_start, predicted_amount, lower_amount, upper_amount, model, generated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String CHECKPOINT_SQL = "UPDATE forecast_job_checkpoints "
+            + "SET last_user_id = ?, users_processed = ?, updated_at = ? WHERE job_name = ?";
+
+    private final UserRepository userRepository;
+    private final UserMonthCategoryRollupRepository rollupRepository;
+    private final UserForecastRepository userForecastRepository;
+    private final ForecastJobCheckpointRepository checkpointRepository;
+    private final ExpenseForecaster expenseForecaster;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+    private final ExecutorService forecastBatchExecutor;
+
+    private final int chunkSize;
+    private final int horizonMonths;
+    private final double maxUsersPerSecond;
+    private final long chunkPauseMillis;
+    private final double busyPoolFraction;
+    private final long maxThrottleMillis;
+    private final long resumeWithinHours;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runUsers = new AtomicLong();
+    private final AtomicLong failedUsers = new AtomicLong();
+    private final AtomicLong throttledMillis = new AtomicLong();
+    private volatile long cursor;
+    private volatile long runStartedNanos;
+    private volatile long lastRunUsers;
+    private volatile long lastRunMillis;
+
+    public ForecastBatchServiceImpl(
+            UserRepository userRepository,
+            UserMonthCategoryRollupRepository rollupRepository,
+            UserForecastRepository userForecastRepository,
+            ForecastJobCheckpointRepository checkpointRepository,
+            ExpenseForecaster expenseForecaster,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            DataSource dataSource,
+            @Qualifier("forecastBatchExecutor") ExecutorService forecastBatchExecutor,
+            @Value("${forecast.batch.chunk-size:200}") int chunkSize,
+            @Value("${forecast.batch.horizon-months:3}") int horizonMonths,
+            @Value("${forecast.batch.max-users-per-second:100}") double maxUsersPerSecond,
+            @Value("${forecast.batch.chunk-pause-ms:200}") long chunkPauseMillis,
+            @Value("${forecast.batch.busy-pool-fraction:0.5}") double busyPoolFraction,
+            @Value("${forecast.batch.max-throttle-ms:60000}") long maxThrottleMillis,
+            @Value("${forecast.batch.resume-within-hours:20}") long resumeWithinHours) {
+        this.userRepository = userRepository;
+        this.rollupRepository = rollupRepository;
+        this.userForecastRepository = userForecastRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.expenseForecaster = expenseForecaster;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dataSource = dataSource;
+        this.forecastBatchExecutor = forecastBatchExecutor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.horizonMonths = horizonMonths;
+        this.maxUsersPerSecond = maxUsersPerSecond;
+        this.chunkPauseMillis = chunkPauseMillis;
+        this.busyPoolFraction = busyPoolFraction;
+        this.maxThrottleMillis = maxThrottleMillis;
+        this.resumeWithinHours = resumeWithinHours;
+    }
+
+    @Scheduled(cron = "${forecast.batch.cron:0 0 4 * * *}")
+    public void runNightly() {
+        if (!start()) {
+            log.warn("Nightly forecast skipped: a run is still in progress");
+        }
+    }
+
+    /**
+     * Picks up a run that was interrupted by a shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        checkpointRepository.findById(JOB_NAME)
+                .filter(this::isResumable)
+                .ifPresent(checkpoint -> {
+                    log.info("Resuming forecast run after user {}", checkpoint.getLastUserId());
+                    start();
+                });
+    }
+
+    @Override
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        // Own thread: the run takes minutes and must not hold up the scheduler's other jobs
+        Thread.ofPlatform().name("forecast-batch").daemon(true).start(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                log.error("Forecast run failed after user {}", cursor, e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long users = runUsers.get();
+        stats.put("running", running.get());
+        stats.put("cursor", cursor);
+        stats.put("usersProcessed", users);
+        stats.put("usersPerSecond", running.get() ? perSecond(users, (System.nanoTime() - runStartedNanos) / 1_000_000) : 0.0);
+        stats.put("failedUsers", failedUsers.get());
+        stats.put("throttledMillis", throttledMillis.get());
+        stats.put("lastRunUsers", lastRunUsers);
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("lastRunUsersPerSecond", perSecond(lastRunUsers, lastRunMillis));
+        checkpointRepository.findById(JOB_NAME).ifPresent(checkpoint -> {
+            stats.put("checkpointStatus", checkpoint.getStatus().name());
+            stats.put("checkpointStartedAt", checkpoint.getStartedAt().toString());
+        });
+        return stats;
+    }
+
+    @Override
+    public List<UserForecastDto> getStoredForecasts(Long userId) {
+        return userForecastRepository.findByUserIdOrderByMonthStartAscCategoryAsc(userId)
+                .stream().map(this::mapToDto).collect(Collectors.toList());
+    }
+
+    // --- Helper Methods ---
+
+    private UserForecastDto mapToDto(UserForecast forecast) {
+        return UserForecastDto.builder()
+                .category(forecast.getCategory())
+                .monthStart(forecast.getMonthStart())
+                .predictedAmount(forecast.getPredictedAmount())
+                .lowerAmount(forecast.getLowerAmount())
+                .upperAmount(forecast.getUpperAmount())
+                .model(forecast.getModel())
+                .generatedAt(forecast.getGeneratedAt())
+                .build();
+    }
+
+    private void run() {
+        ForecastJobCheckpoint checkpoint = openCheckpoint();
+        cursor = checkpoint.getLastUserId();
+        long processed = checkpoint.getUsersProcessed();
+        runUsers.set(0);
+        failedUsers.set(0);
+        throttledMillis.set(0);
+        runStartedNanos = System.nanoTime();
+        log.info("Forecast run started after user {}", cursor);
+
+        while (true) {
+            waitForQuietDatabase();
+            long chunkStarted = System.nanoTime();
+
+            List<Long> userIds = userRepository.findIdsAfter(cursor, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            Map<Long, List<Object[]>> rowsByUser = fitChunk(userIds);
+            failedUsers.addAndGet(userIds.size() - rowsByUser.size());
+
+            long lastId = userIds.get(userIds.size() - 1);
+            long processedAfter = processed + userIds.size();
+            writeChunk(rowsByUser, lastId, processedAfter);
+
+            cursor = lastId;
+            processed = processedAfter;
+            runUsers.addAndGet(userIds.size());
+            pace(userIds.size(), chunkStarted);
+        }
+
+        checkpoint.setStatus(ForecastJobCheckpoint.Status.COMPLETED);
+        checkpoint.setLastUserId(cursor);
+        checkpoint.setUsersProcessed(processed);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+
+        lastRunUsers = runUsers.get();
+        lastRunMillis = (System.nanoTime() - runStartedNanos) / 1_000_000;
+        log.info("Forecast run finished: {} users in {} ms ({} users/s), {} failed",
+                lastRunUsers, lastRunMillis, String.format("%.1f", perSecond(lastRunUsers, lastRunMillis)),
+                failedUsers.get());
+    }
+
+    /**
+     * Resumes the stored run if it was interrupted recently; otherwise starts a new one from the first user.
+     */
+    private ForecastJobCheckpoint openCheckpoint() {
+        ForecastJobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElseGet(() -> {
+            ForecastJobCheckpoint created = new ForecastJobCheckpoint();
+            created.setJobName(JOB_NAME);
+            return created;
+        });
+        if (!isResumable(checkpoint)) {
+            checkpoint.setStatus(ForecastJobCheckpoint.Status.RUNNING);
+            checkpoint.setLastUserId(0);
+            checkpoint.setUsersProcessed(0);
+            checkpoint.setStartedAt(LocalDateTime.now());
+        }
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private boolean isResumable(ForecastJobCheckpoint checkpoint) {
+        return checkpoint.getStatus() == ForecastJobCheckpoint.Status.RUNNING
+                && checkpoint.getStartedAt() != null
+                && checkpoint.getStartedAt().isAfter(LocalDateTime.now().minusHours(resumeWithinHours));
+    }
+
+    /**
+     * Loads the chunk's monthly totals with one query and fits every user in parallel.
+     * Returns the insert parameters by user; users without history or whose fit failed are absent.
+     */
+    private Map<Long, List<Object[]>> fitChunk(List<Long> userIds) {
+        YearMonth current = YearMonth.now();
+        Map<Long, List<Object[]>> totalsByUser = new HashMap<>();
+        for (Object[] row : rollupRepository.findExpenseSeriesForUsers(
+                userIds, expenseForecaster.historyStart(), current.atDay(1))) {
+            // [userId, monthStart, category, total] -> [monthStart, category, total]
+            totalsByUser.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new Object[]{row[1], row[2], row[3]});
+        }
+
+        Timestamp generatedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Future<List<Object[]>>> futures = new ArrayList<>(totalsByUser.size());
+        List<Long> fitted = new ArrayList<>(totalsByUser.size());
+        totalsByUser.forEach((userId, totals) -> {
+            fitted.add(userId);
+            futures.add(forecastBatchExecutor.submit(() -> toRows(userId,
+                    expenseForecaster.forecastFromMonthlyTotals(totals, horizonMonths), current, generatedAt)));
+        });
+
+        Map<Long, List<Object[]>> rowsByUser = new LinkedHashMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                rowsByUser.put(fitted.get(i), futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Forecast run interrupted", e);
+            } catch (ExecutionException e) {
+                log.warn("Forecast failed for user {}: {}", fitted.get(i), e.getCause().toString());
+            }
+        }
+        return rowsByUser;
+    }
+
+    private static List<Object[]> toRows(Long userId, ExpenseForecastDto forecast, YearMonth current, Timestamp generatedAt) {
+        List<Object[]> rows = new ArrayList<>();
+        addRows(rows, userId, UserForecast.TOTAL, "", forecast.getForecast(), current, generatedAt);
+        for (CategoryForecastDto category : forecast.getCategories()) {
+            addRows(rows, userId, category.getCategory(), category.getModel(), category.getForecast(), current, generatedAt);
+        }
+        return rows;
+    }
+
+    private static void addRows(List<Object[]> rows, Long userId, String category, String model,
+                                List<ForecastPointDto> points, YearMonth current, Timestamp generatedAt) {
+        for (int step = 0; step < points.size(); step++) {
+            ForecastPointDto point = points.get(step);
+            rows.add(new Object[]{
+                    userId, category, Date.valueOf(current.plusMonths(step).atDay(1)),
+                    point.getValue(), point.getLower(), point.getUpper(), model, generatedAt});
+        }
+    }
+
+    /**
+     * Replaces the forecast rows of the users that were fitted and advances the checkpoint
+     * in one transaction, so a restart never skips or half-writes a chunk.
+     */
+    private void writeChunk(Map<Long, List<Object[]>> rowsByUser, long lastId, long processed) {
+        List<Object[]> rows = new ArrayList<>();
+        rowsByUser.values().forEach(rows::addAll);
+        String placeholders = String.join(",", Collections.nCopies(rowsByUser.size(), "?"));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!rowsByUser.isEmpty()) {
+                jdbcTemplate.update(String.format(DELETE_SQL, placeholders), rowsByUser.keySet().toArray());
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            }
+            jdbcTemplate.update(CHECKPOINT_SQL, lastId, processed, Timestamp.valueOf(LocalDateTime.now()), JOB_NAME);
+        });
+    }
+
+    /**
+     * Backs off while request traffic is using the connection pool: requests waiting
+     * for a connection, or more than busy-pool-fraction of the pool in use.
+     * Gives up waiting after max-throttle-ms so the job still finishes on a busy day.
+     */
+    private void waitForQuietDatabase() {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        long waited = 0;
+        long backoff = 100;
+        while (waited < maxThrottleMillis
+                && (pool.getThreadsAwaitingConnection() > 0
+                    || pool.getActiveConnections() >= hikari.getMaximumPoolSize() * busyPoolFraction)) {
+            sleep(backoff);
+            waited += backoff;
+            backoff = Math.min(backoff * 2, 5_000);
+        }
+        throttledMillis.addAndGet(waited);
+    }
+
+    // Keeps the run at or below max-users-per-second, plus a fixed pause between chunks
+    private void pace(int users, long chunkStartedNanos) {
+        long elapsedMillis = (System.nanoTime() - chunkStartedNanos) / 1_000_000;
+        long minimumMillis = maxUsersPerSecond > 0 ? (long) (users * 1000 / maxUsersPerSecond) : 0;
+        long sleepMillis = Math.max(0, minimumMillis - elapsedMillis) + chunkPauseMillis;
+        if (sleepMillis > 0) {
+            sleep(sleepMillis);
+            throttledMillis.addAndGet(sleepMillis);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Forecast run interrupted", e);
+        }
+    }
+
+    private static double perSecond(long users, long millis) {
+        return millis <= 0 ? 0.0 : users * 1000.0 / millis;
+    }
+}
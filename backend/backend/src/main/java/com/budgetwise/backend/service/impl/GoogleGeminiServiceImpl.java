@@ -1,15 +1,21 @@
 package com.budgetwise.backend.service.impl;
 
+import com.budgetwise.backend.ai.client.GeminiClient;
 import com.budgetwise.backend.ai.dto.DataPoint;
+import com.budgetwise.backend.ai.dto.ExpenseForecastDto;
 import com.budgetwise.backend.ai.dto.ExpensePredictionDto;
-import com.budgetwise.backend.ai.dto.GeminiRequest;
-import com.budgetwise.backend.ai.dto.GeminiResponse;
+import com.budgetwise.backend.ai.dto.ForecastPointDto;
+import com.budgetwise.backend.ai.forecast.ExpenseForecaster;
+import com.budgetwise.backend.ai.fallback.LocalInsightGenerator;
+import com.budgetwise.backend.ai.prompt.PromptContextBuilder;
 import com.budgetwise.backend.dto.SavingsGoalDto;
+import com.budgetwise.backend.dto.TransactionAlertDto;
 import com.budgetwise.backend.dto.TransactionDto;
 import com.budgetwise.backend.dto.TransactionSummaryDto;
-import com.budgetwise.backend.entity.Transaction;
 import com.budgetwise.backend.entity.User;
-import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.exception.AiUnavailableException;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.exception.TooManyRequestsException;
 import com.budgetwise.backend.repository.UserRepository;
 import com.budgetwise.backend.service.GoogleGeminiService;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -18,13 +24,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDate;
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,41 +39,72 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GoogleGeminiServiceImpl implements GoogleGeminiService {
 
-    private final WebClient geminiWebClient;
+    private final GeminiClient geminiClient;
     private final ObjectMapper objectMapper;
-    private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final PromptContextBuilder promptContextBuilder;
+    private final LocalInsightGenerator localInsightGenerator;
+    private final ExpenseForecaster expenseForecaster;
+
+    // Trend chart: complete months shown, and months forecast (this month, next month, the one after)
+    private static final int PREDICTION_HISTORY_MONTHS = 6;
+    private static final int PREDICTION_HORIZON_MONTHS = 3;
 
     // ---
     // --- 1. ORIGINAL AI FEATURES ---
     // ---
 
     @Override
-    public String generateMonthlyInsights(TransactionSummaryDto summary) {
-        String summaryJson = convertToJson(summary);
-        String prompt = "You are a friendly financial advisor. Based on this monthly summary (JSON): \n"
-                + summaryJson + "\n"
-                + "Provide 3 actionable saving tips and one insight about the spending-to-income ratio. Keep it under 150 words.";
-        return callGeminiApi(prompt);
+    public Mono<String> generateMonthlyInsights(TransactionSummaryDto summary) {
+        return callGeminiApi(monthlyInsightsPrompt(summary), () -> localInsightGenerator.monthlyInsights(summary));
     }
 
+    /**
+     * Summarises the local forecast and the anomalies the detector already flagged;
+     * the model no longer has to read the whole history to find them.
+     */
     @Override
-    public String generatePredictionAndAlerts(String transactionHistoryJson) {
-        String prompt = "Financial analyst task. Analyze these transactions (JSON): \n"
-                + transactionHistoryJson + "\n"
-                + "1. Predict next month's total spending (single number).\n"
-                + "2. List any anomalies/alerts.\n"
-                + "Keep it under 150 words.";
-        return callGeminiApi(prompt);
+    public Mono<String> generatePredictionAndAlerts(ExpenseForecastDto forecast, List<TransactionAlertDto> alerts) {
+        StringBuilder prompt = new StringBuilder("Financial analyst task.\nExpense forecast (month: predicted, range):\n");
+        for (ForecastPointDto point : forecast.getForecast()) {
+            prompt.append(String.format(Locale.ROOT, "%s: %.2f (%.2f-%.2f)%n",
+                    point.getLabel(), point.getValue(), point.getLower(), point.getUpper()));
+        }
+        prompt.append("Unusual expenses detected (date, category, amount, typical amount):\n");
+        if (alerts.isEmpty()) {
+            prompt.append("none\n");
+        }
+        for (TransactionAlertDto alert : alerts) {
+            prompt.append(String.format(Locale.ROOT, "%s, %s, %.2f, %.2f%n",
+                    alert.getTransactionDate(), alert.getCategory(), alert.getAmount(), alert.getTypicalAmount()));
+        }
+        prompt.append("1. State next month's predicted total spending.\n")
+                .append("2. Summarise the unusual expenses as alerts (or say there are none).\n")
+                .append("Keep it under 150 words.");
+        return callGeminiApi(prompt.toString(), () -> localInsightGenerator.forecast(forecast, alerts));
     }
 
     @Override
-    public String getCategoryForTransaction(String description, List<String> categories) {
+    public Mono<String> getCategoryForTransaction(String description, List<String> categories) {
         String prompt = "Categorize this transaction description: \"" + description + "\"\n"
                 + "Choose ONLY from: " + String.join(", ", categories) + "\n"
                 + "Category:";
-        String category = callGeminiApi(prompt);
-        return category.trim().replaceAll("[^a-zA-Z0-9 -]", "");
+        return callGeminiApi(prompt, () -> "Uncategorized")
+                .map(category -> category.trim().replaceAll("[^a-zA-Z0-9 -]", ""));
+    }
+
+    @Override
+    public Mono<List<String>> getCategoriesForTransactions(List<String> descriptions, List<String> categories) {
+        StringBuilder prompt = new StringBuilder()
+                .append("Categorize each numbered transaction description.\n")
+                .append("Choose ONLY from: ").append(String.join(", ", categories)).append("\n")
+                .append("Answer with exactly one line per description, formatted as <number>|<category>, and nothing else.\n");
+        for (int i = 0; i < descriptions.size(); i++) {
+            prompt.append(i + 1).append('|').append(descriptions.get(i).replace('\n', ' ')).append('\n');
+        }
+        // Offline: every entry stays null and the caller leaves it uncategorized
+        return callGeminiApi(prompt.toString(), () -> "")
+                .map(response -> parseNumberedCategories(response, descriptions.size(), categories));
     }
 
     // ---
@@ -74,113 +112,88 @@ public class GoogleGeminiServiceImpl implements GoogleGeminiService {
     // ---
 
     @Override
-    public String generateChatResponse(String prompt) {
-        return callGeminiApi(prompt);
+    public Mono<String> generateChatResponse(String prompt) {
+        return callGeminiApi(prompt, localInsightGenerator::chat);
     }
 
     @Override
-    public String generateSpendingBreakdown(List<TransactionDto> transactions) {
-        String data = convertToJson(transactions);
+    public Mono<String> generateSpendingBreakdown(List<TransactionDto> transactions) {
+        String data = promptContextBuilder.build(transactions);
         String prompt = String.format(
             "Analyze this spending data: %s\nProvide a 3-bullet breakdown of spending habits by category. Max 100 words.", data);
-        return callGeminiApi(prompt);
+        return callGeminiApi(prompt, () -> localInsightGenerator.spendingBreakdown(transactions));
     }
 
     @Override
-    public String generateSavingTipsForGoal(SavingsGoalDto goal) {
+    public Mono<String> generateSavingTipsForGoal(SavingsGoalDto goal) {
         String data = convertToJson(goal);
         String prompt = String.format(
             "Savings coach task. User goal: %s\nProvide 2-3 specific tips to reach this faster. Max 100 words.", data);
-        return callGeminiApi(prompt);
+        return callGeminiApi(prompt, () -> localInsightGenerator.savingTips(goal));
     }
 
     @Override
-    public String generateTransactionDetails(List<TransactionDto> transactions) {
-        String data = convertToJson(transactions);
+    public Mono<String> generateTransactionDetails(List<TransactionDto> transactions) {
+        String data = promptContextBuilder.build(transactions);
         String prompt = String.format(
             "Analyze transactions: %s\nIdentify the largest expense and most frequent category. Max 2 sentences.", data);
-        return callGeminiApi(prompt);
+        return callGeminiApi(prompt, () -> localInsightGenerator.transactionDetails(transactions));
     }
 
     @Override
-    public String generatePersonalizedInsights(TransactionSummaryDto summary, List<TransactionDto> transactions) {
-        String sData = convertToJson(summary);
-        String tData = convertToJson(transactions);
-        String prompt = String.format(
-            "Summary: %s\nTransactions: %s\nProvide one personalized insight and one improvement tip. Max 150 words.", sData, tData);
-        return callGeminiApi(prompt);
+    public Mono<String> generatePersonalizedInsights(TransactionSummaryDto summary, List<TransactionDto> transactions) {
+        return callGeminiApi(personalizedInsightsPrompt(summary, transactions),
+                () -> localInsightGenerator.personalizedInsights(summary, transactions));
     }
 
     @Override
-    public String generateGoalTrackingAnalysis(List<SavingsGoalDto> goals, TransactionSummaryDto summary) {
+    public Mono<String> generateGoalTrackingAnalysis(List<SavingsGoalDto> goals, TransactionSummaryDto summary) {
         String gData = convertToJson(goals);
         String sData = convertToJson(summary);
         String prompt = String.format(
             "Goals: %s\nSummary: %s\nAnalyze savings progress and suggest a priority. Max 100 words.", gData, sData);
-        return callGeminiApi(prompt);
+        return callGeminiApi(prompt, () -> localInsightGenerator.goalTracking(goals, summary));
     }
 
     // ---
     // --- 3. NEW LOGIC: PREDICTION CHART & CHAT ---
     // ---
 
+    /**
+     * Chart data for the expense trend: the last complete months, then the
+     * forecast for this month and the next ones (see ExpenseForecaster).
+     */
     @Override
     public ExpensePredictionDto getExpensePrediction(String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        LocalDate now = LocalDate.now();
-        YearMonth currentMonth = YearMonth.now();
-
-        // 1. Get THIS MONTH's transactions from the database
-        LocalDate startOfMonth = now.withDayOfMonth(1);
-        LocalDate endOfMonth = now.withDayOfMonth(now.lengthOfMonth());
+        ExpenseForecastDto forecast = expenseForecaster.forecast(user.getId(), PREDICTION_HORIZON_MONTHS);
 
-        List<Transaction> currentMonthTransactions = transactionRepository
-                .findByUserIdAndDateBetweenOrderByDateDesc(user.getId(), startOfMonth, endOfMonth)
-                .stream()
-                .filter(t -> "EXPENSE".equalsIgnoreCase(t.getType()))
+        List<DataPoint> history = forecast.getHistory();
+        List<DataPoint> historicalData = new ArrayList<>(
+                history.subList(Math.max(0, history.size() - PREDICTION_HISTORY_MONTHS), history.size()));
+        List<DataPoint> predictedData = forecast.getForecast().stream()
+                .map(point -> new DataPoint(point.getLabel(), point.getValue()))
                 .collect(Collectors.toList());
 
-        // 2. Calculate THIS MONTH's total expenses
-        double currentMonthTotal = currentMonthTransactions.stream()
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-
-        // 3. Calculate DAILY AVERAGE for current month
-        int daysPassed = now.getDayOfMonth();
-        if (daysPassed == 0) daysPassed = 1; // Avoid divide by zero safety check
-
-        double dailyAverage = currentMonthTotal / daysPassed;
-
-        // 4. Predict next month based on daily average * 30 days
-        double predictedNextMonth = dailyAverage * 30;
-
-        // 5. Create historical data (current month only)
-        List<DataPoint> historicalData = new ArrayList<>();
-        historicalData.add(new DataPoint(
-                currentMonth.format(DateTimeFormatter.ofPattern("MMM")), // e.g. "Nov"
-                currentMonthTotal
-        ));
-
-        // 6. Create predicted data (next month)
-        List<DataPoint> predictedData = new ArrayList<>();
-        predictedData.add(new DataPoint(
-                currentMonth.plusMonths(1).format(DateTimeFormatter.ofPattern("MMM")), // e.g. "Dec"
-                predictedNextMonth
-        ));
-
-        // 7. Build and return the DTO
         ExpensePredictionDto dto = new ExpensePredictionDto();
         dto.setHistoricalData(historicalData);
         dto.setPredictedData(predictedData);
-        dto.setNextMonthPrediction(predictedNextMonth); // Ensure this field exists in your DTO
 
+        // Forecast month 0 is the current month, so next month is index 1.
+        // With ai.forecast.max-horizon=1 there is no next month; the fields stay null.
+        if (forecast.getForecast().size() > 1) {
+            ForecastPointDto nextMonth = forecast.getForecast().get(1);
+            dto.setNextMonthPrediction(nextMonth.getValue());
+            dto.setNextMonthLower(nextMonth.getLower());
+            dto.setNextMonthUpper(nextMonth.getUpper());
+        }
         return dto;
     }
 
     @Override
-    public String generateNextMonthExpensePrediction(String userEmail) {
+    public Mono<String> generateNextMonthExpensePrediction(String userEmail) {
         // Re-use the logic above to get the number
         ExpensePredictionDto predictionData = getExpensePrediction(userEmail);
         
@@ -190,32 +203,115 @@ public class GoogleGeminiServiceImpl implements GoogleGeminiService {
         }
 
         String prompt = String.format(
-            "Based on the user's current daily spending average, the predicted expense for next month is approx %.2f. " +
+            "Based on the user's monthly spending history, the predicted expense for next month is approx %.2f. " +
             "Write a short, encouraging chat message (under 100 words) about this. " +
             "If the prediction is high, suggest cutting back. If low, say great job.",
             predictedAmount
         );
-        return callGeminiApi(prompt);
+        double fallbackAmount = predictedAmount;
+        return callGeminiApi(prompt, () -> localInsightGenerator.nextMonthPrediction(fallbackAmount));
+    }
+
+
+    // ---
+    // --- STREAMING VARIANTS ---
+    // ---
+
+    @Override
+    public Flux<String> streamMonthlyInsights(TransactionSummaryDto summary) {
+        return streamGeminiApi(monthlyInsightsPrompt(summary), () -> localInsightGenerator.monthlyInsights(summary));
     }
 
+    @Override
+    public Flux<String> streamChatResponse(String prompt) {
+        return streamGeminiApi(prompt, localInsightGenerator::chat);
+    }
+
+    @Override
+    public Flux<String> streamPersonalizedInsights(TransactionSummaryDto summary, List<TransactionDto> transactions) {
+        return streamGeminiApi(personalizedInsightsPrompt(summary, transactions),
+                () -> localInsightGenerator.personalizedInsights(summary, transactions));
+    }
 
     // --- Helper Methods ---
 
-    private String callGeminiApi(String prompt) {
-        GeminiRequest request = new GeminiRequest(prompt);
-        try {
-            GeminiResponse response = geminiWebClient.post()
-                    .body(Mono.just(request), GeminiRequest.class)
-                    .retrieve()
-                    .bodyToMono(GeminiResponse.class)
-                    .block(); 
-
-            if (response != null) return response.getFirstText();
-        } catch (Exception e) {
-            log.error("Gemini API Error: {}", e.getMessage());
-            return "Error: AI service unavailable.";
+    private String monthlyInsightsPrompt(TransactionSummaryDto summary) {
+        String summaryJson = convertToJson(summary);
+        return "You are a friendly financial advisor. Based on this monthly summary (JSON): \n"
+                + summaryJson + "\n"
+                + "Provide 3 actionable saving tips and one insight about the spending-to-income ratio. Keep it under 150 words.";
+    }
+
+    private String personalizedInsightsPrompt(TransactionSummaryDto summary, List<TransactionDto> transactions) {
+        String sData = convertToJson(summary);
+        String tData = promptContextBuilder.build(transactions);
+        return String.format(
+            "Summary: %s\nTransactions: %s\nProvide one personalized insight and one improvement tip. Max 150 words.", sData, tData);
+    }
+
+    private static final Pattern NUMBERED_LINE = Pattern.compile("^\\s*(\\d+)\\s*[|:.)-]\\s*(.+?)\\s*$");
+
+    /**
+     * Parses "N|Category" lines into a list aligned with the prompt's numbering.
+     * Unknown numbers, duplicate lines and categories outside the allowed set are ignored.
+     */
+    private static List<String> parseNumberedCategories(String response, int size, List<String> categories) {
+        Map<String, String> allowed = new HashMap<>();
+        for (String category : categories) {
+            allowed.put(category.toLowerCase(Locale.ROOT), category);
+        }
+        List<String> result = new ArrayList<>(Collections.nCopies(size, (String) null));
+        for (String line : response.split("\\R")) {
+            Matcher matcher = NUMBERED_LINE.matcher(line);
+            if (!matcher.matches()) {
+                continue;
+            }
+            int index;
+            try {
+                index = Integer.parseInt(matcher.group(1)) - 1;
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            String category = allowed.get(matcher.group(2).replaceAll("[*\"'`]", "").trim().toLowerCase(Locale.ROOT));
+            if (index >= 0 && index < size && category != null && result.get(index) == null) {
+                result.set(index, category);
+            }
         }
-        return "Error: No response.";
+        return result;
+    }
+
+    /**
+     * Calls Gemini; if it is unreachable (circuit open, timeout, upstream error) the local
+     * rule-based fallback answers instead. Load-shedding errors (busy / too many requests)
+     * are passed on so the client sees 503 / 429 and retries.
+     */
+    private Mono<String> callGeminiApi(String prompt, Supplier<String> fallback) {
+        return geminiClient.generate(prompt)
+                .onErrorResume(GoogleGeminiServiceImpl::isOutage, e -> {
+                    if (!(e instanceof AiUnavailableException)) {
+                        log.error("Gemini API Error: {}", e.toString());
+                    }
+                    return Mono.fromSupplier(fallback);
+                });
+    }
+
+    // Falls back only if nothing was streamed yet; a stream that breaks midway ends with an error event
+    private Flux<String> streamGeminiApi(String prompt, Supplier<String> fallback) {
+        return Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            return geminiClient.stream(prompt)
+                    .doOnNext(chunk -> started.set(true))
+                    .onErrorResume(e -> isOutage(e) && !started.get(), e -> {
+                        if (!(e instanceof AiUnavailableException)) {
+                            log.error("Gemini stream error: {}", e.toString());
+                        }
+                        return Mono.fromSupplier(fallback);
+                    });
+        });
+    }
+
+    private static boolean isOutage(Throwable e) {
+        return !(e instanceof ServiceBusyException || e instanceof TooManyRequestsException);
     }
 
     private String convertToJson(Object object) {
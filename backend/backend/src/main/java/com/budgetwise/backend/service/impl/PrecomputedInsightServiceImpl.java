@@ -0,0 +1,312 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.ai.client.GeminiClient;
+import com.budgetwise.backend.ai.prompt.PromptContextLoader;
+import com.budgetwise.backend.cache.AiResponseCache;
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.entity.PrecomputedInsight;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.event.TransactionChangedEvent;
+import com.budgetwise.backend.event.UserDataChangedEvent;
+import com.budgetwise.backend.repository.PrecomputedInsightRepository;
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.UserRepository;
+import com.budgetwise.backend.service.GoogleGeminiService;
+import com.budgetwise.backend.service.PrecomputedInsightService;
+import com.budgetwise.backend.service.SavingsGoalService;
+import com.budgetwise.backend.service.TransactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background pipeline for the slow, read-only AI answers (monthly insights,
+ * next-month prediction, goal tracking).
+ *
+ * - A scheduled run walks the recently active users in throttled batches (a few users
+ *   at a time, with a pause between batches) and refreshes every stale answer.
+ * - Material changes mark the affected answers dirty: transactions affect all of them,
+ *   savings goal changes only goal tracking. Dirty answers are refreshed after a short
+ *   debounce, so a burst of edits causes one refresh.
+ * - Reads return the stored answer at once. If its data version is outdated (or it is
+ *   older than max-age) a background refresh is started; the user never waits for it.
+ *
+ * Blocking work (JPA reads and writes) runs on the virtual-thread queryExecutor,
+ * never on the Gemini client's event loop.
+ */
+@Service
+@Slf4j
+public class PrecomputedInsightServiceImpl implements PrecomputedInsightService {
+
+    private final PrecomputedInsightRepository insightRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionService transactionService;
+    private final SavingsGoalService savingsGoalService;
+    private final GoogleGeminiService geminiService;
+    private final UserDataVersionTracker versionTracker;
+    private final PromptContextLoader contextLoader;
+    private final Scheduler blockingScheduler;
+
+    private final int activeDays;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration batchPause;
+    private final Duration maxAge;
+    private final long debounceMillis;
+
+    // "userId|kind" -> when it was first marked dirty
+    private final Map<String, Long> dirty = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean batchRunning = new AtomicBoolean();
+
+    private final AtomicLong servedFresh = new AtomicLong();
+    private final AtomicLong servedStale = new AtomicLong();
+    private final AtomicLong computedOnDemand = new AtomicLong();
+    private final AtomicLong refreshed = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    public PrecomputedInsightServiceImpl(
+            PrecomputedInsightRepository insightRepository,
+            TransactionRepository transactionRepository,
+            UserRepository userRepository,
+            TransactionService transactionService,
+            SavingsGoalService savingsGoalService,
+            GoogleGeminiService geminiService,
+            UserDataVersionTracker versionTracker,
+            PromptContextLoader contextLoader,
+            @Qualifier("queryExecutor") ExecutorService queryExecutor,
+            @Value("${ai.precompute.active-days:30}") int activeDays,
+            @Value("${ai.precompute.batch-size:20}") int batchSize,
+            @Value("${ai.precompute.concurrency:2}") int concurrency,
+            @Value("${ai.precompute.batch-pause-ms:2000}") long batchPauseMs,
+            @Value("${ai.precompute.max-age-hours:24}") long maxAgeHours,
+            @Value("${ai.precompute.debounce-ms:120000}") long debounceMillis) {
+        this.insightRepository = insightRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.transactionService = transactionService;
+        this.savingsGoalService = savingsGoalService;
+        this.geminiService = geminiService;
+        this.versionTracker = versionTracker;
+        this.contextLoader = contextLoader;
+        this.blockingScheduler = Schedulers.fromExecutorService(queryExecutor, "precompute");
+        this.activeDays = activeDays;
+        this.batchSize = Math.max(1, batchSize);
+        this.concurrency = Math.max(1, concurrency);
+        this.batchPause = Duration.ofMillis(batchPauseMs);
+        this.maxAge = Duration.ofHours(maxAgeHours);
+        this.debounceMillis = debounceMillis;
+    }
+
+    @Override
+    public Mono<String> getInsight(User user, String kind) {
+        long version = versionTracker.current(user.getId());
+        Optional<PrecomputedInsight> stored = insightRepository.findByUserIdAndKind(user.getId(), kind);
+        if (stored.isPresent()) {
+            if (isStale(stored.get(), version)) {
+                servedStale.incrementAndGet();
+                triggerRefresh(user.getId(), kind, false);
+            } else {
+                servedFresh.incrementAndGet();
+            }
+            return Mono.just(stored.get().getContent());
+        }
+
+        // Nothing stored yet: compute now, like the on-demand endpoints did
+        computedOnDemand.incrementAndGet();
+        return generate(user, kind)
+                .publishOn(blockingScheduler)
+                .doOnNext(text -> store(user.getId(), kind, version, text));
+    }
+
+    @Override
+    @Scheduled(cron = "${ai.precompute.cron:0 */30 * * * *}")
+    public void refreshActiveUsers() {
+        if (!batchRunning.compareAndSet(false, true)) {
+            log.info("Precompute run skipped: the previous run is still in progress");
+            return;
+        }
+        List<Long> userIds;
+        try {
+            userIds = transactionRepository.findActiveUserIdsSince(LocalDate.now().minusDays(activeDays));
+        } catch (RuntimeException e) {
+            batchRunning.set(false);
+            throw e;
+        }
+        long started = System.nanoTime();
+        log.info("Precomputing AI insights for {} active users", userIds.size());
+
+        // Runs in the background so the scheduler thread is free for other jobs
+        Flux.fromIterable(userIds)
+                .buffer(batchSize)
+                .concatMap(batch -> Flux.fromIterable(batch)
+                        .flatMap(userId -> refreshUser(userId, KINDS, true), concurrency)
+                        .then(Mono.delay(batchPause)))
+                .doFinally(signal -> {
+                    batchRunning.set(false);
+                    log.info("Precompute run finished in {} ms", (System.nanoTime() - started) / 1_000_000);
+                })
+                .subscribe(ignored -> { }, e -> log.error("Precompute run failed", e));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        for (String kind : KINDS) {
+            markDirty(event.getUserId(), kind);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        // Budgets feed none of the precomputed answers
+        if ("savings-goal".equals(event.getSource())) {
+            markDirty(event.getUserId(), GOAL_TRACKING);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.precompute.dirty-check-interval-ms:30000}")
+    public void refreshDirty() {
+        long cutoff = System.currentTimeMillis() - debounceMillis;
+        dirty.forEach((key, since) -> {
+            if (since <= cutoff && dirty.remove(key, since)) {
+                int separator = key.indexOf('|');
+                // Only answers someone has already asked for; the batch run covers the rest
+                triggerRefresh(Long.valueOf(key.substring(0, separator)), key.substring(separator + 1), true);
+            }
+        });
+    }
+
+    @Override
+    public Map<String, Long> stats() {
+        return Map.of(
+                "servedFresh", servedFresh.get(),
+                "servedStale", servedStale.get(),
+                "computedOnDemand", computedOnDemand.get(),
+                "refreshed", refreshed.get(),
+                "refreshFailures", refreshFailures.get(),
+                "dirty", (long) dirty.size(),
+                "refreshing", (long) refreshing.size());
+    }
+
+    // --- Helper Methods ---
+
+    private void markDirty(Long userId, String kind) {
+        dirty.putIfAbsent(userId + "|" + kind, System.currentTimeMillis());
+    }
+
+    private boolean isStale(PrecomputedInsight insight, long currentVersion) {
+        return insight.getDataVersion() != currentVersion
+                || insight.getGeneratedAt().isBefore(LocalDateTime.now().minus(maxAge));
+    }
+
+    private void triggerRefresh(Long userId, String kind, boolean onlyIfStored) {
+        refreshUser(userId, List.of(kind), !onlyIfStored).subscribe();
+    }
+
+    /**
+     * Refreshes the given kinds for one user if they are stale.
+     * Missing answers are only created when createMissing is set.
+     * Never errors: failures are logged and counted so one user cannot stop a batch.
+     */
+    private Mono<Void> refreshUser(Long userId, List<String> kinds, boolean createMissing) {
+        return Mono.fromCallable(() -> userRepository.findById(userId))
+                .subscribeOn(blockingScheduler)
+                .flatMapMany(user -> user.map(u -> Flux.fromIterable(kinds)
+                                .concatMap(kind -> refreshOne(u, kind, createMissing)))
+                        .orElseGet(Flux::empty))
+                .then()
+                .onErrorResume(e -> {
+                    refreshFailures.incrementAndGet();
+                    log.warn("Precompute refresh failed for user {}: {}", userId, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> refreshOne(User user, String kind, boolean createMissing) {
+        String key = user.getId() + "|" + kind;
+        return Mono.defer(() -> {
+            long version = versionTracker.current(user.getId());
+            Optional<PrecomputedInsight> stored = insightRepository.findByUserIdAndKind(user.getId(), kind);
+            if (stored.isPresent() ? !isStale(stored.get(), version) : !createMissing) {
+                return Mono.empty();
+            }
+            if (!refreshing.add(key)) {
+                return Mono.empty(); // Already being refreshed
+            }
+            return generate(user, kind)
+                    .contextWrite(GeminiClient.forUser(user.getId()))
+                    .publishOn(blockingScheduler)
+                    .doOnNext(text -> {
+                        if (store(user.getId(), kind, version, text)) {
+                            refreshed.incrementAndGet();
+                        }
+                    })
+                    .doFinally(signal -> refreshing.remove(key))
+                    .then();
+        }).subscribeOn(blockingScheduler);
+    }
+
+    private Mono<String> generate(User user, String kind) {
+        return Mono.fromCallable(() -> switch (kind) {
+                    case INSIGHTS -> geminiService.generateMonthlyInsights(transactionService.getTransactionSummary(user));
+                    case NEXT_MONTH_PREDICTION -> geminiService.generateNextMonthExpensePrediction(user.getEmail());
+                    case GOAL_TRACKING -> {
+                        var summary = contextLoader.fork(() -> transactionService.getTransactionSummary(user));
+                        var goals = contextLoader.fork(() -> savingsGoalService.getSavingsGoalsByUser(user));
+                        contextLoader.awaitAll(summary, goals);
+                        yield geminiService.generateGoalTrackingAnalysis(goals.join(), summary.join());
+                    }
+                    default -> throw new IllegalArgumentException("Unknown insight kind: " + kind);
+                })
+                .subscribeOn(blockingScheduler)
+                .flatMap(answer -> answer);
+    }
+
+    // Upsert by (user, kind); fallback and error texts are not stored. Returns whether a row was written.
+    private boolean store(Long userId, String kind, long version, String text) {
+        if (!AiResponseCache.isCacheable(text)) {
+            return false;
+        }
+        try {
+            upsert(userId, kind, version, text);
+        } catch (DataIntegrityViolationException e) {
+            // Lost an insert race with a concurrent refresh; the row exists now, so update it
+            upsert(userId, kind, version, text);
+        }
+        return true;
+    }
+
+    private void upsert(Long userId, String kind, long version, String text) {
+        PrecomputedInsight insight = insightRepository.findByUserIdAndKind(userId, kind).orElseGet(() -> {
+            PrecomputedInsight created = new PrecomputedInsight();
+            created.setUserId(userId);
+            created.setKind(kind);
+            return created;
+        });
+        insight.setContent(text);
+        insight.setDataVersion(version);
+        insight.setGeneratedAt(LocalDateTime.now());
+        insightRepository.save(insight);
+    }
+}
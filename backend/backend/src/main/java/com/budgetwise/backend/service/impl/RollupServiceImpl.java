@@ -0,0 +1,106 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
+import com.budgetwise.backend.repository.UserRepository;
+import com.budgetwise.backend.service.RollupService;
+import com.budgetwise.backend.service.SavingsProgressService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RollupServiceImpl implements RollupService {
+
+    private final UserMonthCategoryRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SavingsProgressService savingsProgressService;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(Long userId, String type, String category, LocalDate date, double amountDelta, int countDelta) {
+        // Rows without a date or type are never counted (the rebuild query skips them too)
+        if (date == null || type == null) {
+            return;
+        }
+        LocalDate monthStart = date.withDayOfMonth(1);
+        String rollupCategory = category == null ? "" : category;
+        String rollupType = type.toUpperCase(Locale.ROOT);
+        rollupRepository.applyDelta(userId, monthStart, rollupCategory, rollupType, amountDelta, countDelta);
+        if (countDelta < 0) {
+            rollupRepository.deleteIfEmpty(userId, monthStart, rollupCategory, rollupType);
+        }
+    }
+
+    @Override
+    public void rebuildForUser(Long userId) {
+        rebuild(userId);
+    }
+
+    /**
+     * First start after the rollup table was introduced: backfill it from existing transactions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && transactionRepository.count() > 0) {
+            log.info("Rollup table is empty, backfilling from transactions");
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Nightly reconcile job: repairs any drift between the rollup rows and the transactions table.
+     */
+    @Scheduled(cron = "${rollup.reconcile.cron:0 30 3 * * *}")
+    public void reconcileNightly() {
+        rebuildAll();
+    }
+
+    /**
+     * Each user is rebuilt in their own short transaction
+     * so one large account never holds locks for the whole run.
+     */
+    @Override
+    public int rebuildAll() {
+        List<Long> userIds = userRepository.findAllIds();
+        int rebuilt = 0;
+        for (Long userId : userIds) {
+            try {
+                rebuild(userId);
+                rebuilt++;
+            } catch (Exception e) {
+                log.error("Rollup rebuild failed for user {}: {}", userId, e.getMessage());
+            }
+        }
+        log.info("Rollup reconcile finished: {} of {} users rebuilt", rebuilt, userIds.size());
+        return rebuilt;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Rebuilds one user in its own transaction. Cached savings totals are dropped
+     * only after the commit, so a concurrent read cannot cache the old rows again.
+     */
+    private void rebuild(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.deleteAllByUserId(userId);
+            rollupRepository.rebuildForUser(userId);
+        });
+        savingsProgressService.invalidate(userId);
+    }
+}
@@ -3,16 +3,20 @@ package com.budgetwise.backend.service.impl;
 import com.budgetwise.backend.dto.SavingsGoalDto;
 import com.budgetwise.backend.entity.SavingsGoal;
 import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.event.UserDataChangedEvent;
 import com.budgetwise.backend.repository.SavingsGoalRepository;
 import com.budgetwise.backend.repository.TransactionRepository;
 import com.budgetwise.backend.repository.UserRepository;
 import com.budgetwise.backend.service.SavingsGoalService;
+import com.budgetwise.backend.service.SavingsProgressService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional; 
 import java.util.stream.Collectors;
 
@@ -28,6 +32,8 @@ public class SavingsGoalServiceImpl implements SavingsGoalService {
     private final UserRepository userRepository;
     private final SavingsGoalRepository savingsGoalRepository;
     private final TransactionRepository transactionRepository;
+    private final SavingsProgressService savingsProgressService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public SavingsGoalDto createSavingsGoal(String userEmail, SavingsGoalDto dto) {
@@ -35,21 +41,35 @@ public class SavingsGoalServiceImpl implements SavingsGoalService {
         SavingsGoal goal = mapToEntity(dto); // Maps name, target, deadline
         goal.setUser(user);
         SavingsGoal savedGoal = savingsGoalRepository.save(goal);
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getId(), "savings-goal"));
         // Return DTO with calculated progress
-        return mapToDtoWithProgress(savedGoal);
+        return mapToDtoWithProgress(savedGoal, savingsProgressService.getSavingsByCategory(user.getId()));
     }
 
     @Override
     public List<SavingsGoalDto> getSavingsGoalsByUser(String userEmail) {
-        User user = findUserByEmail(userEmail);
+        return getSavingsGoalsByUser(findUserByEmail(userEmail));
+    }
+
+    @Override
+    public List<SavingsGoalDto> getSavingsGoalsByUser(User user) {
+        // Every goal's progress comes from one (cached) GROUP BY category lookup
+        Map<String, Double> savingsByCategory = savingsProgressService.getSavingsByCategory(user.getId());
 
-        // Get all goals and map them, calculating progress for each
         return savingsGoalRepository.findByUserId(user.getId())
                 .stream()
-                .map(this::mapToDtoWithProgress) // Calls the new helper
+                .map(goal -> mapToDtoWithProgress(goal, savingsByCategory))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public SavingsGoalDto getSavingsGoalById(String userEmail, Long goalId) {
+        User user = findUserByEmail(userEmail);
+        SavingsGoal goal = savingsGoalRepository.findByIdAndUserId(goalId, user.getId())
+                .orElseThrow(() -> new RuntimeException("Savings goal not found or not authorized"));
+        return mapToDtoWithProgress(goal, savingsProgressService.getSavingsByCategory(user.getId()));
+    }
+
     @Override
     public SavingsGoalDto updateSavingsGoal(String userEmail, Long goalId, SavingsGoalDto dto) {
         User user = findUserByEmail(userEmail);
@@ -64,8 +84,9 @@ public class SavingsGoalServiceImpl implements SavingsGoalService {
         // (We no longer update currentAmount from the DTO)
 
         SavingsGoal updatedGoal = savingsGoalRepository.save(goal);
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getId(), "savings-goal"));
         // Return DTO with calculated progress
-        return mapToDtoWithProgress(updatedGoal);
+        return mapToDtoWithProgress(updatedGoal, savingsProgressService.getSavingsByCategory(user.getId()));
     }
 
     @Override
@@ -74,6 +95,7 @@ public class SavingsGoalServiceImpl implements SavingsGoalService {
         SavingsGoal goal = savingsGoalRepository.findByIdAndUserId(goalId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Savings goal not found or user not authorized"));
         savingsGoalRepository.delete(goal);
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getId(), "savings-goal"));
     }
 
     // --- Helper Methods ---
@@ -85,19 +107,16 @@ public class SavingsGoalServiceImpl implements SavingsGoalService {
 
     /**
      * NEW HELPER: Maps an entity to a DTO and calculates progress
-     * by summing SAVINGS transactions.
+     * from the user's SAVINGS totals per category.
      */
-    private SavingsGoalDto mapToDtoWithProgress(SavingsGoal goal) {
+    private SavingsGoalDto mapToDtoWithProgress(SavingsGoal goal, Map<String, Double> savingsByCategory) {
 
         // 1. The category (e.g., "Vacation") MUST match the goal name
         String matchingCategory = goal.getGoalName();
 
-        // 2. Call the new repository method
-        // (This query must exist in TransactionRepository)
-        double currentAmount = transactionRepository.findTotalSavingsByCategory(
-                goal.getUser().getId(),
-                matchingCategory
-        );
+        // 2. Look up the pre-computed SAVINGS total for that category
+        double currentAmount = (matchingCategory == null) ? 0.0
+                : savingsByCategory.getOrDefault(SavingsProgressService.categoryKey(matchingCategory), 0.0);
 
         // 3. Set all DTO fields
         SavingsGoalDto dto = new SavingsGoalDto();
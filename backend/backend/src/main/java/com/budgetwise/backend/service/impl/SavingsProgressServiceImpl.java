@@ -0,0 +1,86 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.event.TransactionChangedEvent;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
+import com.budgetwise.backend.service.SavingsProgressService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves the progress of ALL of a user's savings goals with one GROUP BY query,
+ * and caches the result until one of the user's SAVINGS transactions changes
+ * (or their rollup rows are rebuilt).
+ *
+ * Category keys are lower-cased: the query groups by the column collation, which
+ * is case-insensitive, and goal names are matched the same way.
+ */
+@Service
+public class SavingsProgressServiceImpl implements SavingsProgressService {
+
+    private final UserMonthCategoryRollupRepository rollupRepository;
+    private final Map<Long, Map<String, Double>> cache;
+
+    // Bumped by every invalidation; guarded by the cache monitor
+    private long invalidations;
+
+    public SavingsProgressServiceImpl(
+            UserMonthCategoryRollupRepository rollupRepository,
+            @Value("${savings.progress.cache.max-users:10000}") int maxCachedUsers) {
+        this.rollupRepository = rollupRepository;
+        // Access-ordered LinkedHashMap = LRU; guarded by its own monitor
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<String, Double>> eldest) {
+                return size() > maxCachedUsers;
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Double> getSavingsByCategory(Long userId) {
+        long seen;
+        synchronized (cache) {
+            Map<String, Double> cached = cache.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            seen = invalidations;
+        }
+
+        Map<String, Double> totals = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByCategoryForType(userId, "SAVINGS")) {
+            totals.merge(SavingsProgressService.categoryKey((String) row[0]), ((Number) row[1]).doubleValue(), Double::sum);
+        }
+        Map<String, Double> result = Map.copyOf(totals);
+
+        synchronized (cache) {
+            // An invalidation while we were loading may mean these totals are already stale:
+            // serve them to this caller, but do not cache them
+            if (invalidations == seen) {
+                cache.put(userId, result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        synchronized (cache) {
+            invalidations++;
+            cache.remove(userId);
+        }
+    }
+
+    // Runs after the write commits, so the next read sees the new totals
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.involvesType("SAVINGS")) {
+            invalidate(event.getUserId());
+        }
+    }
+}
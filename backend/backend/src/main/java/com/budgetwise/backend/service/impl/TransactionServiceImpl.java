@@ -1,19 +1,39 @@
 package com.budgetwise.backend.service.impl;
 
 // Necessary Imports
+import com.budgetwise.backend.analytics.AnalyticsKernels;
+import com.budgetwise.backend.analytics.TransactionColumns;
+import com.budgetwise.backend.dto.AmountBucketDto;
 import com.budgetwise.backend.dto.CategorySpendingDto;
+import com.budgetwise.backend.dto.SpendingAnalyticsDto;
 import com.budgetwise.backend.dto.TransactionDto;
+import com.budgetwise.backend.dto.TransactionFilterDto;
+import com.budgetwise.backend.dto.TransactionPageDto;
 import com.budgetwise.backend.dto.TransactionSummaryDto;
 import com.budgetwise.backend.entity.Transaction;
 import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.event.TransactionChangedEvent;
+import com.budgetwise.backend.exception.InvalidCursorException;
 import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
 import com.budgetwise.backend.repository.UserRepository;
+import com.budgetwise.backend.service.RollupService;
 import com.budgetwise.backend.service.TransactionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -23,24 +43,88 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final UserMonthCategoryRollupRepository rollupRepository;
+    private final RollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_HISTOGRAM_BUCKETS = 50;
 
     @Override
+    @Transactional
     public TransactionDto createTransaction(String userEmail, TransactionDto transactionDto) {
         User user = findUserByEmail(userEmail);
         Transaction transaction = mapToEntity(transactionDto);
         transaction.setUser(user);
         Transaction savedTransaction = transactionRepository.save(transaction);
-        return mapToDto(savedTransaction);
+        addToRollup(user.getId(), savedTransaction);
+        TransactionDto created = mapToDto(savedTransaction);
+        eventPublisher.publishEvent(new TransactionChangedEvent(
+                user.getId(), TransactionChangedEvent.Kind.CREATED, null, created));
+        return created;
     }
 
     @Override
     public List<TransactionDto> getTransactionsByUser(String userEmail) {
-        User user = findUserByEmail(userEmail);
+        return getTransactionsByUser(findUserByEmail(userEmail));
+    }
+
+    @Override
+    public List<TransactionDto> getTransactionsByUser(User user) {
         List<Transaction> transactions = transactionRepository.findByUserId(user.getId());
         return transactions.stream().map(this::mapToDto).collect(Collectors.toList());
     }
 
+    /**
+     * Returns one page of the user's transactions, newest first.
+     * Fetches limit + 1 rows so we know whether another page exists without a COUNT query.
+     */
+    @Override
+    public TransactionPageDto getTransactionPage(String userEmail, TransactionFilterDto filter, String cursor, int limit) {
+        User user = findUserByEmail(userEmail);
+        TransactionFilterDto f = (filter != null) ? filter : new TransactionFilterDto();
+        int pageSize = (limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorDate = LocalDate.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+
+        String type = (f.getType() == null || f.getType().isBlank()) ? null : f.getType().toUpperCase(Locale.ROOT);
+        String category = (f.getCategory() == null || f.getCategory().isBlank()) ? null : f.getCategory();
+
+        List<Transaction> rows = transactionRepository.findPageByUserId(
+                user.getId(),
+                f.getStartDate(),
+                f.getEndDate(),
+                type,
+                category,
+                f.getMinAmount(),
+                f.getMaxAmount(),
+                cursorDate,
+                cursorId,
+                PageRequest.of(0, pageSize + 1)
+        );
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(last.getDate(), last.getId());
+        }
+
+        List<TransactionDto> items = page.stream().map(this::mapToDto).collect(Collectors.toList());
+        return new TransactionPageDto(items, nextCursor, hasMore);
+    }
+
     @Override
+    @Transactional
     public TransactionDto updateTransaction(String userEmail, Long transactionId, TransactionDto transactionDto) {
         User user = findUserByEmail(userEmail);
         Transaction transaction = transactionRepository.findById(transactionId)
@@ -50,6 +134,10 @@ public class TransactionServiceImpl implements TransactionService {
             throw new SecurityException("You are not authorized to update this transaction.");
         }
 
+        // Take the old values out of the rollup before we overwrite them
+        TransactionDto before = mapToDto(transaction);
+        removeFromRollup(user.getId(), transaction);
+
         transaction.setType(transactionDto.getType().toUpperCase()); // Ensure type is uppercase
         transaction.setAmount(transactionDto.getAmount());
         transaction.setCategory(transactionDto.getCategory());
@@ -57,10 +145,15 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setDate(transactionDto.getDate());
 
         Transaction updatedTransaction = transactionRepository.save(transaction);
-        return mapToDto(updatedTransaction);
+        addToRollup(user.getId(), updatedTransaction);
+        TransactionDto after = mapToDto(updatedTransaction);
+        eventPublisher.publishEvent(new TransactionChangedEvent(
+                user.getId(), TransactionChangedEvent.Kind.UPDATED, before, after));
+        return after;
     }
 
     @Override
+    @Transactional
     public void deleteTransaction(String userEmail, Long transactionId) {
         User user = findUserByEmail(userEmail);
         
@@ -71,26 +164,23 @@ public class TransactionServiceImpl implements TransactionService {
             throw new SecurityException("You are not authorized to delete this transaction.");
         }
         transactionRepository.delete(transaction);
+        removeFromRollup(user.getId(), transaction);
+        eventPublisher.publishEvent(new TransactionChangedEvent(
+                user.getId(), TransactionChangedEvent.Kind.DELETED, mapToDto(transaction), null));
     }
 
     /**
      * Calculates total spending for each category (for charts).
+     * Reads the monthly rollup table, so the cost does not grow with history.
      */
     @Override
     public List<CategorySpendingDto> getSpendingByCategory(String userEmail) {
-        User user = findUserByEmail(userEmail);
-        List<Transaction> transactions = transactionRepository.findByUserId(user.getId());
-
-        Map<String, Double> spendingMap = transactions.stream()
-                .filter(t -> "EXPENSE".equalsIgnoreCase(t.getType()))
-                .collect(Collectors.groupingBy(
-                        Transaction::getCategory,
-                        Collectors.summingDouble(Transaction::getAmount)
-                ));
+        return getSpendingByCategory(findUserByEmail(userEmail));
+    }
 
-        return spendingMap.entrySet().stream()
-                .map(entry -> new CategorySpendingDto(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
+    @Override
+    public List<CategorySpendingDto> getSpendingByCategory(User user) {
+        return rollupRepository.findExpenseTotalsByCategory(user.getId());
     }
 
     /**
@@ -98,13 +188,21 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public TransactionSummaryDto getTransactionSummary(String userEmail) {
-        User user = findUserByEmail(userEmail);
+        return getTransactionSummary(findUserByEmail(userEmail));
+    }
+
+    @Override
+    public TransactionSummaryDto getTransactionSummary(User user) {
         Long userId = user.getId();
 
-        // 1. Call all 3 queries (INCOME, EXPENSE, SAVINGS)
-        double totalIncome = transactionRepository.getTotalIncomeByUserId(userId);
-        double totalExpenses = transactionRepository.getTotalExpensesByUserId(userId);
-        double totalSavings = transactionRepository.getTotalSavingsByUserId(userId);
+        // 1. One grouped query over the rollup rows (INCOME, EXPENSE, SAVINGS)
+        Map<String, Double> totalsByType = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByType(userId)) {
+            totalsByType.put((String) row[0], ((Number) row[1]).doubleValue());
+        }
+        double totalIncome = totalsByType.getOrDefault("INCOME", 0.0);
+        double totalExpenses = totalsByType.getOrDefault("EXPENSE", 0.0);
+        double totalSavings = totalsByType.getOrDefault("SAVINGS", 0.0);
 
         // 2. Calculate availableBalance as per your formula
         // (Income - Expenses) - Total Saved = Available
@@ -120,6 +218,53 @@ public class TransactionServiceImpl implements TransactionService {
         return summary;
     }
 
+    /**
+     * Loads the user's transactions once as primitive columns, then selects the
+     * expenses in range and aggregates them with the analytics kernels.
+     */
+    @Override
+    public SpendingAnalyticsDto getSpendingAnalytics(String userEmail, LocalDate startDate, LocalDate endDate, int buckets) {
+        User user = findUserByEmail(userEmail);
+        // Only the rows in range leave the database; the (user_id, date, id) index serves the range
+        TransactionColumns columns = TransactionColumns.fromRows(
+                transactionRepository.findColumnsByUserId(user.getId(), startDate, endDate));
+        double[] amounts = columns.amounts();
+
+        // 1. Selection vector of the expense rows (the range check also drops undated rows on open ends)
+        long from = startDate != null ? startDate.toEpochDay() : TransactionColumns.NO_DATE + 1;
+        long to = endDate != null ? endDate.toEpochDay() : Long.MAX_VALUE;
+        int[] selection = new int[columns.size()];
+        int count = AnalyticsKernels.selectRange(columns.epochDays(), columns.size(), from, to, selection);
+        count = AnalyticsKernels.refineEquals(columns.typeCodes(), TransactionColumns.EXPENSE, selection, count);
+
+        // 2. Totals per category code, mapped back to names, largest first
+        double[] sums = new double[columns.categoryCount()];
+        AnalyticsKernels.groupBySumSelected(columns.categoryCodes(), amounts, selection, count, sums);
+        List<CategorySpendingDto> byCategory = new ArrayList<>();
+        for (int code = 0; code < sums.length; code++) {
+            if (sums[code] != 0) {
+                byCategory.add(new CategorySpendingDto(columns.categoryName(code), sums[code]));
+            }
+        }
+        byCategory.sort(Comparator.comparing(CategorySpendingDto::getTotalAmount).reversed());
+
+        // 3. Equal-width amount buckets from 0 up to the largest expense
+        int bucketCount = Math.max(1, Math.min(buckets, MAX_HISTOGRAM_BUCKETS));
+        List<AmountBucketDto> histogram = new ArrayList<>(bucketCount);
+        if (count > 0) {
+            double max = AnalyticsKernels.maxSelected(amounts, selection, count);
+            double width = max > 0 ? max / bucketCount : 1;
+            long[] counts = new long[bucketCount];
+            AnalyticsKernels.histogramSelected(amounts, selection, count, 0, width, counts);
+            for (int i = 0; i < bucketCount; i++) {
+                histogram.add(new AmountBucketDto(i * width, (i + 1) * width, counts[i]));
+            }
+        }
+
+        double total = AnalyticsKernels.sumSelected(amounts, selection, count);
+        return new SpendingAnalyticsDto(startDate, endDate, count, total, byCategory, histogram);
+    }
+
     // --- Helper Methods ---
     
     private User findUserByEmail(String email) {
@@ -127,6 +272,37 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 
+    private void addToRollup(Long userId, Transaction tx) {
+        rollupService.applyDelta(userId, tx.getType(), tx.getCategory(), tx.getDate(), tx.getAmount(), 1);
+    }
+
+    private void removeFromRollup(Long userId, Transaction tx) {
+        rollupService.applyDelta(userId, tx.getType(), tx.getCategory(), tx.getDate(), -tx.getAmount(), -1);
+    }
+
+    // The cursor is an opaque, URL-safe encoding of the last row's (date, id)
+    private String encodeCursor(LocalDate date, Long id) {
+        String raw = date + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            LocalDate.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
     private TransactionDto mapToDto(Transaction transaction) {
         TransactionDto dto = new TransactionDto();
         dto.setId(transaction.getId());
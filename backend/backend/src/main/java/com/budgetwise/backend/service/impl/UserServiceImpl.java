@@ -3,6 +3,7 @@ package com.budgetwise.backend.service.impl;
 import com.budgetwise.backend.dto.ProfileDto;
 import com.budgetwise.backend.dto.ProfileUpdateRequestDto;
 import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.event.UserAccountDeletedEvent;
 // --- ADD THESE IMPORTS ---
 import com.budgetwise.backend.forum.repository.ForumCommentRepository;
 import com.budgetwise.backend.forum.repository.ForumPostRepository;
@@ -10,16 +11,25 @@ import com.budgetwise.backend.forum.repository.PostLikeRepository;
 import com.budgetwise.backend.repository.BudgetRepository;
 import com.budgetwise.backend.repository.SavingsGoalRepository;
 import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.PrecomputedInsightRepository;
+import com.budgetwise.backend.repository.TransactionAlertRepository;
+import com.budgetwise.backend.repository.UserDataVersionRepository;
+import com.budgetwise.backend.repository.UserForecastRepository;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
 // --- END IMPORTS ---
 import com.budgetwise.backend.repository.UserRepository;
 import com.budgetwise.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // <-- ADD THIS IMPORT
 
+import java.security.Principal;
+
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserDetailsService, UserService { 
@@ -32,7 +42,13 @@ public class UserServiceImpl implements UserDetailsService, UserService {
     private final ForumPostRepository forumPostRepository;
     private final ForumCommentRepository forumCommentRepository;
     private final PostLikeRepository postLikeRepository;
+    private final UserMonthCategoryRollupRepository rollupRepository;
+    private final PrecomputedInsightRepository precomputedInsightRepository;
+    private final UserForecastRepository userForecastRepository;
+    private final TransactionAlertRepository transactionAlertRepository;
+    private final UserDataVersionRepository userDataVersionRepository;
     // --- END REPOSITORIES ---
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * This method is used by Spring Security to find a user during login.
@@ -43,6 +59,15 @@ public class UserServiceImpl implements UserDetailsService, UserService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
     }
 
+    @Override
+    public User resolveUser(Principal principal) {
+        if (principal instanceof Authentication auth && auth.getPrincipal() instanceof User user) {
+            return user;
+        }
+        return userRepository.findByEmail(principal.getName())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + principal.getName()));
+    }
+
     /**
      * This method gets the user's profile information to be sent to the frontend.
      */
@@ -97,6 +122,11 @@ public class UserServiceImpl implements UserDetailsService, UserService {
         transactionRepository.deleteAllByUserId(userId);
         budgetRepository.deleteAllByUserId(userId);
         savingsGoalRepository.deleteAllByUserId(userId);
+        rollupRepository.deleteAllByUserId(userId);
+        precomputedInsightRepository.deleteAllByUserId(userId);
+        userForecastRepository.deleteAllByUserId(userId);
+        transactionAlertRepository.deleteAllByUserId(userId);
+        userDataVersionRepository.deleteAllByUserId(userId);
         
         // 2. Delete forum records
         forumCommentRepository.deleteAllByUserId(userId);
@@ -105,5 +135,8 @@ public class UserServiceImpl implements UserDetailsService, UserService {
         
         // 3. Finally, delete the user
         userRepository.delete(user);
+
+        // In-memory per-user state is dropped once this commits
+        eventPublisher.publishEvent(new UserAccountDeletedEvent(userId));
     }
 }
\ No newline at end of file
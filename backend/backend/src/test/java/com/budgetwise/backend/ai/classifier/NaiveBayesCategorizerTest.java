@@ -0,0 +1,72 @@
+package com.budgetwise.backend.ai.classifier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NaiveBayesCategorizerTest {
+
+    private NaiveBayesCategorizer model;
+
+    @BeforeEach
+    void setUp() {
+        model = new NaiveBayesCategorizer(1024);
+        for (int i = 0; i < 5; i++) {
+            model.learn("Uber trip " + i, "Transport");
+            model.learn("Metro card top up", "Transport");
+            model.learn("Pizza Hut order #" + i, "Food");
+            model.learn("Grocery store", "Food");
+        }
+    }
+
+    @Test
+    void predictsFromHashedWordFeatures() {
+        NaiveBayesCategorizer.Prediction transport = model.predict("UBER *TRIP 8812");
+        NaiveBayesCategorizer.Prediction food = model.predict("pizza hut");
+
+        assertEquals("Transport", transport.category());
+        assertEquals("Food", food.category());
+        assertTrue(transport.confidence() > 0.9 && transport.confidence() <= 1.0);
+        assertEquals(20, model.size());
+    }
+
+    @Test
+    void unlearnUndoesLearnExactly() {
+        NaiveBayesCategorizer.Prediction before = model.predict("grocery trip");
+
+        model.learn("Grocery trip to the market", "Transport");
+        model.unlearn("Grocery trip to the market", "Transport");
+
+        NaiveBayesCategorizer.Prediction after = model.predict("grocery trip");
+        assertEquals(before.category(), after.category());
+        assertEquals(before.confidence(), after.confidence(), 1e-12);
+        assertEquals(20, model.size());
+    }
+
+    @Test
+    void anEditMovesTheExampleToItsNewCategory() {
+        model.learn("Netflix subscription", "Food"); // Mislabelled at first
+        model.unlearn("Netflix subscription", "Food");
+        model.learn("Netflix subscription", "Entertainment");
+
+        assertEquals("Entertainment", model.predict("Netflix subscription").category());
+        assertEquals(21, model.size());
+    }
+
+    @Test
+    void unlearningUnknownOrExhaustedCategoriesIsANoOp() {
+        model.unlearn("Anything", "Travel");
+        model.unlearn("Anything", null);
+        assertEquals(20, model.size());
+
+        NaiveBayesCategorizer single = new NaiveBayesCategorizer(64);
+        single.learn("Rent", "Housing");
+        single.unlearn("Rent", "Housing");
+        single.unlearn("Rent", "Housing"); // Nothing left to remove
+        assertEquals(0, single.size());
+        assertNull(single.predict("Rent"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.budgetwise.backend.ai.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long SLOW = 1_000_000L;
+    private static final long FAST = 10L;
+
+    // Window of 4, opens at 50% failures after 4 calls, two probes; openNanos 0 = half-open right away
+    private static CircuitBreaker breaker(long openNanos) {
+        return new CircuitBreaker(4, 4, 0.5, 0.8, SLOW, openNanos, 2);
+    }
+
+    private static void succeed(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.tryAcquirePermission(System.nanoTime()).onSuccess(FAST);
+        }
+    }
+
+    private static void fail(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.tryAcquirePermission(System.nanoTime()).onFailure(FAST);
+        }
+    }
+
+    @Test
+    void opensOnceTheFailureRateReachesTheThreshold() {
+        CircuitBreaker breaker = breaker(Long.MAX_VALUE);
+
+        succeed(breaker, 2);
+        fail(breaker, 1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail(breaker, 1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquirePermission(System.nanoTime()));
+        assertEquals(1L, breaker.stats().get("rejectedCalls"));
+    }
+
+    @Test
+    void opensOnSlowCallsEvenWhenTheySucceed() {
+        CircuitBreaker breaker = breaker(Long.MAX_VALUE);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquirePermission(System.nanoTime()).onSuccess(SLOW);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpenAdmitsOnlyTheProbesAndClosesWhenTheySucceed() {
+        CircuitBreaker breaker = breaker(0L);
+        fail(breaker, 4);
+
+        CircuitBreaker.Permission first = breaker.tryAcquirePermission(System.nanoTime());
+        CircuitBreaker.Permission second = breaker.tryAcquirePermission(System.nanoTime());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(first.isProbe() && second.isProbe());
+        assertNull(breaker.tryAcquirePermission(System.nanoTime()));
+
+        first.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        second.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.stats().get("recordedCalls"));
+    }
+
+    @Test
+    void aFailedOrSlowProbeReopens() {
+        CircuitBreaker breaker = breaker(0L);
+        fail(breaker, 4);
+        breaker.tryAcquirePermission(System.nanoTime()).onFailure(FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        breaker.tryAcquirePermission(System.nanoTime()).onSuccess(SLOW);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(3L, breaker.stats().get("timesOpened"));
+    }
+
+    @Test
+    void anIgnoredProbeFreesItsSlot() {
+        CircuitBreaker breaker = breaker(0L);
+        fail(breaker, 4);
+        CircuitBreaker.Permission first = breaker.tryAcquirePermission(System.nanoTime());
+        breaker.tryAcquirePermission(System.nanoTime());
+
+        first.onIgnored();
+        first.onIgnored(); // Reported twice: only the first report counts
+
+        assertNotNull(breaker.tryAcquirePermission(System.nanoTime()));
+        assertNull(breaker.tryAcquirePermission(System.nanoTime()));
+    }
+
+    @Test
+    void callsStartedWhileClosedDoNotCountAsProbes() {
+        CircuitBreaker breaker = breaker(0L);
+        CircuitBreaker.Permission early = breaker.tryAcquirePermission(System.nanoTime());
+        assertFalse(early.isProbe());
+        fail(breaker, 4);
+        CircuitBreaker.Permission probe = breaker.tryAcquirePermission(System.nanoTime());
+        breaker.tryAcquirePermission(System.nanoTime());
+
+        // The early call finishing (or being cancelled) neither closes the breaker nor frees a probe slot
+        early.onSuccess(FAST);
+        early.onIgnored();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNull(breaker.tryAcquirePermission(System.nanoTime()));
+
+        probe.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void lateOutcomesFromAnEarlierClosedPeriodAreDropped() {
+        CircuitBreaker breaker = breaker(0L);
+        CircuitBreaker.Permission stale = breaker.tryAcquirePermission(System.nanoTime());
+        fail(breaker, 4);
+        succeed(breaker, 2); // Both probes: closed again with a fresh window
+
+        stale.onFailure(FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.stats().get("recordedCalls"));
+    }
+}
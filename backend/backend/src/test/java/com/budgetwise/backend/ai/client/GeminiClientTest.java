@@ -0,0 +1,220 @@
+package com.budgetwise.backend.ai.client;
+
+import com.budgetwise.backend.exception.AiUnavailableException;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiClientTest {
+
+    private static final String ANSWER = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"hello\"}]}}]}";
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+    private final AtomicBoolean streamBodyCancelled = new AtomicBoolean();
+
+    private static Mono<ClientResponse> respond(HttpStatus status, String body) {
+        return Mono.just(ClientResponse.create(status)
+                .header("Content-Type", "application/json")
+                .body(body)
+                .build());
+    }
+
+    // An SSE response whose body is the given events followed by the rest (e.g. Flux.never())
+    private Mono<ClientResponse> respondStream(Flux<DataBuffer> rest, String... texts) {
+        Flux<DataBuffer> events = Flux.fromArray(texts)
+                .map(text -> "data: {\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}]}}]}\n\n")
+                .map(event -> DefaultDataBufferFactory.sharedInstance.wrap(event.getBytes(StandardCharsets.UTF_8)));
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header("Content-Type", "text/event-stream")
+                .body(events.concatWith(rest).doOnCancel(() -> streamBodyCancelled.set(true)))
+                .build());
+    }
+
+    private GeminiClient client(ExchangeFunction exchange, long timeoutMs, int maxConcurrency, int perUser) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    exchanges.incrementAndGet();
+                    return exchange.exchange(request);
+                })
+                .build();
+        // Breaker: opens after 2 calls at 100% failures and stays open
+        return new GeminiClient(webClient, webClient, timeoutMs, maxConcurrency, perUser,
+                2, 2, 1.0, 1.0, 60_000, 60_000, 1);
+    }
+
+    // Permits are released in doFinally, which may run just after block() has returned
+    private static void awaitPermits(GeminiClient client, int expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (client.availablePermits() != expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, client.availablePermits());
+    }
+
+    @Test
+    void returnsTheFirstCandidateText() {
+        GeminiClient client = client(request -> respond(HttpStatus.OK, ANSWER), 1_000, 2, 2);
+
+        assertEquals("hello", client.generate("prompt").block());
+        assertEquals(2, client.availablePermits());
+    }
+
+    @Test
+    void timesOutAndReleasesThePermit() {
+        GeminiClient client = client(request -> Mono.never(), 100, 1, 1);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> client.generate("prompt").contextWrite(GeminiClient.forUser(1L)).block());
+
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        awaitPermits(client, 1);
+        // The per-user permit came back too: the next call times out again instead of being rejected
+        RuntimeException again = assertThrows(RuntimeException.class,
+                () -> client.generate("prompt").contextWrite(GeminiClient.forUser(1L)).block());
+        assertInstanceOf(TimeoutException.class, again.getCause());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimitUntilAPermitIsReleased() {
+        GeminiClient client = client(request -> Mono.delay(Duration.ofMillis(200))
+                .then(respond(HttpStatus.OK, ANSWER)), 1_000, 1, 5);
+
+        Disposable first = client.generate("first").subscribe();
+        try {
+            assertEquals(0, client.availablePermits());
+            assertThrows(ServiceBusyException.class, () -> client.generate("second").block());
+        } finally {
+            first.dispose();
+        }
+
+        // Disposing the caller does not cut the shared call short; joining it still gets the answer
+        assertEquals("hello", client.generate("first").block());
+        awaitPermits(client, 1);
+        assertEquals("hello", client.generate("second").block());
+    }
+
+    @Test
+    void perUserLimitRejectsTheUsersExtraCalls() {
+        GeminiClient client = client(request -> Mono.delay(Duration.ofMillis(200))
+                .then(respond(HttpStatus.OK, ANSWER)), 1_000, 5, 1);
+
+        Disposable first = client.generate("first").contextWrite(GeminiClient.forUser(7L)).subscribe();
+        try {
+            assertThrows(TooManyRequestsException.class,
+                    () -> client.generate("second").contextWrite(GeminiClient.forUser(7L)).block());
+            // Another user is not affected
+            assertEquals("hello", client.generate("second").contextWrite(GeminiClient.forUser(8L)).block());
+        } finally {
+            first.dispose();
+        }
+    }
+
+    @Test
+    void identicalConcurrentPromptsShareOneUpstreamCall() {
+        GeminiClient client = client(request -> Mono.delay(Duration.ofMillis(100))
+                .then(respond(HttpStatus.OK, ANSWER)), 1_000, 1, 1);
+
+        Mono<String> first = client.generate("same").contextWrite(GeminiClient.forUser(1L));
+        Mono<String> second = client.generate("same").contextWrite(GeminiClient.forUser(1L));
+
+        assertEquals("hello hello", Mono.zip(first, second, (a, b) -> a + " " + b).block());
+        assertEquals(1, exchanges.get());
+        assertEquals(1L, client.stats().get("coalescedCalls"));
+        awaitPermits(client, 1);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        GeminiClient client = client(request -> respond(HttpStatus.BAD_REQUEST, "{}"), 1_000, 1, 1);
+
+        for (int i = 0; i < 3; i++) {
+            String prompt = "bad " + i;
+            assertThrows(RuntimeException.class, () -> client.generate(prompt).block());
+        }
+
+        assertEquals("CLOSED", client.circuitStats().get("state"));
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCallingUpstream() {
+        GeminiClient client = client(request -> respond(HttpStatus.SERVICE_UNAVAILABLE, "{}"), 1_000, 1, 1);
+        assertThrows(RuntimeException.class, () -> client.generate("a").block());
+        assertThrows(RuntimeException.class, () -> client.generate("b").block());
+
+        assertThrows(AiUnavailableException.class, () -> client.generate("c").block());
+        assertEquals(2, exchanges.get());
+    }
+
+    @Test
+    void streamEmitsEachChunkAndReleasesThePermitsAtTheEnd() {
+        GeminiClient client = client(request -> respondStream(Flux.empty(), "You ", "saved ", "more."), 1_000, 2, 1);
+
+        List<String> chunks = client.stream("prompt").contextWrite(GeminiClient.forUser(1L)).collectList().block();
+
+        assertEquals(List.of("You ", "saved ", "more."), chunks);
+        awaitPermits(client, 2);
+        // The per-user permit is back too
+        assertEquals(3, client.stream("prompt").contextWrite(GeminiClient.forUser(1L)).count().block());
+    }
+
+    @Test
+    void cancellingAStreamAbortsTheUpstreamBodyAndReleasesThePermits() {
+        GeminiClient client = client(request -> respondStream(Flux.never(), "first"), 1_000, 1, 1);
+
+        assertEquals("first", client.stream("prompt").contextWrite(GeminiClient.forUser(1L)).blockFirst());
+
+        assertTrue(streamBodyCancelled.get());
+        awaitPermits(client, 1);
+    }
+
+    @Test
+    void theStreamTimeoutAppliesBetweenChunks() {
+        GeminiClient client = client(request -> respondStream(Flux.never(), "first"), 100, 1, 1);
+
+        List<String> received = new ArrayList<>();
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> client.stream("prompt").doOnNext(received::add).blockLast());
+
+        assertEquals(List.of("first"), received);
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        awaitPermits(client, 1);
+    }
+
+    @Test
+    void anOpenStreamCountsAgainstTheUsersLimit() {
+        GeminiClient client = client(request -> respondStream(Flux.never(), "first"), 5_000, 5, 1);
+
+        Disposable open = client.stream("prompt").contextWrite(GeminiClient.forUser(7L)).subscribe();
+        try {
+            assertThrows(TooManyRequestsException.class,
+                    () -> client.stream("prompt").contextWrite(GeminiClient.forUser(7L)).blockFirst());
+            assertThrows(TooManyRequestsException.class,
+                    () -> client.generate("other").contextWrite(GeminiClient.forUser(7L)).block());
+        } finally {
+            open.dispose();
+        }
+        awaitPermits(client, 5);
+    }
+}
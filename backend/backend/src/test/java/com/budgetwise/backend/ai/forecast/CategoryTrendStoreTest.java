@@ -0,0 +1,72 @@
+package com.budgetwise.backend.ai.forecast;
+
+import com.budgetwise.backend.ai.dto.CategoryTrendDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CategoryTrendStoreTest {
+
+    private static final int CURRENT = 2026 * 12 + 9; // October 2026
+
+    @Test
+    void fitsTheCompleteMonthsOnly() {
+        CategoryTrendStore.Trend trend = new CategoryTrendStore.Trend(CURRENT - 4);
+        trend.add(CURRENT - 4, 100);
+        trend.add(CURRENT - 3, 110);
+        trend.add(CURRENT - 2, 120);
+        trend.add(CURRENT - 1, 130);
+        trend.add(CURRENT, 999); // This month is still running
+
+        CategoryTrendDto dto = trend.toDto("Food", CURRENT);
+
+        assertEquals(4, dto.getMonthsObserved());
+        assertEquals(10, dto.getMonthlyChange(), 1e-9);
+        assertEquals(140, dto.getProjectedThisMonth(), 1e-9);
+        assertEquals(150, dto.getProjectedNextMonth(), 1e-9);
+    }
+
+    @Test
+    void aBackDatedTransactionShiftsTheOriginWithoutChangingTheFit() {
+        // Built in date order...
+        CategoryTrendStore.Trend inOrder = new CategoryTrendStore.Trend(CURRENT - 20);
+        inOrder.add(CURRENT - 20, 40);
+        inOrder.add(CURRENT - 6, 80);
+        inOrder.add(CURRENT - 3, 95);
+        inOrder.add(CURRENT - 1, 120);
+
+        // ...and with the oldest month arriving last, 14 months before the origin
+        // (past the initial array, so the totals have to grow as well)
+        CategoryTrendStore.Trend shifted = new CategoryTrendStore.Trend(CURRENT - 6);
+        shifted.add(CURRENT - 6, 80);
+        shifted.add(CURRENT - 3, 95);
+        shifted.add(CURRENT - 1, 120);
+        shifted.add(CURRENT - 20, 40);
+
+        assertEquals(inOrder.originMonth, shifted.originMonth);
+        assertEquals(inOrder.span, shifted.span);
+        assertEquals(inOrder.sumY, shifted.sumY, 1e-9);
+        assertEquals(inOrder.sumXY, shifted.sumXY, 1e-9);
+        for (int x = 0; x < inOrder.span; x++) {
+            assertEquals(inOrder.totals[x], shifted.totals[x], 1e-9, "month " + x);
+        }
+
+        CategoryTrendDto expected = inOrder.toDto("Food", CURRENT);
+        CategoryTrendDto actual = shifted.toDto("Food", CURRENT);
+        assertEquals(20, actual.getMonthsObserved());
+        assertEquals(expected.getMonthlyChange(), actual.getMonthlyChange(), 1e-9);
+        assertEquals(expected.getProjectedNextMonth(), actual.getProjectedNextMonth(), 1e-9);
+    }
+
+    @Test
+    void removingAnAmountUndoesIt() {
+        CategoryTrendStore.Trend trend = new CategoryTrendStore.Trend(CURRENT - 3);
+        trend.add(CURRENT - 3, 50);
+        trend.add(CURRENT - 2, 70);
+        trend.add(CURRENT - 1, 90);
+        trend.add(CURRENT - 2, 500);
+        trend.add(CURRENT - 2, -500); // The delete side of the same transaction
+
+        assertEquals(20, trend.toDto("Food", CURRENT).getMonthlyChange(), 1e-9);
+    }
+}
@@ -0,0 +1,102 @@
+package com.budgetwise.backend.ai.forecast;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fitting monthly expense series: one 36-month series on its own, and a batch of
+ * thousands (many users' categories) fitted one after another or on a ForkJoinPool
+ * sized to the machine, the way the forecastPool runs them.
+ * The series mix a trend, a yearly season and noise, so both models get picked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseForecasterBenchmark {
+
+    private static final int MONTHS = 36;
+    private static final int HORIZON = 6;
+
+    @Param({"4000"})
+    private int seriesCount;
+
+    private double[][] series;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        series = new double[seriesCount][MONTHS];
+        for (double[] y : series) {
+            double level = 50 + random.nextDouble() * 950;
+            double trend = (random.nextDouble() - 0.5) * level * 0.02;
+            double season = random.nextDouble() * level * 0.3;
+            for (int m = 0; m < MONTHS; m++) {
+                double value = level + trend * m + season * Math.sin(2 * Math.PI * m / 12)
+                        + random.nextGaussian() * level * 0.1;
+                y[m] = Math.max(0, value);
+            }
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ExpenseForecaster.SeriesForecast oneSeries() {
+        return ExpenseForecaster.fitSeries(series[0], HORIZON);
+    }
+
+    @Benchmark
+    public int batchSequential() {
+        int holtWinters = 0;
+        for (double[] y : series) {
+            holtWinters += isHoltWinters(ExpenseForecaster.fitSeries(y, HORIZON));
+        }
+        return holtWinters;
+    }
+
+    @Benchmark
+    public int batchParallel() throws InterruptedException, ExecutionException {
+        List<Callable<ExpenseForecaster.SeriesForecast>> fits = new ArrayList<>(series.length);
+        for (double[] y : series) {
+            fits.add(() -> ExpenseForecaster.fitSeries(y, HORIZON));
+        }
+        int holtWinters = 0;
+        for (Future<ExpenseForecaster.SeriesForecast> future : pool.invokeAll(fits)) {
+            holtWinters += isHoltWinters(future.get());
+        }
+        return holtWinters;
+    }
+
+    // --- Helper Methods ---
+
+    private static int isHoltWinters(ExpenseForecaster.SeriesForecast fit) {
+        return fit.model().equals("linear") ? 0 : 1;
+    }
+}
@@ -0,0 +1,88 @@
+package com.budgetwise.backend.ai.forecast;
+
+import com.budgetwise.backend.ai.dto.ExpenseForecastDto;
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExpenseForecasterTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shortSeriesFallBackToTheMean() {
+        ExpenseForecaster.SeriesForecast fit = ExpenseForecaster.fitSeries(new double[]{100, 200}, 3);
+
+        assertEquals("mean", fit.model());
+        assertEquals(3, fit.mean().length);
+        assertEquals(150, fit.mean()[2], 1e-9);
+    }
+
+    @Test
+    void aStraightLineIsForecastByTheLinearModel() {
+        double[] y = new double[24];
+        for (int t = 0; t < y.length; t++) {
+            y[t] = 200 + 5 * t;
+        }
+
+        ExpenseForecaster.SeriesForecast fit = ExpenseForecaster.fitSeries(y, 2);
+
+        assertEquals("linear", fit.model());
+        assertEquals(320, fit.mean()[0], 1e-6);
+        assertEquals(325, fit.mean()[1], 1e-6);
+    }
+
+    @Test
+    void aSeasonalSeriesIsForecastByHoltWinters() {
+        double[] y = HoltWintersTest.seasonal(36);
+
+        ExpenseForecaster.SeriesForecast fit = ExpenseForecaster.fitSeries(y, 12);
+
+        assertEquals("holt-winters", fit.model());
+        assertEquals(12, fit.standardError().length);
+    }
+
+    @Test
+    void forecastsAreCachedPerDataVersion() {
+        UserMonthCategoryRollupRepository rollups = mock(UserMonthCategoryRollupRepository.class);
+        UserDataVersionTracker versions = mock(UserDataVersionTracker.class);
+        YearMonth current = YearMonth.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            rows.add(new Object[]{current.minusMonths(i).atDay(1), "Food", 100.0 + i});
+        }
+        when(rollups.findExpenseSeries(eq(1L), any(), any())).thenReturn(rows);
+        when(versions.current(1L)).thenReturn(4L, 4L, 5L);
+        ExpenseForecaster forecaster = new ExpenseForecaster(rollups, versions, pool, 36, 1, 1.645, 10);
+
+        ExpenseForecastDto first = forecaster.forecast(1L, 3);
+        assertSame(first, forecaster.forecast(1L, 3));
+        forecaster.forecast(1L, 3); // New data version
+
+        verify(rollups, times(2)).findExpenseSeries(eq(1L), any(), any());
+        // max-horizon caps the horizon; a horizon of 1 is just the current month
+        assertEquals(1, first.getForecast().size());
+        assertTrue(first.getHistory().size() >= 6);
+    }
+}
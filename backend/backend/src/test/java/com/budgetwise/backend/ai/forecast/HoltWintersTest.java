@@ -0,0 +1,71 @@
+package com.budgetwise.backend.ai.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HoltWintersTest {
+
+    // 100 + 2t plus a fixed 12-month pattern
+    static double[] seasonal(int months) {
+        double[] pattern = {-30, -20, -5, 0, 5, 10, 20, 40, 10, 0, -10, -20};
+        double[] y = new double[months];
+        for (int t = 0; t < months; t++) {
+            y[t] = 100 + 2 * t + pattern[t % 12];
+        }
+        return y;
+    }
+
+    @Test
+    void followsAnExactLinearTrendWithoutError() {
+        double[] y = new double[20];
+        for (int t = 0; t < y.length; t++) {
+            y[t] = 10 + 2 * t;
+        }
+
+        HoltWinters model = HoltWinters.fit(y, 12);
+
+        assertFalse(model.isSeasonal()); // Fewer than two seasons
+        assertEquals(50, model.forecast(1), 1e-9);
+        assertEquals(60, model.forecast(6), 1e-9);
+        assertEquals(0, model.getResidualStdDev(), 1e-9);
+    }
+
+    @Test
+    void picksUpTheSeasonalPatternWithTwoSeasonsOfData() {
+        double[] y = seasonal(36);
+
+        HoltWinters model = HoltWinters.fit(y, 12);
+
+        assertTrue(model.isSeasonal());
+        double[] truth = seasonal(48);
+        for (int h = 1; h <= 12; h++) {
+            assertEquals(truth[35 + h], model.forecast(h), 5.0, "step " + h);
+        }
+    }
+
+    @Test
+    void standardErrorGrowsWithTheHorizon() {
+        double[] y = seasonal(30);
+        // Noise that does not repeat every season, so the seasonal terms cannot absorb it
+        y[14] += 15;
+        y[19] -= 10;
+        y[27] += 12;
+
+        HoltWinters model = HoltWinters.fit(y, 12);
+
+        assertTrue(model.getResidualStdDev() > 0);
+        assertEquals(model.getResidualStdDev(), model.standardError(1), 1e-12);
+        for (int h = 2; h <= 6; h++) {
+            assertTrue(model.standardError(h) >= model.standardError(h - 1));
+        }
+    }
+
+    @Test
+    void needsAtLeastThreePoints() {
+        assertThrows(IllegalArgumentException.class, () -> HoltWinters.fit(new double[]{1, 2}, 12));
+    }
+}
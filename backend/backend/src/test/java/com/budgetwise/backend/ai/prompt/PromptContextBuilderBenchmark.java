@@ -0,0 +1,73 @@
+package com.budgetwise.backend.ai.prompt;
+
+import com.budgetwise.backend.dto.TransactionDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the prompt context from 1k, 10k and 100k transactions, against what the
+ * prompts used before: the whole history serialized with ObjectMapper.
+ * The history has a realistic shape: ~40 payees, some monthly, over five years.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptContextBuilderBenchmark {
+
+    private static final String[] CATEGORIES = {"Food", "Rent", "Transport", "Utilities", "Fun", "Health", "Shopping"};
+    private static final String[] TYPES = {"EXPENSE", "EXPENSE", "EXPENSE", "EXPENSE", "INCOME", "SAVINGS"};
+
+    @Param({"1000", "10000", "100000"})
+    private int transactions;
+
+    private final PromptContextBuilder builder = new PromptContextBuilder(1200);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private List<TransactionDto> history;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2021, 1, 1);
+        history = new ArrayList<>(transactions);
+        for (int i = 0; i < transactions; i++) {
+            TransactionDto t = new TransactionDto();
+            t.setId((long) i);
+            t.setType(TYPES[random.nextInt(TYPES.length)]);
+            t.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            t.setDescription("Payee " + random.nextInt(40));
+            t.setAmount(Math.round(random.nextDouble() * 50_000) / 100.0);
+            t.setDate(start.plusDays(random.nextInt(5 * 365)));
+            history.add(t);
+        }
+    }
+
+    @Benchmark
+    public String contextBuilder() {
+        return builder.build(history);
+    }
+
+    @Benchmark
+    public String fullJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(history);
+    }
+}
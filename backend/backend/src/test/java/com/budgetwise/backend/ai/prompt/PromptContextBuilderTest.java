@@ -0,0 +1,106 @@
+package com.budgetwise.backend.ai.prompt;
+
+import com.budgetwise.backend.dto.TransactionDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromptContextBuilderTest {
+
+    private final PromptContextBuilder builder = new PromptContextBuilder(1200);
+
+    private static TransactionDto tx(long id, LocalDate date, String type, String category, double amount, String description) {
+        TransactionDto t = new TransactionDto();
+        t.setId(id);
+        t.setDate(date);
+        t.setType(type);
+        t.setCategory(category);
+        t.setAmount(amount);
+        t.setDescription(description);
+        return t;
+    }
+
+    // Three years of daily expenses in a few categories, plus a monthly salary and subscription
+    private static List<TransactionDto> history(int days) {
+        List<TransactionDto> transactions = new ArrayList<>();
+        String[] categories = {"Food", "Transport", "Rent", "Fun"};
+        LocalDate start = LocalDate.of(2022, 1, 1);
+        long id = 1;
+        for (int d = 0; d < days; d++) {
+            LocalDate date = start.plusDays(d);
+            transactions.add(tx(id++, date, "EXPENSE", categories[d % categories.length], 10 + d % 37, "Shop " + d));
+            if (date.getDayOfMonth() == 1) {
+                transactions.add(tx(id++, date, "INCOME", "Salary", 3000, "Payroll"));
+                transactions.add(tx(id++, date, "EXPENSE", "Fun", 12.99, "NETFLIX #" + d));
+            }
+        }
+        return transactions;
+    }
+
+    @Test
+    void staysWithinTheTokenBudgetHoweverLongTheHistory() {
+        for (int budget : new int[] {100, 300, 1200}) {
+            String small = builder.build(history(60), budget);
+            String large = builder.build(history(3 * 365), budget);
+
+            assertTrue(PromptContextBuilder.estimateTokens(small) <= budget, "60 days over " + budget);
+            assertTrue(PromptContextBuilder.estimateTokens(large) <= budget, "3 years over " + budget);
+            assertTrue(large.startsWith("Overview: "));
+        }
+    }
+
+    @Test
+    void fillsSectionsInOrderAndCarriesUnusedBudgetForward() {
+        String context = builder.build(history(3 * 365), 1200);
+
+        int monthly = context.indexOf("Monthly totals");
+        int largest = context.indexOf("Largest expenses:");
+        int recurring = context.indexOf("Recurring payees:");
+        int recent = context.indexOf("Most recent transactions:");
+        assertTrue(monthly > 0 && monthly < largest && largest < recurring && recurring < recent, context);
+
+        // Newest month first; Netflix is recurring despite the varying reference numbers
+        assertTrue(context.indexOf("2024-12:") < context.indexOf("2024-11:"), context);
+        assertTrue(context.contains("  netflix: 36 months, avg 12.99"), context);
+    }
+
+    @Test
+    void aTightBudgetKeepsTheOverviewAndDropsSectionsThatDoNotFit() {
+        String context = builder.build(history(3 * 365), 40);
+
+        assertTrue(context.startsWith("Overview: 1167 transactions from 2022-01-01 to 2024-12-30;"), context);
+        assertFalse(context.contains("Largest expenses:"), context);
+    }
+
+    @Test
+    void payeesMatchWhateverTheCaseDigitsAndPunctuation() {
+        assertEquals("netflix", PromptContextBuilder.normalizePayee("NETFLIX #1234"));
+        assertEquals("amazon com marketplace", PromptContextBuilder.normalizePayee("  Amazon.COM*Marketplace\t42 "));
+        assertEquals("caf paris", PromptContextBuilder.normalizePayee("Café-Paris"));
+        assertEquals("", PromptContextBuilder.normalizePayee("#1234 / 5678"));
+        assertEquals("", PromptContextBuilder.normalizePayee(null));
+    }
+
+    @Test
+    void emptyHistoryHasAPlaceholder() {
+        assertEquals("No transactions recorded yet.", builder.build(List.of()));
+    }
+
+    @Test
+    void describeKeepsTheGivenOrderWithinTheDefaultBudget() {
+        PromptContextBuilder tight = new PromptContextBuilder(50);
+        List<TransactionDto> selected = history(40);
+
+        String described = tight.describe(selected);
+
+        assertTrue(described.startsWith("Relevant transactions:\n  2022-01-01 EXPENSE Food 10.00 \"Shop 0\""), described);
+        assertTrue(PromptContextBuilder.estimateTokens(described) <= 50, described);
+        assertTrue(described.lines().count() < selected.size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.budgetwise.backend.ai.prompt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromptContextLoaderTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final PromptContextLoader loader = new PromptContextLoader(executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void returnsOnceEveryTaskHasFinished() {
+        CompletableFuture<String> summary = loader.fork(() -> "summary");
+        CompletableFuture<Integer> count = loader.fork(() -> 42);
+
+        loader.awaitAll(summary, count);
+
+        assertEquals("summary", summary.join());
+        assertEquals(42, count.join());
+    }
+
+    @Test
+    void aFailureRethrowsItAndInterruptsTheOtherTasks() throws Exception {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch slowInterrupted = new CountDownLatch(1);
+        CompletableFuture<String> slow = loader.fork(() -> {
+            slowStarted.countDown();
+            try {
+                Thread.sleep(60_000);
+                return "too late";
+            } catch (InterruptedException e) {
+                slowInterrupted.countDown();
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> failing = loader.fork(() -> {
+            throw new IllegalArgumentException("query failed");
+        });
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> loader.awaitAll(slow, failing));
+
+        assertEquals("query failed", error.getMessage());
+        assertTrue(slow.isCancelled());
+        assertTrue(slowInterrupted.await(5, TimeUnit.SECONDS), "the slow task's thread was not interrupted");
+    }
+}
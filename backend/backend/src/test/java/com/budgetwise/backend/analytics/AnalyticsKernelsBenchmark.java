@@ -0,0 +1,181 @@
+package com.budgetwise.backend.analytics;
+
+import com.budgetwise.backend.dto.TransactionDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The column kernels against the object code they replaced, on the same data.
+ *
+ * - categoryTotals*: LocalInsightGenerator's expense totals per category, as the old
+ *   HashMap merge over TransactionDto and as fromDtos + groupBySumWhere
+ *   (with and without the cost of building the columns)
+ * - spendingAnalytics*: one year's expenses per category plus a histogram, with streams
+ *   and with fromRows + the selection-vector kernels. Both start from the rows
+ *   findColumnsByUserId returns, which the query already limits to the year
+ * - leastSquares*: the four regression sums with one accumulator set and with leastSquaresSums
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsKernelsBenchmark {
+
+    private static final String[] CATEGORIES = {"Food", "Rent", "Transport", "Utilities", "Fun", "Health",
+            "Shopping", "Travel", "Gifts", "Education", "Insurance", "Pets"};
+    private static final String[] TYPES = {"EXPENSE", "EXPENSE", "EXPENSE", "INCOME", "SAVINGS"};
+    private static final LocalDate START = LocalDate.of(2021, 1, 1);
+    private static final LocalDate FROM = LocalDate.of(2023, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2023, 12, 31);
+    private static final int BUCKETS = 10;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private List<TransactionDto> dtos;
+    private List<Object[]> projection;
+    private TransactionColumns columns;
+    private double[] x;
+    private double[] y;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        dtos = new ArrayList<>(rows);
+        projection = new ArrayList<>();
+        x = new double[rows];
+        y = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            LocalDate date = START.plusDays(random.nextInt(5 * 365));
+            double amount = Math.round(random.nextDouble() * 50_000) / 100.0;
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            String type = TYPES[random.nextInt(TYPES.length)];
+
+            TransactionDto t = new TransactionDto();
+            t.setDate(date);
+            t.setAmount(amount);
+            t.setCategory(category);
+            t.setType(type);
+            dtos.add(t);
+            if (!date.isBefore(FROM) && !date.isAfter(TO)) {
+                projection.add(new Object[]{date, amount, category, type});
+            }
+            x[i] = i;
+            y[i] = amount;
+        }
+        columns = TransactionColumns.fromDtos(dtos);
+    }
+
+    // --- Category totals ---
+
+    @Benchmark
+    public Map<String, Double> categoryTotalsHashMap() {
+        Map<String, Double> totals = new HashMap<>();
+        for (TransactionDto t : dtos) {
+            if ("EXPENSE".equalsIgnoreCase(t.getType())) {
+                String category = t.getCategory() == null || t.getCategory().isBlank() ? "Uncategorized" : t.getCategory();
+                totals.merge(category, t.getAmount(), Double::sum);
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public double[] categoryTotalsColumns() {
+        TransactionColumns built = TransactionColumns.fromDtos(dtos);
+        double[] sums = new double[built.categoryCount()];
+        AnalyticsKernels.groupBySumWhere(built.categoryCodes(), built.amounts(), built.typeCodes(),
+                TransactionColumns.EXPENSE, built.size(), sums);
+        return sums;
+    }
+
+    @Benchmark
+    public double[] categoryTotalsKernelOnly() {
+        double[] sums = new double[columns.categoryCount()];
+        AnalyticsKernels.groupBySumWhere(columns.categoryCodes(), columns.amounts(), columns.typeCodes(),
+                TransactionColumns.EXPENSE, columns.size(), sums);
+        return sums;
+    }
+
+    // --- Spending analytics ---
+
+    @Benchmark
+    public void spendingAnalyticsStreams(Blackhole blackhole) {
+        List<Object[]> expenses = projection.stream()
+                .filter(row -> !((LocalDate) row[0]).isBefore(FROM) && !((LocalDate) row[0]).isAfter(TO))
+                .filter(row -> "EXPENSE".equalsIgnoreCase((String) row[3]))
+                .toList();
+        Map<String, Double> byCategory = expenses.stream()
+                .collect(Collectors.groupingBy(row -> (String) row[2],
+                        Collectors.summingDouble(row -> ((Number) row[1]).doubleValue())));
+        double max = expenses.stream().mapToDouble(row -> ((Number) row[1]).doubleValue()).max().orElse(0);
+        double width = max > 0 ? max / BUCKETS : 1;
+        Map<Integer, Long> histogram = expenses.stream()
+                .collect(Collectors.groupingBy(
+                        row -> Math.min(BUCKETS - 1, (int) (((Number) row[1]).doubleValue() / width)),
+                        Collectors.counting()));
+        blackhole.consume(byCategory);
+        blackhole.consume(histogram);
+        blackhole.consume(expenses.stream().mapToDouble(row -> ((Number) row[1]).doubleValue()).sum());
+    }
+
+    @Benchmark
+    public void spendingAnalyticsKernels(Blackhole blackhole) {
+        TransactionColumns built = TransactionColumns.fromRows(projection);
+        double[] amounts = built.amounts();
+        int[] selection = new int[built.size()];
+        int count = AnalyticsKernels.selectRange(built.epochDays(), built.size(),
+                FROM.toEpochDay(), TO.toEpochDay(), selection);
+        count = AnalyticsKernels.refineEquals(built.typeCodes(), TransactionColumns.EXPENSE, selection, count);
+        double[] sums = new double[built.categoryCount()];
+        AnalyticsKernels.groupBySumSelected(built.categoryCodes(), amounts, selection, count, sums);
+        double max = AnalyticsKernels.maxSelected(amounts, selection, count);
+        long[] histogram = new long[BUCKETS];
+        AnalyticsKernels.histogramSelected(amounts, selection, count, 0, max > 0 ? max / BUCKETS : 1, histogram);
+        blackhole.consume(sums);
+        blackhole.consume(histogram);
+        blackhole.consume(AnalyticsKernels.sumSelected(amounts, selection, count));
+    }
+
+    // --- Regression sums ---
+
+    @Benchmark
+    public double[] leastSquaresOneAccumulator() {
+        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
+        for (int i = 0; i < rows; i++) {
+            sumX += x[i];
+            sumY += y[i];
+            sumXY += x[i] * y[i];
+            sumX2 += x[i] * x[i];
+        }
+        return new double[]{sumX, sumY, sumXY, sumX2};
+    }
+
+    @Benchmark
+    public double[] leastSquaresKernel() {
+        double[] sums = new double[4];
+        AnalyticsKernels.leastSquaresSums(x, y, rows, sums);
+        return sums;
+    }
+}
@@ -0,0 +1,86 @@
+package com.budgetwise.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalyticsKernelsTest {
+
+    @Test
+    void selectRangeKeepsTheRowsInsideTheInclusiveRange() {
+        long[] days = {5, 10, 15, 20, TransactionColumns.NO_DATE, 10};
+        int[] selection = new int[days.length];
+
+        int count = AnalyticsKernels.selectRange(days, days.length, 10, 15, selection);
+
+        assertEquals(3, count);
+        assertArrayEquals(new int[]{1, 2, 5}, Arrays.copyOf(selection, count));
+    }
+
+    @Test
+    void refineEqualsNarrowsASelectionInPlace() {
+        long[] days = {1, 2, 3, 4, 5, 6};
+        int[] types = {TransactionColumns.EXPENSE, TransactionColumns.INCOME, TransactionColumns.EXPENSE,
+                TransactionColumns.EXPENSE, TransactionColumns.INCOME, TransactionColumns.EXPENSE};
+        int[] selection = new int[days.length];
+
+        int count = AnalyticsKernels.selectRange(days, days.length, 2, 5, selection);
+        count = AnalyticsKernels.refineEquals(types, TransactionColumns.EXPENSE, selection, count);
+
+        assertEquals(2, count);
+        assertArrayEquals(new int[]{2, 3}, Arrays.copyOf(selection, count));
+        assertEquals(0, AnalyticsKernels.refineEquals(types, TransactionColumns.SAVINGS, selection, count));
+    }
+
+    @Test
+    void selectedAggregationsOnlySeeTheSelectedRows() {
+        double[] amounts = {10, 20, 30, 40};
+        int[] keys = {0, 1, 0, 1};
+        int[] selection = {0, 2, 3};
+        double[] sums = new double[2];
+
+        AnalyticsKernels.groupBySumSelected(keys, amounts, selection, 3, sums);
+
+        assertArrayEquals(new double[]{40, 40}, sums, 1e-12);
+        assertEquals(80, AnalyticsKernels.sumSelected(amounts, selection, 3), 1e-12);
+        assertEquals(40, AnalyticsKernels.maxSelected(amounts, selection, 3), 1e-12);
+    }
+
+    @Test
+    void leastSquaresSumsMatchAPlainLoopForEverySizeRemainder() {
+        for (int size = 0; size <= 11; size++) {
+            double[] x = new double[size];
+            double[] y = new double[size];
+            for (int i = 0; i < size; i++) {
+                x[i] = i * 0.5 + 1;
+                y[i] = 3 * i - 7 + (i % 3);
+            }
+            double sx = 0, sy = 0, sxy = 0, sxx = 0;
+            for (int i = 0; i < size; i++) {
+                sx += x[i];
+                sy += y[i];
+                sxy += x[i] * y[i];
+                sxx += x[i] * x[i];
+            }
+            double[] sums = new double[4];
+
+            AnalyticsKernels.leastSquaresSums(x, y, size, sums);
+
+            assertArrayEquals(new double[]{sx, sy, sxy, sxx}, sums, 1e-9, "size " + size);
+        }
+    }
+
+    @Test
+    void histogramClampsValuesOutsideTheBucketsToTheEnds() {
+        double[] values = {-5, 0, 9.99, 10, 25, 39.9, 40, 1_000};
+        int[] selection = {0, 1, 2, 3, 4, 5, 6, 7};
+        long[] buckets = new long[4]; // [0,10) [10,20) [20,30) [30,40]
+
+        AnalyticsKernels.histogramSelected(values, selection, selection.length, 0, 10, buckets);
+
+        assertArrayEquals(new long[]{3, 1, 1, 3}, buckets);
+    }
+}
@@ -0,0 +1,48 @@
+package com.budgetwise.backend.analytics;
+
+import com.budgetwise.backend.dto.TransactionDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionColumnsTest {
+
+    @Test
+    void categoriesDifferingOnlyInCaseShareACodeAndKeepTheFirstSpelling() {
+        TransactionColumns columns = TransactionColumns.fromDtos(List.of(
+                tx("Food", "EXPENSE"), tx("food", "EXPENSE"), tx("Rent", "EXPENSE"), tx("FOOD", "EXPENSE"), tx(" ", "EXPENSE"),
+                tx("food", "EXPENSE"), tx("Rent", "EXPENSE")));
+
+        assertEquals(3, columns.categoryCount());
+        assertArrayEquals(new int[]{0, 0, 1, 0, 2, 0, 1}, columns.categoryCodes());
+        assertEquals("Food", columns.categoryName(0));
+        assertEquals("Uncategorized", columns.categoryName(2));
+    }
+
+    @Test
+    void typeCodesDoNotDependOnTheDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR")); // "income".toUpperCase() would give "İNCOME"
+        try {
+            assertEquals(TransactionColumns.INCOME, TransactionColumns.typeCode("income"));
+            assertEquals(TransactionColumns.EXPENSE, TransactionColumns.typeCode("Expense"));
+            assertEquals(TransactionColumns.OTHER, TransactionColumns.typeCode(null));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    private static TransactionDto tx(String category, String type) {
+        TransactionDto dto = new TransactionDto();
+        dto.setCategory(category);
+        dto.setType(type);
+        dto.setAmount(10);
+        dto.setDate(LocalDate.of(2026, 10, 1));
+        return dto;
+    }
+}
@@ -0,0 +1,110 @@
+package com.budgetwise.backend.cache;
+
+import com.budgetwise.backend.ai.fallback.LocalInsightGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AiResponseCacheTest {
+
+    private UserDataVersionTracker versionTracker;
+    private AiResponseCache cache;
+    private final AtomicInteger generated = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        versionTracker = mock(UserDataVersionTracker.class);
+        when(versionTracker.current(1L)).thenReturn(4L);
+        cache = new AiResponseCache(versionTracker, 2, 30);
+    }
+
+    @Test
+    void aRepeatedRequestIsAnsweredFromTheCache() {
+        assertEquals("answer 1", compute("insights", "{summary}"));
+        assertEquals("answer 1", compute("insights", "{summary}"));
+
+        assertEquals(1, generated.get());
+        assertEquals(1L, cache.stats().get("hits"));
+    }
+
+    @Test
+    void differentInputsAreCachedSeparately() {
+        compute("insights", "{summary}");
+        assertEquals("answer 2", compute("insights", "{other summary}"));
+        assertEquals("answer 3", compute("breakdown", "{summary}"));
+    }
+
+    @Test
+    void aNewDataVersionInvalidatesTheEntry() {
+        compute("insights", "{summary}");
+        when(versionTracker.current(1L)).thenReturn(5L);
+
+        assertEquals("answer 2", compute("insights", "{summary}"));
+    }
+
+    @Test
+    void errorsAndOfflineFallbacksAreNotCached() {
+        List<String> uncacheable = List.of("Error: quota exceeded", LocalInsightGenerator.OFFLINE_NOTE + "You spent less.");
+        for (String text : uncacheable) {
+            cache.getOrCompute("insights", 1L, text, () -> Mono.just(text)).block();
+            cache.getOrCompute("insights", 1L, text, () -> Mono.just("fresh")).block();
+            assertEquals("fresh", cache.getOrCompute("insights", 1L, text, () -> Mono.just("again")).block());
+        }
+    }
+
+    @Test
+    void theLeastRecentlyUsedEntryIsEvicted() {
+        compute("a", "");
+        compute("b", "");
+        compute("a", ""); // "b" is now the eldest
+        compute("c", "");
+
+        assertEquals(3, generated.get());
+        assertEquals("answer 1", compute("a", ""));
+        assertEquals("answer 4", compute("b", ""));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        cache = new AiResponseCache(versionTracker, 2, 0);
+
+        compute("insights", "");
+        assertEquals("answer 2", compute("insights", ""));
+    }
+
+    @Test
+    void aCompletedStreamIsCachedAsOneChunk() {
+        List<String> first = cache.getOrStream("insights", 1L, "", () -> Flux.just("You ", "saved ", "more.")).collectList().block();
+        List<String> second = cache.getOrStream("insights", 1L, "", () -> Flux.just("not used")).collectList().block();
+
+        assertEquals(List.of("You ", "saved ", "more."), first);
+        assertEquals(List.of("You saved more."), second);
+        // The streaming and non-streaming variants share entries
+        assertEquals("You saved more.", cache.getOrCompute("insights", 1L, "", () -> Mono.just("not used")).block());
+    }
+
+    @Test
+    void aCancelledOrFailedStreamIsNotCached() {
+        cache.getOrStream("insights", 1L, "", () -> Flux.just("You ", "saved ", "more.")).take(1).blockLast();
+        cache.getOrStream("insights", 1L, "", () -> Flux.just("You ")
+                .concatWith(Flux.error(new IllegalStateException("connection reset"))))
+                .onErrorResume(e -> Flux.empty())
+                .blockLast();
+
+        assertEquals("fresh", cache.getOrCompute("insights", 1L, "", () -> Mono.just("fresh")).block());
+    }
+
+    // --- Helper Methods ---
+
+    private String compute(String endpoint, String input) {
+        return cache.getOrCompute(endpoint, 1L, input, () -> Mono.just("answer " + generated.incrementAndGet())).block();
+    }
+}
@@ -0,0 +1,84 @@
+package com.budgetwise.backend.cache;
+
+import com.budgetwise.backend.event.UserAccountDeletedEvent;
+import com.budgetwise.backend.event.UserDataChangedEvent;
+import com.budgetwise.backend.repository.UserDataVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDataVersionTrackerTest {
+
+    private UserDataVersionRepository repository;
+    private UserDataVersionTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserDataVersionRepository.class);
+        tracker = new UserDataVersionTracker(repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void theTableIsOnlyReadOnAMiss() {
+        when(repository.findVersion(1L)).thenReturn(Optional.of(4L));
+
+        assertEquals(4, tracker.current(1L));
+        assertEquals(4, tracker.current(1L));
+        assertEquals(4, tracker.current(1L));
+
+        verify(repository, times(1)).findVersion(1L);
+    }
+
+    @Test
+    void aBumpIsPublishedOnlyAfterTheTransactionCommits() {
+        when(repository.findVersion(1L)).thenReturn(Optional.of(4L));
+        tracker.current(1L);
+        when(repository.findVersion(1L)).thenReturn(Optional.of(5L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.onUserDataChanged(new UserDataChangedEvent(1L, "budget"));
+        assertEquals(4, tracker.current(1L)); // Not committed yet
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(5, tracker.current(1L));
+        verify(repository).bump(1L);
+    }
+
+    @Test
+    void withoutATransactionTheBumpIsPublishedAtOnce() {
+        when(repository.findVersion(1L)).thenReturn(Optional.of(1L));
+
+        tracker.onUserDataChanged(new UserDataChangedEvent(1L, "goal"));
+
+        assertEquals(1, tracker.current(1L));
+        verify(repository, times(1)).findVersion(1L); // Read once by the bump, then from memory
+    }
+
+    @Test
+    void aDeletedAccountIsReadFromTheTableAgain() {
+        when(repository.findVersion(1L)).thenReturn(Optional.of(3L));
+        tracker.current(1L);
+
+        tracker.onUserAccountDeleted(new UserAccountDeletedEvent(1L));
+        when(repository.findVersion(1L)).thenReturn(Optional.empty());
+
+        assertEquals(0, tracker.current(1L));
+    }
+}
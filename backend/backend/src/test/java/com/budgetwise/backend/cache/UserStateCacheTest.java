@@ -0,0 +1,143 @@
+package com.budgetwise.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserStateCacheTest {
+
+    // The user's committed data version, as the database would report it
+    private final AtomicLong committedVersion = new AtomicLong(5);
+    private final UserStateCache<AtomicInteger> cache = new UserStateCache<>(userId -> committedVersion.get());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    // A loader that blocks until released, so the test can act while a load is in progress
+    private Function<Long, AtomicInteger> blockingLoader(CountDownLatch started, CountDownLatch release) {
+        return userId -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return new AtomicInteger(100);
+        };
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, AtomicInteger> loader = blockingLoader(started, release);
+
+        CompletableFuture<AtomicInteger> first = CompletableFuture.supplyAsync(() -> cache.get(1L, loader));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<AtomicInteger> second = CompletableFuture.supplyAsync(() -> cache.get(1L, loader));
+        // Another user is not blocked by the load in progress
+        assertEquals(7, cache.get(2L, id -> new AtomicInteger(7)).get());
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void aNewerChangeDuringTheLoadIsAppliedOnceItFinishes() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, AtomicInteger> loader = blockingLoader(started, release);
+
+        CompletableFuture<AtomicInteger> loading = CompletableFuture.supplyAsync(() -> cache.get(1L, loader));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        cache.update(1L, 6, state -> state.addAndGet(1)); // Committed after the snapshot (at 5)
+        release.countDown();
+
+        assertEquals(101, loading.get(5, TimeUnit.SECONDS).get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void aChangeTheSnapshotAlreadyContainsIsNotAppliedAgain() {
+        // The writer committed version 6 and the load read it before the writer's event arrived
+        committedVersion.set(6);
+        AtomicInteger state = cache.get(1L, id -> new AtomicInteger(101));
+
+        cache.update(1L, 6, s -> s.addAndGet(1));
+        assertEquals(101, state.get());
+        assertTrue(cache.contains(1L, 6));
+
+        cache.update(1L, 7, s -> s.addAndGet(1));
+        assertEquals(102, state.get());
+        assertFalse(cache.contains(1L, 8));
+    }
+
+    @Test
+    void aChangeQueuedDuringTheLoadIsSkippedIfTheSnapshotHasIt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, AtomicInteger> loader = blockingLoader(started, release);
+
+        CompletableFuture<AtomicInteger> loading = CompletableFuture.supplyAsync(() -> cache.get(1L, loader));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        cache.update(1L, 5, state -> state.addAndGet(1));
+        release.countDown();
+
+        assertEquals(100, loading.get(5, TimeUnit.SECONDS).get());
+    }
+
+    @Test
+    void aLoadThatSawTheVersionMoveIsRepeated() {
+        AtomicInteger attempt = new AtomicInteger();
+        AtomicInteger state = cache.get(1L, id -> {
+            if (attempt.incrementAndGet() == 1) {
+                committedVersion.incrementAndGet(); // A write commits mid-read
+            }
+            return new AtomicInteger(attempt.get());
+        });
+
+        assertEquals(2, state.get());
+        assertTrue(cache.contains(1L, 6));
+    }
+
+    @Test
+    void changesForUnloadedUsersAreSkipped() {
+        cache.update(1L, 6, state -> state.addAndGet(1));
+
+        assertEquals(0, cache.get(1L, id -> new AtomicInteger()).get());
+    }
+
+    @Test
+    void aFailedLoadIsRetriedByTheNextCaller() {
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, id -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals(5, cache.get(1L, id -> new AtomicInteger(5)).get());
+    }
+
+    @Test
+    void evictionDropsMatchingStates() {
+        cache.get(1L, id -> new AtomicInteger(1));
+        cache.get(2L, id -> new AtomicInteger(2));
+
+        cache.evictIf(state -> state.get() == 1);
+        cache.evict(2L);
+
+        for (Long userId : List.of(1L, 2L)) {
+            assertEquals(0, cache.get(userId, id -> new AtomicInteger()).get());
+        }
+    }
+}
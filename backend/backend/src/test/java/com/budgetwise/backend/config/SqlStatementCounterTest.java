@@ -0,0 +1,44 @@
+package com.budgetwise.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlStatementCounterTest {
+
+    private final SqlStatementCounter inspector = new SqlStatementCounter();
+
+    @Test
+    void countsOnlyWhileACounterIsBound() {
+        inspector.inspect("select 1"); // Unbound: not counted anywhere
+
+        AtomicInteger statements = SqlStatementCounter.start();
+        try {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+        } finally {
+            SqlStatementCounter.stop();
+        }
+        inspector.inspect("select 3");
+
+        assertEquals(2, statements.get());
+    }
+
+    @Test
+    void countedTasksAddToTheCallersCounterFromOtherThreads() {
+        AtomicInteger statements = SqlStatementCounter.start();
+        try {
+            CompletableFuture.allOf(
+                    CompletableFuture.supplyAsync(SqlStatementCounter.counted(statements, () -> inspector.inspect("select 1"))),
+                    CompletableFuture.supplyAsync(SqlStatementCounter.counted(statements, () -> inspector.inspect("select 2")))
+            ).join();
+            inspector.inspect("select 3");
+        } finally {
+            SqlStatementCounter.stop();
+        }
+        assertEquals(3, statements.get());
+    }
+}
@@ -0,0 +1,91 @@
+package com.budgetwise.backend.controller;
+
+import com.budgetwise.backend.cache.AiResponseCache;
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.dto.TransactionSummaryDto;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.service.GoogleGeminiService;
+import com.budgetwise.backend.service.TransactionService;
+import com.budgetwise.backend.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.security.Principal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The SSE framing of the streaming endpoints: "chunk" events, then "done" or "error".
+ */
+class AIControllerTest {
+
+    private final Principal principal = () -> "user@example.com";
+    private final TransactionSummaryDto summary = new TransactionSummaryDto();
+    private GoogleGeminiService geminiService;
+    private AIController controller;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+        UserService userService = mock(UserService.class);
+        when(userService.resolveUser(principal)).thenReturn(user);
+        TransactionService transactionService = mock(TransactionService.class);
+        when(transactionService.getTransactionSummary(user)).thenReturn(summary);
+        geminiService = mock(GoogleGeminiService.class);
+        AiResponseCache cache = new AiResponseCache(mock(UserDataVersionTracker.class), 10, 30);
+
+        controller = new AIController(geminiService, transactionService, null, userService, null, null,
+                null, null, null, cache, null, null, null, new ObjectMapper());
+    }
+
+    @Test
+    void chunksAreForwardedThenDone() {
+        when(geminiService.streamMonthlyInsights(summary)).thenReturn(Flux.just("You ", "saved."));
+
+        assertEquals(List.of("chunk:You ", "chunk:saved.", "done:"), events());
+    }
+
+    @Test
+    void aBusyServiceIsReportedWithItsMessage() {
+        when(geminiService.streamMonthlyInsights(summary)).thenReturn(Flux.just("You ")
+                .concatWith(Flux.error(new ServiceBusyException("AI service is busy, please try again shortly."))));
+
+        assertEquals(List.of("chunk:You ", "error:AI service is busy, please try again shortly."), events());
+    }
+
+    @Test
+    void otherFailuresDoNotLeakTheirDetails() {
+        when(geminiService.streamMonthlyInsights(summary))
+                .thenReturn(Flux.error(new IllegalStateException("upstream returned 500 with api key ...")));
+
+        assertEquals(List.of("error:AI service unavailable."), events());
+    }
+
+    @Test
+    void aCompletedStreamIsReplayedFromTheCache() {
+        when(geminiService.streamMonthlyInsights(summary)).thenReturn(Flux.just("You ", "saved."));
+
+        events();
+
+        assertEquals(List.of("chunk:You saved.", "done:"), events());
+        verify(geminiService, times(1)).streamMonthlyInsights(summary);
+    }
+
+    // --- Helper Methods ---
+
+    private List<String> events() {
+        return controller.streamInsights(principal)
+                .map(event -> event.event() + ":" + event.data())
+                .collectList()
+                .block();
+    }
+}
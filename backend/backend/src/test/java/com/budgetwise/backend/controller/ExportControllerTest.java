@@ -0,0 +1,72 @@
+package com.budgetwise.backend.controller;
+
+import com.budgetwise.backend.service.ExportJobService;
+import com.budgetwise.backend.service.ExportService;
+import com.budgetwise.backend.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ExportControllerTest {
+
+    private static final String CSV = "Date,Type,Category,Description,Amount\r\n2025-01-03,EXPENSE,Food,Café,1.0\r\n";
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 1, 31);
+
+    private final Principal principal = () -> "user@example.com";
+    private ExportController controller;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ExportService exportService = mock(ExportService.class);
+        // Writes and closes the writer, as the CSVPrinter does
+        doAnswer(invocation -> {
+            try (Writer writer = invocation.getArgument(3)) {
+                writer.write(CSV);
+            }
+            return null;
+        }).when(exportService).exportTransactionsToCsv(eq("user@example.com"), eq(START), eq(END), any(Writer.class));
+        controller = new ExportController(exportService, mock(ExportJobService.class), mock(UserService.class));
+    }
+
+    @Test
+    void csvIsGzippedWhenTheClientAcceptsIt() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept-Encoding", "br, GZIP;q=0.8");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.exportTransactionsToCsv(principal, START, END, request, response);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(CSV, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void csvIsPlainOtherwise() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.exportTransactionsToCsv(principal, START, END, new MockHttpServletRequest(), response);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(CSV, response.getContentAsString(StandardCharsets.UTF_8));
+    }
+}
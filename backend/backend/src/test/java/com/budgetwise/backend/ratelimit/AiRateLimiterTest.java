@@ -0,0 +1,45 @@
+package com.budgetwise.backend.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiRateLimiterTest {
+
+    @Test
+    void rejectionsAreCountedByCause() {
+        // User: 1 burst; global: 2 burst; slow refill so nothing comes back during the test
+        AiRateLimiter limiter = new AiRateLimiter(0.01, 1, 0.01, 2, 0, 0);
+
+        assertTrue(limiter.check(1L).allowed());
+        assertEquals("user", limiter.check(1L).reason());
+        assertTrue(limiter.check(2L).allowed());
+        assertEquals("global", limiter.check(3L).reason());
+
+        assertEquals(1L, limiter.stats().get("rejectedUser"));
+        assertEquals(1L, limiter.stats().get("rejectedGlobal"));
+        assertEquals(0L, limiter.stats().get("rejectedQueue"));
+    }
+
+    @Test
+    void aFullWaiterQueueIsCountedSeparatelyAndRefundsBothTokens() {
+        // Waiting up to a day is allowed, but only one request may wait at a time
+        AiRateLimiter limiter = new AiRateLimiter(60, 1, 60, 1, 86_400_000, 1);
+
+        assertEquals(0L, limiter.check(1L).delayNanos());
+        AiRateLimiter.Decision waiting = limiter.check(2L);
+        assertTrue(waiting.allowed() && waiting.delayNanos() > 0);
+
+        AiRateLimiter.Decision queueFull = limiter.check(3L);
+        assertFalse(queueFull.allowed());
+        assertEquals("queue", queueFull.reason());
+        assertEquals(1L, limiter.stats().get("rejectedQueue"));
+        assertEquals(0L, limiter.stats().get("rejectedGlobal"));
+
+        // Once the waiter is done, the next request may wait again
+        limiter.endWait();
+        assertTrue(limiter.check(3L).allowed());
+    }
+}
@@ -0,0 +1,106 @@
+package com.budgetwise.backend.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of one rate-limit check when many request threads hit the same bucket.
+ * Rates are set so high that every call is allowed: what is measured is the CAS
+ * (or lock) on the shared state, not rejections. Run with -t 1 and -t N to compare.
+ *
+ * - casBucket vs lockedBucket: the same GCRA update, as one compareAndSet or under a monitor
+ * - limiterOneUser: all threads check the same user (per-user and global bucket both contended)
+ * - limiterManyUsers: each thread is its own user (only the global bucket is shared)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBucketBenchmark {
+
+    private static final double UNLIMITED = 1e12;
+
+    private TokenBucket bucket;
+    private LockedBucket lockedBucket;
+    private AiRateLimiter limiter;
+
+    private final AtomicLong nextUserId = new AtomicLong();
+
+    @State(Scope.Thread)
+    public static class ThreadUser {
+        Long userId;
+
+        @Setup
+        public void setUp(TokenBucketBenchmark benchmark) {
+            userId = benchmark.nextUserId.incrementAndGet();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        long now = System.nanoTime();
+        bucket = new TokenBucket(UNLIMITED, Integer.MAX_VALUE, now);
+        lockedBucket = new LockedBucket(UNLIMITED, Integer.MAX_VALUE, now);
+        limiter = new AiRateLimiter(UNLIMITED * 60, Integer.MAX_VALUE, UNLIMITED * 60, Integer.MAX_VALUE, 0, 32);
+    }
+
+    @Benchmark
+    public long casBucket() {
+        return bucket.tryAcquire(System.nanoTime(), 0);
+    }
+
+    @Benchmark
+    public long lockedBucket() {
+        return lockedBucket.tryAcquire(System.nanoTime(), 0);
+    }
+
+    @Benchmark
+    public AiRateLimiter.Decision limiterOneUser() {
+        return limiter.check(1L);
+    }
+
+    @Benchmark
+    public AiRateLimiter.Decision limiterManyUsers(ThreadUser user) {
+        return limiter.check(user.userId);
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * The same algorithm as TokenBucket with a lock instead of a CAS, as the baseline.
+     */
+    static final class LockedBucket {
+        private final long intervalNanos;
+        private final long capacityNanos;
+        private long tat;
+
+        LockedBucket(double tokensPerSecond, int burst, long now) {
+            this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / tokensPerSecond));
+            this.capacityNanos = intervalNanos * Math.max(1, burst);
+            this.tat = now;
+        }
+
+        synchronized long tryAcquire(long now, long maxWaitNanos) {
+            long next = Math.max(tat, now) + intervalNanos;
+            long wait = next - capacityNanos - now;
+            if (wait > maxWaitNanos) {
+                return -wait;
+            }
+            tat = next;
+            return Math.max(0L, wait);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.budgetwise.backend.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long T0 = 5_000 * SECOND; // Any nanoTime origin works
+
+    // One token per second, burst of 3
+    private final TokenBucket bucket = new TokenBucket(1.0, 3, T0);
+
+    @Test
+    void startsFullAndAllowsABurst() {
+        assertTrue(bucket.isFull(T0));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, bucket.tryAcquire(T0, 0));
+        }
+
+        // The fourth is denied, with the time until the next token
+        assertEquals(-SECOND, bucket.tryAcquire(T0, 0));
+        assertFalse(bucket.isFull(T0));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(T0, 0);
+        }
+
+        assertEquals(-SECOND / 2, bucket.tryAcquire(T0 + SECOND / 2, 0));
+        assertEquals(0L, bucket.tryAcquire(T0 + SECOND, 0));
+        assertTrue(bucket.tryAcquire(T0 + SECOND, 0) < 0);
+
+        // Idle long enough and the whole burst is back, but never more than the burst
+        assertTrue(bucket.isFull(T0 + 10 * SECOND));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, bucket.tryAcquire(T0 + 10 * SECOND, 0));
+        }
+        assertTrue(bucket.tryAcquire(T0 + 10 * SECOND, 0) < 0);
+    }
+
+    @Test
+    void aCallerWillingToWaitGetsTheTokenWithADelay() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(T0, 0);
+        }
+
+        assertEquals(SECOND, bucket.tryAcquire(T0, 2 * SECOND));
+        assertEquals(2 * SECOND, bucket.tryAcquire(T0, 2 * SECOND));
+        // The next one would have to wait 3s: denied, and nothing is taken
+        assertEquals(-3 * SECOND, bucket.tryAcquire(T0, 2 * SECOND));
+        assertEquals(-3 * SECOND, bucket.tryAcquire(T0, 2 * SECOND));
+    }
+
+    @Test
+    void refundGivesTheTokenBack() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(T0, 0);
+        }
+        assertTrue(bucket.tryAcquire(T0, 0) < 0);
+
+        bucket.refund();
+
+        assertEquals(0L, bucket.tryAcquire(T0, 0));
+        assertTrue(bucket.tryAcquire(T0, 0) < 0);
+    }
+
+    @Test
+    void refundAfterASingleTakeLeavesTheBucketFull() {
+        bucket.tryAcquire(T0, 0);
+        bucket.refund();
+
+        assertTrue(bucket.isFull(T0));
+    }
+}
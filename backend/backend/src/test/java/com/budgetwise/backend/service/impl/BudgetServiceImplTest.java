@@ -0,0 +1,136 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.config.SqlStatementCounter;
+import com.budgetwise.backend.dto.BudgetDto;
+import com.budgetwise.backend.entity.Budget;
+import com.budgetwise.backend.entity.Transaction;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.repository.BudgetRepository;
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Budget evaluation must cost the same number of SQL statements however many budgets
+ * a user has. Runs against an in-memory H2 database, so the count is what Hibernate
+ * actually prepared, through the SqlStatementCounter registered in application.properties.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class BudgetServiceImplTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2025, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BudgetRepository budgetRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private BudgetServiceImpl budgetService;
+
+    @BeforeEach
+    void setUp() {
+        budgetService = new BudgetServiceImpl(
+                userRepository, budgetRepository, transactionRepository, mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTheNumberOfBudgets() {
+        User few = persistUserWithBudgets("few@example.com", 1);
+        User many = persistUserWithBudgets("many@example.com", 50);
+        entityManager.clear(); // Budgets and users are read from the database, not the session
+
+        assertEquals(2, statementsToEvaluate(few));
+        assertEquals(2, statementsToEvaluate(many));
+    }
+
+    @Test
+    void spentIsSummedPerBudgetCategoryAndRange() {
+        User user = persistUser("spender@example.com");
+        Budget food = persistBudget(user, "Food", MARCH);
+        Budget rent = persistBudget(user, "Rent", MARCH);
+        persistTransaction(user, "EXPENSE", "Food", 20, MARCH.plusDays(3));
+        persistTransaction(user, "EXPENSE", "Food", 10, MARCH.plusDays(30));
+        persistTransaction(user, "EXPENSE", "Food", 99, MARCH.plusMonths(1)); // Outside the range
+        persistTransaction(user, "INCOME", "Food", 500, MARCH.plusDays(5)); // Not an expense
+        entityManager.clear();
+
+        List<BudgetDto> result = budgetService.getBudgetsByUser(user);
+
+        BudgetDto foodDto = result.stream().filter(b -> b.getId().equals(food.getId())).findFirst().orElseThrow();
+        BudgetDto rentDto = result.stream().filter(b -> b.getId().equals(rent.getId())).findFirst().orElseThrow();
+        assertEquals(30.0, foodDto.getSpent());
+        assertEquals(70.0, foodDto.getRemaining());
+        // Nothing spent in the second budget's category and range: no row, so 0
+        assertEquals(0.0, rentDto.getSpent());
+        assertEquals(100.0, rentDto.getRemaining());
+    }
+
+    // --- Helper Methods ---
+
+    private int statementsToEvaluate(User user) {
+        AtomicInteger statements = SqlStatementCounter.start();
+        try {
+            List<BudgetDto> result = budgetService.getBudgetsByUser(user);
+            result.forEach(BudgetDto::getRemaining);
+        } finally {
+            SqlStatementCounter.stop();
+        }
+        return statements.get();
+    }
+
+    private User persistUserWithBudgets(String email, int budgetCount) {
+        User user = persistUser(email);
+        for (int i = 0; i < budgetCount; i++) {
+            LocalDate start = MARCH.plusMonths(i % 12);
+            persistBudget(user, "Category " + i, start);
+            persistTransaction(user, "EXPENSE", "Category " + i, 5, start.plusDays(1));
+        }
+        entityManager.flush();
+        return user;
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setName("Test");
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setRole(User.Role.USER);
+        return entityManager.persist(user);
+    }
+
+    private Budget persistBudget(User user, String category, LocalDate start) {
+        Budget budget = new Budget();
+        budget.setUser(user);
+        budget.setCategory(category);
+        budget.setAmount(100.0);
+        budget.setStartDate(start);
+        budget.setEndDate(start.plusMonths(1).minusDays(1));
+        return entityManager.persist(budget);
+    }
+
+    private void persistTransaction(User user, String type, String category, double amount, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setType(type);
+        transaction.setCategory(category);
+        transaction.setAmount(amount);
+        transaction.setDate(date);
+        entityManager.persist(transaction);
+    }
+}
@@ -0,0 +1,79 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.ai.classifier.LocalCategorizer;
+import com.budgetwise.backend.dto.CategorizedDescriptionDto;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.exception.TooManyRequestsException;
+import com.budgetwise.backend.repository.BudgetRepository;
+import com.budgetwise.backend.repository.SavingsGoalRepository;
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.service.GoogleGeminiService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategorizationServiceImplTest {
+
+    private static final Long USER_ID = 3L;
+
+    private GoogleGeminiService geminiService;
+    private CategorizationServiceImpl service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        when(transactionRepository.findDistinctCategoriesByUserId(USER_ID)).thenReturn(List.of("Food", "Transport"));
+        geminiService = mock(GoogleGeminiService.class);
+        // The local model is never confident here, so every description goes to Gemini
+        LocalCategorizer localCategorizer = mock(LocalCategorizer.class);
+        when(localCategorizer.predict(any(), any())).thenReturn(null);
+
+        // One description per prompt, so each description is its own chunk
+        service = new CategorizationServiceImpl(transactionRepository, mock(BudgetRepository.class),
+                mock(SavingsGoalRepository.class), geminiService, localCategorizer, 1, 100, 2, 100);
+        user = new User();
+        user.setId(USER_ID);
+    }
+
+    @Test
+    void aFailedChunkLeavesOnlyItsOwnItemsUncategorized() {
+        when(geminiService.getCategoriesForTransactions(eq(List.of("Pizza place")), anyList()))
+                .thenReturn(Mono.just(List.of("Food")));
+        when(geminiService.getCategoriesForTransactions(eq(List.of("Bus ticket")), anyList()))
+                .thenReturn(Mono.error(new ServiceBusyException("busy")));
+        when(geminiService.getCategoriesForTransactions(eq(List.of("Train pass")), anyList()))
+                .thenThrow(new TooManyRequestsException("too many"));
+
+        List<CategorizedDescriptionDto> result =
+                service.categorize(user, List.of("Pizza place", "Bus ticket", "Train pass")).block();
+
+        assertEquals(List.of(
+                new CategorizedDescriptionDto("Pizza place", "Food"),
+                new CategorizedDescriptionDto("Bus ticket", null),
+                new CategorizedDescriptionDto("Train pass", null)), result);
+        assertEquals(2L, service.cacheStats().get("failedPrompts"));
+    }
+
+    @Test
+    void failedChunksAreNotCachedAndAreAskedAgainNextTime() {
+        when(geminiService.getCategoriesForTransactions(eq(List.of("Bus ticket")), anyList()))
+                .thenReturn(Mono.error(new ServiceBusyException("busy")))
+                .thenReturn(Mono.just(List.of("Transport")));
+
+        service.categorize(user, List.of("Bus ticket")).block();
+        List<CategorizedDescriptionDto> retry = service.categorize(user, List.of("Bus ticket")).block();
+
+        assertEquals(List.of(new CategorizedDescriptionDto("Bus ticket", "Transport")), retry);
+    }
+}
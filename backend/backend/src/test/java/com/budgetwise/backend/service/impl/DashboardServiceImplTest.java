@@ -0,0 +1,161 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.dto.DashboardDto;
+import com.budgetwise.backend.dto.TransactionSummaryDto;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.service.BudgetService;
+import com.budgetwise.backend.service.SavingsGoalService;
+import com.budgetwise.backend.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceImplTest {
+
+    private final User user = new User();
+    private TransactionService transactionService;
+    private BudgetService budgetService;
+    private SavingsGoalService savingsGoalService;
+    private ExecutorService queryExecutor;
+
+    @BeforeEach
+    void setUp() {
+        user.setId(1L);
+        transactionService = mock(TransactionService.class);
+        budgetService = mock(BudgetService.class);
+        savingsGoalService = mock(SavingsGoalService.class);
+        queryExecutor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queryExecutor.shutdownNow();
+    }
+
+    @Test
+    void onlyTheRequestedSectionsAreLoaded() {
+        TransactionSummaryDto summary = new TransactionSummaryDto();
+        when(transactionService.getTransactionSummary(user)).thenReturn(summary);
+
+        DashboardDto dto = dashboard(6, 5000).getDashboard(user, Set.of(" Summary", "unknown"));
+
+        assertSame(summary, dto.getSummary());
+        assertNull(dto.getBudgets());
+        verify(budgetService, never()).getBudgetsByUser(user);
+        verify(savingsGoalService, never()).getSavingsGoalsByUser(user);
+    }
+
+    @Test
+    void noRecognisedSectionLoadsThemAll() {
+        when(budgetService.getBudgetsByUser(user)).thenReturn(List.of());
+
+        DashboardDto dto = dashboard(6, 5000).getDashboard(user, Set.of("nonsense"));
+
+        assertNotNull(dto.getBudgets());
+        verify(transactionService).getTransactionSummary(user);
+        verify(transactionService).getSpendingByCategory(user);
+        verify(savingsGoalService).getSavingsGoalsByUser(user);
+    }
+
+    @Test
+    void sectionQueriesNeverExceedThePermits() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Runnable query = () -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+        };
+        when(transactionService.getTransactionSummary(user)).thenAnswer(invocation -> {
+            query.run();
+            return null;
+        });
+        when(transactionService.getSpendingByCategory(user)).thenAnswer(invocation -> {
+            query.run();
+            return List.of();
+        });
+        when(budgetService.getBudgetsByUser(user)).thenAnswer(invocation -> {
+            query.run();
+            return List.of();
+        });
+        when(savingsGoalService.getSavingsGoalsByUser(user)).thenAnswer(invocation -> {
+            query.run();
+            return List.of();
+        });
+
+        dashboard(2, 5000).getDashboard(user, null);
+
+        assertEquals(2, peak.get());
+    }
+
+    @Test
+    void aSectionThatCannotGetAPermitFailsTheDashboardAndCancelsTheRest() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        // Whichever section gets the only permit holds it until it is cancelled
+        Runnable holdPermit = () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        };
+        when(budgetService.getBudgetsByUser(user)).thenAnswer(invocation -> {
+            holdPermit.run();
+            return List.of();
+        });
+        when(savingsGoalService.getSavingsGoalsByUser(user)).thenAnswer(invocation -> {
+            holdPermit.run();
+            return List.of();
+        });
+
+        DashboardServiceImpl dashboard = dashboard(1, 100);
+        assertThrows(ServiceBusyException.class, () -> dashboard.getDashboard(user, Set.of("budgets", "goals")));
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the running section should be interrupted");
+    }
+
+    @Test
+    void theFirstFailureIsRethrownUnwrapped() {
+        IllegalStateException failure = new IllegalStateException("query failed");
+        when(savingsGoalService.getSavingsGoalsByUser(user)).thenThrow(failure);
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> dashboard(6, 5000).getDashboard(user, null));
+        assertSame(failure, thrown);
+    }
+
+    // --- Helper Methods ---
+
+    private DashboardServiceImpl dashboard(int maxConcurrentQueries, long permitTimeoutMs) {
+        return new DashboardServiceImpl(transactionService, budgetService, savingsGoalService,
+                queryExecutor, maxConcurrentQueries, permitTimeoutMs);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.cache.UserDataVersionTracker;
+import com.budgetwise.backend.dto.ExportJobDto;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.exception.ServiceBusyException;
+import com.budgetwise.backend.exception.TooManyRequestsException;
+import com.budgetwise.backend.service.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ExportJobServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    @TempDir
+    Path spoolDir;
+
+    private ExecutorService executor;
+    private ExportJobServiceImpl service;
+    // Tasks the executor accepted but has not run yet
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = mock(ExecutorService.class);
+        service = new ExportJobServiceImpl(mock(ExportService.class), executor, mock(UserDataVersionTracker.class));
+        ReflectionTestUtils.setField(service, "spoolDirPath", spoolDir.toString());
+        ReflectionTestUtils.setField(service, "maxActivePerUser", 2);
+        service.initSpoolDir();
+    }
+
+    @Test
+    void aRejectedJobFailsForCallersThatAlreadyShareIt() {
+        List<ExportJobDto> deduplicated = new ArrayList<>();
+        doAnswer(invocation -> {
+            // A concurrent request for the same export lands on the job before it is handed over
+            deduplicated.add(service.submit(user("a@example.com"), "csv", START, START.plusMonths(1)));
+            throw new RejectedExecutionException("queue full");
+        }).when(executor).execute(any());
+
+        assertThrows(ServiceBusyException.class,
+                () -> service.submit(user("a@example.com"), "csv", START, START.plusMonths(1)));
+
+        String jobId = deduplicated.get(0).getId();
+        assertEquals("FAILED", service.getStatus("a@example.com", jobId).getStatus());
+    }
+
+    @Test
+    void aUserCannotQueueMoreThanTheLimit() {
+        doAnswer(invocation -> queued.add(invocation.getArgument(0))).when(executor).execute(any());
+        User user = user("a@example.com");
+
+        service.submit(user, "csv", START, START.plusMonths(1));
+        service.submit(user, "pdf", START, START.plusMonths(1));
+        // Resubmitting a live job is deduplicated, not counted again
+        service.submit(user, "csv", START, START.plusMonths(1));
+
+        assertThrows(TooManyRequestsException.class, () -> service.submit(user, "csv", START, START.plusMonths(2)));
+        // Other users are not affected
+        service.submit(user("b@example.com"), "csv", START, START.plusMonths(2));
+
+        // A finished job frees its slot
+        queued.get(0).run();
+        assertEquals("READY", service.submit(user, "csv", START, START.plusMonths(1)).getStatus());
+        service.submit(user, "csv", START, START.plusMonths(2));
+    }
+
+    @Test
+    void aRejectedJobFreesItsSlot() {
+        doAnswer(invocation -> {
+            throw new RejectedExecutionException("queue full");
+        }).when(executor).execute(any());
+        User user = user("a@example.com");
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ServiceBusyException.class, () -> service.submit(user, "csv", START, START.plusMonths(1)));
+        }
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setId((long) email.hashCode());
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,174 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.dto.TransactionExportRow;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.UserRepository;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Both PDF modes must produce the same report content, and every export
+ * must close the database cursor it streams from.
+ */
+class ExportServiceImplTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final Long USER_ID = 3L;
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 3, 31);
+
+    private TransactionRepository transactionRepository;
+    private ExportServiceImpl exportService;
+    private final AtomicBoolean cursorClosed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        exportService = new ExportServiceImpl(userRepository, transactionRepository);
+        ReflectionTestUtils.setField(exportService, "largeTableThreshold", 50L);
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail(EMAIL);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(transactionRepository.sumByTypeBetween(USER_ID, START, END)).thenReturn(List.of(
+                new Object[]{"INCOME", 1000.0},
+                new Object[]{"EXPENSE", 250.5},
+                new Object[]{"SAVINGS", 100.0}));
+    }
+
+    @Test
+    void smallReportListsEveryRowAndTheTotals() throws IOException {
+        givenRows(10);
+        String text = pdfText();
+
+        assertTrue(text.contains("Total Income: "), text);
+        assertTrue(text.contains("1000.00"));
+        assertTrue(text.contains("Available Balance"));
+        assertTrue(text.contains("649.50"));
+        assertTrue(text.contains("Shop 1 "));
+        assertTrue(text.contains("Shop 10 "));
+        assertTrue(cursorClosed.get());
+    }
+
+    @Test
+    void largeReportUsesTheFlushedTableAndStillListsEveryRow() throws IOException {
+        // Above the threshold (50) and not a multiple of the flush interval (200)
+        givenRows(537);
+        String text = pdfText();
+
+        assertTrue(text.contains("Shop 1 "));
+        assertTrue(text.contains("Shop 200 "));
+        assertTrue(text.contains("Shop 537 "));
+        assertTrue(cursorClosed.get());
+    }
+
+    @Test
+    void csvHasAHeaderAndOneLinePerRow() throws IOException {
+        givenRows(3);
+        StringWriter out = new StringWriter();
+
+        exportService.exportTransactionsToCsv(EMAIL, START, END, out);
+
+        String[] lines = out.toString().split("\r\n");
+        assertEquals(4, lines.length);
+        assertEquals("Date,Type,Category,Description,Amount", lines[0]);
+        assertEquals("2025-01-03,EXPENSE,Food,\"Shop 1 \",1.0", lines[1]);
+        assertTrue(cursorClosed.get());
+    }
+
+    @Test
+    void csvIsFlushedWhileTheCursorIsStillBeingRead() throws IOException {
+        AtomicInteger rowsRead = new AtomicInteger();
+        when(transactionRepository.streamExportRows(USER_ID, START, END)).thenAnswer(invocation ->
+                Stream.generate(() -> new TransactionExportRow(START, "EXPENSE", "Food", "Shop " + rowsRead.incrementAndGet(), 1.0))
+                        .limit(1200)
+                        .onClose(() -> cursorClosed.set(true)));
+        List<Integer> rowsReadAtFlush = new ArrayList<>();
+        Writer out = new StringWriter() {
+            @Override
+            public void flush() {
+                rowsReadAtFlush.add(rowsRead.get());
+            }
+        };
+
+        exportService.exportTransactionsToCsv(EMAIL, START, END, out);
+
+        // Every 500 rows, then once at the end: rows are never all read before the first write
+        assertEquals(List.of(500, 1000, 1200), rowsReadAtFlush.subList(0, 3));
+        assertTrue(cursorClosed.get());
+    }
+
+    @Test
+    void theCursorIsClosedWhenTheClientGoesAway() {
+        givenRows(1200);
+        // The connection drops by the first flush, 500 rows into the cursor
+        Writer brokenPipe = new FilterWriter(new StringWriter()) {
+            @Override
+            public void flush() throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThrows(IOException.class, () -> exportService.exportTransactionsToCsv(EMAIL, START, END, brokenPipe));
+        assertTrue(cursorClosed.get());
+    }
+
+    // --- Helper Methods ---
+
+    private void givenRows(int count) {
+        when(transactionRepository.countByUserIdAndDateBetween(USER_ID, START, END)).thenReturn((long) count);
+        when(transactionRepository.streamExportRows(USER_ID, START, END)).thenAnswer(invocation -> {
+            List<TransactionExportRow> rows = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                // Trailing space keeps "Shop 1 " from matching "Shop 10"
+                rows.add(new TransactionExportRow(START.plusDays(i % 80 + 1), "EXPENSE", "Food", "Shop " + i + " ", i));
+            }
+            return rows.stream().onClose(() -> cursorClosed.set(true));
+        });
+    }
+
+    private String pdfText() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTransactionsToPdf(EMAIL, START, END, out);
+
+        StringBuilder text = new StringBuilder();
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+            assertTrue(pdf.getNumberOfPages() >= 1);
+            for (int page = 1; page <= pdf.getNumberOfPages(); page++) {
+                text.append(PdfTextExtractor.getTextFromPage(pdf.getPage(page))).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
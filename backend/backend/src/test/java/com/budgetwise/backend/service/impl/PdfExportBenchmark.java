@@ -0,0 +1,100 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.dto.TransactionExportRow;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * One PDF report, with the table flushed every PDF_FLUSH_EVERY rows (large-table
+ * mode) and with the whole table built in memory first. The rows come from a
+ * stubbed repository stream, so this measures iText and the export loop only.
+ * Run with -prof gc to see the allocation per report. The in-memory table does not
+ * get through 100k rows within -Xmx1g; compare the modes with -p rows=20000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class PdfExportBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+    @Param({"20000", "100000"})
+    private int rows;
+
+    @Param({"true", "false"})
+    private boolean largeTable;
+
+    private ExportServiceImpl exportService;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        exportService = new ExportServiceImpl(userRepository, transactionRepository);
+        ReflectionTestUtils.setField(exportService, "largeTableThreshold", largeTable ? 2000L : Long.MAX_VALUE);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(transactionRepository.sumByTypeBetween(1L, START, END)).thenReturn(List.<Object[]>of(
+                new Object[]{"INCOME", 500_000.0}, new Object[]{"EXPENSE", 320_000.0}));
+        when(transactionRepository.countByUserIdAndDateBetween(1L, START, END)).thenReturn((long) rows);
+        // A fresh stream per call, generated lazily like a database cursor
+        when(transactionRepository.streamExportRows(1L, START, END)).thenAnswer(invocation -> IntStream.range(0, rows)
+                .mapToObj(i -> new TransactionExportRow(START.plusDays(i % 2000), i % 7 == 0 ? "INCOME" : "EXPENSE",
+                        "Category " + (i % 12), "Card payment " + i, 10 + i % 500)));
+    }
+
+    @Benchmark
+    public long exportPdf() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        exportService.exportTransactionsToPdf(EMAIL, START, END, out);
+        return out.bytes;
+    }
+
+    // --- Helper Methods ---
+
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
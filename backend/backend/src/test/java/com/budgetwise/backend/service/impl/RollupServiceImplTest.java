@@ -0,0 +1,121 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
+import com.budgetwise.backend.repository.UserRepository;
+import com.budgetwise.backend.service.SavingsProgressService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The upsert and rebuild statements are native MySQL, so they are mocked here;
+ * these tests cover how deltas are keyed and how the rebuild is driven.
+ */
+class RollupServiceImplTest {
+
+    private UserMonthCategoryRollupRepository rollupRepository;
+    private UserRepository userRepository;
+    private SavingsProgressService savingsProgressService;
+    private RollupServiceImpl rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(UserMonthCategoryRollupRepository.class);
+        userRepository = mock(UserRepository.class);
+        savingsProgressService = mock(SavingsProgressService.class);
+        rollupService = new RollupServiceImpl(
+                rollupRepository,
+                userRepository,
+                mock(TransactionRepository.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                savingsProgressService);
+    }
+
+    @Test
+    void aDeltaIsKeyedByMonthStartCategoryAndUpperCaseType() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            rollupService.applyDelta(1L, "income", "Salary", LocalDate.of(2025, 3, 17), 250.0, 1);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        verify(rollupRepository).applyDelta(1L, LocalDate.of(2025, 3, 1), "Salary", "INCOME", 250.0, 1);
+        verify(rollupRepository, never()).deleteIfEmpty(any(), any(), any(), any());
+    }
+
+    @Test
+    void aMissingCategoryIsRolledUpAsEmpty() {
+        rollupService.applyDelta(1L, "EXPENSE", null, LocalDate.of(2025, 3, 1), 10.0, 1);
+
+        verify(rollupRepository).applyDelta(1L, LocalDate.of(2025, 3, 1), "", "EXPENSE", 10.0, 1);
+    }
+
+    @Test
+    void aRemovalDropsTheRowOnceItIsEmpty() {
+        rollupService.applyDelta(1L, "EXPENSE", "Food", LocalDate.of(2025, 3, 9), -10.0, -1);
+
+        InOrder order = inOrder(rollupRepository);
+        order.verify(rollupRepository).applyDelta(1L, LocalDate.of(2025, 3, 1), "Food", "EXPENSE", -10.0, -1);
+        order.verify(rollupRepository).deleteIfEmpty(1L, LocalDate.of(2025, 3, 1), "Food", "EXPENSE");
+    }
+
+    @Test
+    void rowsWithoutADateOrTypeAreNotCounted() {
+        rollupService.applyDelta(1L, "EXPENSE", "Food", null, 10.0, 1);
+        rollupService.applyDelta(1L, null, "Food", LocalDate.of(2025, 3, 1), 10.0, 1);
+
+        verify(rollupRepository, never()).applyDelta(anyLong(), any(), any(), any(), anyDouble(), anyLong());
+    }
+
+    @Test
+    void aRebuildReplacesTheRowsThenDropsCachedSavings() {
+        rollupService.rebuildForUser(1L);
+
+        InOrder order = inOrder(rollupRepository, savingsProgressService);
+        order.verify(rollupRepository).deleteAllByUserId(1L);
+        order.verify(rollupRepository).rebuildForUser(1L);
+        order.verify(savingsProgressService).invalidate(1L);
+    }
+
+    @Test
+    void oneFailingUserDoesNotStopTheReconcile() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(rollupRepository.rebuildForUser(2L)).thenThrow(new IllegalStateException("lock wait timeout"));
+
+        assertEquals(2, rollupService.rebuildAll());
+
+        verify(rollupRepository).rebuildForUser(3L);
+        verify(savingsProgressService).invalidate(1L);
+        verify(savingsProgressService, never()).invalidate(2L);
+        verify(savingsProgressService).invalidate(3L);
+    }
+
+    @Test
+    void theBackfillOnlyRunsWhenTheTableIsEmpty() {
+        when(rollupRepository.count()).thenReturn(4L);
+
+        rollupService.backfillIfEmpty();
+
+        verifyNoInteractions(userRepository);
+    }
+}
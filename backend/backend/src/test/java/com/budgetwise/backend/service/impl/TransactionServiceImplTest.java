@@ -0,0 +1,213 @@
+package com.budgetwise.backend.service.impl;
+
+import com.budgetwise.backend.dto.AmountBucketDto;
+import com.budgetwise.backend.dto.CategorySpendingDto;
+import com.budgetwise.backend.dto.SpendingAnalyticsDto;
+import com.budgetwise.backend.dto.TransactionDto;
+import com.budgetwise.backend.dto.TransactionFilterDto;
+import com.budgetwise.backend.dto.TransactionPageDto;
+import com.budgetwise.backend.entity.Transaction;
+import com.budgetwise.backend.entity.User;
+import com.budgetwise.backend.exception.InvalidCursorException;
+import com.budgetwise.backend.repository.TransactionRepository;
+import com.budgetwise.backend.repository.UserMonthCategoryRollupRepository;
+import com.budgetwise.backend.repository.UserRepository;
+import com.budgetwise.backend.service.RollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Keyset pagination of the transaction listing and the spending analytics, run against
+ * an in-memory H2 database so the seek and date-range predicates are evaluated by a real query.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class TransactionServiceImplTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2025, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private TransactionServiceImpl transactionService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionServiceImpl(
+                userRepository,
+                transactionRepository,
+                mock(UserMonthCategoryRollupRepository.class),
+                mock(RollupService.class),
+                mock(ApplicationEventPublisher.class));
+        user = persistUser("pager@example.com");
+    }
+
+    @Test
+    void pagesWalkEveryRowOnceAcrossRowsOnTheSameDate() {
+        List<Long> expected = new ArrayList<>();
+        // Five rows share a date, so the page boundaries fall between them and only the id breaks the tie
+        expected.add(persistTransaction(user, "EXPENSE", 10, MARCH.plusDays(2)).getId());
+        for (int i = 0; i < 5; i++) {
+            expected.add(persistTransaction(user, "EXPENSE", 10, MARCH.plusDays(1)).getId());
+        }
+        expected.add(persistTransaction(user, "EXPENSE", 10, MARCH).getId());
+        // Expected order: date descending, then id descending within a date
+        List<Long> sameDate = new ArrayList<>(expected.subList(1, 6));
+        sameDate.sort((a, b) -> Long.compare(b, a));
+        expected.subList(1, 6).clear();
+        expected.addAll(1, sameDate);
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDto page = transactionService.getTransactionPage(user.getEmail(), null, cursor, 2);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            assertEquals(page.getNextCursor() != null, page.isHasMore());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void theCursorEncodesTheLastRowOfThePage() {
+        persistTransaction(user, "EXPENSE", 10, MARCH.plusDays(1));
+        Transaction last = persistTransaction(user, "EXPENSE", 10, MARCH);
+        persistTransaction(user, "EXPENSE", 10, MARCH.minusDays(1));
+        entityManager.clear();
+
+        TransactionPageDto page = transactionService.getTransactionPage(user.getEmail(), null, null, 2);
+
+        String raw = new String(Base64.getUrlDecoder().decode(page.getNextCursor()), StandardCharsets.UTF_8);
+        assertEquals(MARCH + ":" + last.getId(), raw);
+        assertFalse(page.getNextCursor().contains("="), "cursor must be URL-safe without padding");
+    }
+
+    @Test
+    void aPageThatFitsHasNoCursor() {
+        persistTransaction(user, "EXPENSE", 10, MARCH);
+        persistTransaction(user, "EXPENSE", 10, MARCH);
+        entityManager.clear();
+
+        TransactionPageDto page = transactionService.getTransactionPage(user.getEmail(), null, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        List<String> cursors = List.of(
+                "not base64!",
+                encode("2025-03-01"),
+                encode("2025-03-01:12:3"),
+                encode("yesterday:12"),
+                encode("2025-03-01:twelve"));
+
+        for (String cursor : cursors) {
+            assertThrows(InvalidCursorException.class,
+                    () -> transactionService.getTransactionPage(user.getEmail(), null, cursor, 10), cursor);
+        }
+    }
+
+    @Test
+    void theTypeFilterIgnoresTheDefaultLocale() {
+        persistTransaction(user, "INCOME", 100, MARCH);
+        persistTransaction(user, "EXPENSE", 10, MARCH);
+        entityManager.clear();
+        TransactionFilterDto filter = new TransactionFilterDto();
+        filter.setType("income");
+
+        Locale defaultLocale = Locale.getDefault();
+        // Turkish upper-cases "i" to a dotted capital I
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            List<TransactionDto> items = transactionService.getTransactionPage(user.getEmail(), filter, null, 10).getItems();
+
+            assertEquals(1, items.size());
+            assertTrue(items.stream().allMatch(item -> item.getType().equals("INCOME")));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void spendingAnalyticsOnlyReadsExpensesInTheRange() {
+        persistTransaction(user, "EXPENSE", "Food", 30, MARCH.plusDays(3));
+        persistTransaction(user, "EXPENSE", "rent", 70, MARCH.plusDays(10));
+        persistTransaction(user, "EXPENSE", "Food", 20, MARCH.plusDays(31)); // Past the end
+        persistTransaction(user, "EXPENSE", "Food", 40, MARCH.minusDays(1)); // Before the start
+        persistTransaction(user, "INCOME", "Salary", 900, MARCH.plusDays(5)); // Not an expense
+        User other = persistUser("other@example.com");
+        persistTransaction(other, "EXPENSE", "Food", 500, MARCH.plusDays(3));
+        entityManager.clear();
+
+        SpendingAnalyticsDto analytics = transactionService.getSpendingAnalytics(
+                user.getEmail(), MARCH, MARCH.plusMonths(1).minusDays(1), 2);
+
+        assertEquals(2, analytics.getExpenseCount());
+        assertEquals(100.0, analytics.getTotalExpenses());
+        assertEquals(List.of("rent", "Food"),
+                analytics.getByCategory().stream().map(CategorySpendingDto::getCategory).toList());
+        assertEquals(List.of(1L, 1L),
+                analytics.getAmountHistogram().stream().map(AmountBucketDto::getCount).toList());
+        // Open ends cover the whole history
+        assertEquals(160.0, transactionService.getSpendingAnalytics(user.getEmail(), null, null, 2).getTotalExpenses());
+    }
+
+    // --- Helper Methods ---
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setName("Test");
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setRole(User.Role.USER);
+        return entityManager.persist(user);
+    }
+
+    private Transaction persistTransaction(User user, String type, double amount, LocalDate date) {
+        return persistTransaction(user, type, "Food", amount, date);
+    }
+
+    private Transaction persistTransaction(User user, String type, String category, double amount, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setType(type);
+        transaction.setCategory(category);
+        transaction.setAmount(amount);
+        transaction.setDate(date);
+        return entityManager.persistAndFlush(transaction);
+    }
+}